@@ -1,23 +1,73 @@
 package com.lithespeed.hellojava06.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.S3CrtAsyncClientBuilder;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
 
 @Configuration
 @Profile("!test")
+@EnableConfigurationProperties(S3ClientProperties.class)
 public class AwsConfig {
 
-    @Value("${aws.s3.retry-count:3}")
-    private int numRetries;
+    private final S3ClientProperties properties;
+
+    @Autowired
+    public AwsConfig(S3ClientProperties properties) {
+        this.properties = properties;
+    }
 
     @Bean
     public S3AsyncClient s3AsyncClient() {
-        return S3AsyncClient.crtBuilder()
-                .retryConfiguration(rcb -> rcb.numRetries(numRetries))
-                .region(software.amazon.awssdk.regions.Region.US_EAST_1) // Default region for template
-                .build();
+        S3ClientProperties.Crt crt = properties.getCrt();
+        S3CrtAsyncClientBuilder builder = S3AsyncClient.crtBuilder()
+                .retryConfiguration(rcb -> rcb.numRetries(properties.getRetryCount()))
+                .region(Region.of(properties.getRegion()))
+                .forcePathStyle(properties.isForcePathStyle())
+                .targetThroughputInGbps(crt.getTargetThroughputInGbps())
+                .maxConcurrency(crt.getMaxConcurrency())
+                .checksumValidationEnabled(crt.getChecksumValidationEnabled());
+        if (crt.getMinimumPartSize() != null) {
+            builder.minimumPartSizeInBytes(crt.getMinimumPartSize().toBytes());
+        }
+        if (crt.getInitialReadBufferSize() != null) {
+            builder.initialReadBufferSizeInBytes(crt.getInitialReadBufferSize().toBytes());
+        }
+        URI endpoint = endpointOverride();
+        if (endpoint != null) {
+            builder.endpointOverride(endpoint);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Signs presigned URLs locally; shares the client's region, endpoint and addressing style so URLs point at
+     * the same S3.
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(properties.getRegion()))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(properties.isForcePathStyle())
+                        .build());
+        URI endpoint = endpointOverride();
+        if (endpoint != null) {
+            builder.endpointOverride(endpoint);
+        }
+        return builder.build();
+    }
+
+    private URI endpointOverride() {
+        String endpoint = properties.getEndpoint();
+        return endpoint == null || endpoint.isBlank() ? null : URI.create(endpoint);
     }
 }
@@ -0,0 +1,117 @@
+package com.lithespeed.hellojava06.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the S3 CRT client under {@code aws.s3}. CRT knobs left unset keep the SDK defaults.
+ */
+@ConfigurationProperties(prefix = "aws.s3")
+public class S3ClientProperties {
+
+    private String region = "us-east-1";
+
+    /** Endpoint override, e.g. a local S3 stand-in; blank for the regional AWS endpoint. */
+    private String endpoint;
+
+    /** Address buckets as {@code endpoint/bucket/key} instead of {@code bucket.endpoint/key}, as most S3 stand-ins need. */
+    private boolean forcePathStyle;
+
+    private int retryCount = 3;
+
+    private final Crt crt = new Crt();
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public boolean isForcePathStyle() {
+        return forcePathStyle;
+    }
+
+    public void setForcePathStyle(boolean forcePathStyle) {
+        this.forcePathStyle = forcePathStyle;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public Crt getCrt() {
+        return crt;
+    }
+
+    public static class Crt {
+
+        /** Throughput the CRT sizes its connection pool for. */
+        private Double targetThroughputInGbps;
+
+        /** Upper bound on concurrent connections; overrides the value derived from the target throughput. */
+        private Integer maxConcurrency;
+
+        /** Part size the CRT uses to split large uploads and downloads. */
+        private DataSize minimumPartSize;
+
+        /** Buffer per download before back-pressure kicks in. */
+        private DataSize initialReadBufferSize;
+
+        /** Validate checksums of uploaded and downloaded data. */
+        private Boolean checksumValidationEnabled;
+
+        public Double getTargetThroughputInGbps() {
+            return targetThroughputInGbps;
+        }
+
+        public void setTargetThroughputInGbps(Double targetThroughputInGbps) {
+            this.targetThroughputInGbps = targetThroughputInGbps;
+        }
+
+        public Integer getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public DataSize getMinimumPartSize() {
+            return minimumPartSize;
+        }
+
+        public void setMinimumPartSize(DataSize minimumPartSize) {
+            this.minimumPartSize = minimumPartSize;
+        }
+
+        public DataSize getInitialReadBufferSize() {
+            return initialReadBufferSize;
+        }
+
+        public void setInitialReadBufferSize(DataSize initialReadBufferSize) {
+            this.initialReadBufferSize = initialReadBufferSize;
+        }
+
+        public Boolean getChecksumValidationEnabled() {
+            return checksumValidationEnabled;
+        }
+
+        public void setChecksumValidationEnabled(Boolean checksumValidationEnabled) {
+            this.checksumValidationEnabled = checksumValidationEnabled;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.lithespeed.hellojava06.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link S3ResponseDTO}s as JSON through one {@link ObjectWriter} per concrete response class, built once
+ * with its root serializer already resolved. The generic Jackson converter prepares a writer and looks the
+ * serializer up again for every response; S3 responses are few types written very often, so that work is done
+ * here only once. Write-only: S3 requests are still read by the regular Jackson converter.
+ */
+public class S3ResponseHttpMessageConverter extends AbstractHttpMessageConverter<S3ResponseDTO> {
+
+    private final ClassValue<ObjectWriter> writers;
+
+    public S3ResponseHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return objectMapper.writerFor(type);
+            }
+        };
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return S3ResponseDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected S3ResponseDTO readInternal(Class<? extends S3ResponseDTO> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("S3 responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(S3ResponseDTO response, HttpOutputMessage outputMessage) throws IOException {
+        // The container owns the response stream; Jackson would close it after the value
+        writers.get(response.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), response);
+    }
+}
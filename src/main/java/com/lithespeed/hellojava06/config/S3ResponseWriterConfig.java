@@ -0,0 +1,28 @@
+package com.lithespeed.hellojava06.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Puts {@link S3ResponseHttpMessageConverter} ahead of the default converters so {@code /s3} responses are
+ * written with their pre-built writers. It shares Boot's {@link ObjectMapper}, so {@code spring.jackson.*}
+ * settings apply to them as to every other response.
+ */
+@Configuration
+public class S3ResponseWriterConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public S3ResponseWriterConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new S3ResponseHttpMessageConverter(objectMapper));
+    }
+}
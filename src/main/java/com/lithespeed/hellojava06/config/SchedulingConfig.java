@@ -0,0 +1,12 @@
+package com.lithespeed.hellojava06.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the dialog catalog reload.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -59,6 +59,30 @@ public class DialogController {
         }
     }
 
+    @PostMapping("/search")
+    @Operation(summary = "Search dialogs by request text", description = "Find dialogs whose request contains the provided text, regardless of ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Missing search text")
+    })
+    @JsonView(Dialog.RequestResponseView.class)
+    public ResponseEntity<List<Dialog>> searchDialogs(
+            @Parameter(description = "Dialog search criteria", required = true)
+            @RequestBody @JsonView(Dialog.RequestView.class) Dialog dialogRequest,
+            @Parameter(description = "Maximum number of dialogs to return") @RequestParam(defaultValue = "20") int limit) {
+
+        logger.info("Received searchDialogs request: {}", dialogRequest);
+
+        try {
+            List<Dialog> dialogs = dialogService.searchDialogsByRequest(dialogRequest.getRequest(), limit);
+            return ResponseEntity.ok(dialogs);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected searchDialogs request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping
     @Operation(summary = "Get all dialogs", description = "Retrieve all active dialogs ordered by priority and creation date")
     @ApiResponses(value = {
@@ -1,6 +1,11 @@
 package com.lithespeed.hellojava06.controller;
 
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
 import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.service.UserCountService;
+import com.lithespeed.hellojava06.service.UserExportService;
 import com.lithespeed.hellojava06.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,29 +14,45 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
+@Profile("!reactive")
 @Tag(name = "User Management", description = "APIs for managing users")
 public class MainController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserCountService userCountService;
+    private final Duration exportTimeout;
 
     @Autowired
-    public MainController(UserService userService) {
+    public MainController(UserService userService, UserExportService userExportService,
+                          UserCountService userCountService,
+                          @Value("${users.export.timeout:10m}") Duration exportTimeout) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userCountService = userCountService;
+        this.exportTimeout = exportTimeout;
     }
 
     // ========== USER CRUD OPERATIONS ==========
@@ -46,6 +67,20 @@ public class MainController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all users", description = "Stream all users as newline-delimited JSON with constant memory use")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users streamed successfully", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = User.class)))
+    })
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response) {
+        // A full export can outlive spring.mvc.async.request-timeout, so only this endpoint carries the long one
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            userExportService.exportAsNdjson(response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/users/paginated")
     @Operation(summary = "Get paginated users", description = "Retrieve users with pagination support")
     @ApiResponses(value = {
@@ -56,6 +91,19 @@ public class MainController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/users/keyset")
+    @Operation(summary = "Get users by cursor", description = "Retrieve users ordered by ID using an opaque continuation cursor; no total count is computed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of users"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<UserKeysetPageDTO> getUsersByCursor(
+            @Parameter(description = "Cursor from the previous page's nextCursor; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        UserKeysetPageDTO page = userService.getUsersAfter(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/users/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve a specific user by their ID")
     @ApiResponses(value = {
@@ -93,13 +141,16 @@ public class MainController {
     }
 
     @GetMapping("/users/search")
-    @Operation(summary = "Search users by name", description = "Search for users by their first or last name")
+    @Operation(summary = "Search users by name", description = "Search for users by their first or last name; results are ranked (exact, prefix, substring) and paginated")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Search completed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class)))
+            @ApiResponse(responseCode = "200", description = "Search completed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
+            @ApiResponse(responseCode = "400", description = "Search term shorter than 3 characters")
     })
     public ResponseEntity<List<User>> searchUsersByName(
-            @Parameter(description = "Name to search for") @RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
+            @Parameter(description = "Name to search for (at least 3 characters)") @RequestParam String name,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-50)") @RequestParam(defaultValue = "20") int size) {
+        List<User> users = userService.searchUsersByName(name, page, size);
         return ResponseEntity.ok(users);
     }
 
@@ -115,6 +166,22 @@ public class MainController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    @PostMapping("/users/batch")
+    @Operation(summary = "Create users in bulk", description = "Create up to 5000 users in one request; either all users are created or none")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Users created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "A username or email already exists")
+    })
+    public ResponseEntity<Map<String, Object>> createUsers(
+            @Parameter(description = "Users to create") @Valid @RequestBody UserBatchRequestDTO request) {
+        List<User> createdUsers = userService.createUsers(request.getUsers());
+        Map<String, Object> response = new HashMap<>();
+        response.put("created", createdUsers.size());
+        response.put("ids", createdUsers.stream().map(User::getId).collect(Collectors.toList()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @PutMapping("/users/{id}")
     @Operation(summary = "Update user", description = "Update an existing user with new information")
     @ApiResponses(value = {
@@ -144,15 +211,17 @@ public class MainController {
     }
 
     @GetMapping("/users/count")
-    @Operation(summary = "Get user count", description = "Get the total number of users in the system")
+    @Operation(summary = "Get user count", description = "Get the total number of users in the system; the response reports whether the number is cached, estimated or exact")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "User count retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "User count retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode")
     })
-    public ResponseEntity<Map<String, Long>> getUserCount() {
-        long count = userService.getUserCount();
-        Map<String, Long> response = new HashMap<>();
-        response.put("count", count);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<UserCountDTO> getUserCount(
+            @Parameter(description = "Count mode: cached, estimated or exact (defaults to users.count.mode)") @RequestParam(required = false) String mode) {
+        UserCountDTO count = mode == null
+                ? userCountService.getCount()
+                : userCountService.getCount(UserCountService.Mode.parse(mode));
+        return ResponseEntity.ok(count);
     }
 
     // ========== HEALTH CHECK ==========
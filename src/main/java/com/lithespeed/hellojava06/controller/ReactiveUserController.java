@@ -0,0 +1,168 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.service.ReactiveUserService;
+import com.lithespeed.hellojava06.service.UserCountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link MainController} user API backed by R2DBC, active with the {@code reactive} profile in its place.
+ * Handlers return {@link Mono}/{@link Flux} and are served by Spring MVC's reactive return value support, so no
+ * request thread waits on the database. The list, export and search endpoints stream with backpressure when
+ * {@code application/x-ndjson} is requested: rows are read as fast as the client consumes them. For
+ * {@code application/json} the results are collected into one array, as in {@link MainController}.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+@Profile("reactive")
+@Tag(name = "User Management (reactive)", description = "Non-blocking APIs for managing users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    // ========== USER CRUD OPERATIONS ==========
+
+    @GetMapping(value = "/users", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Get all users", description = "Retrieve all users; streamed with backpressure as application/x-ndjson")
+    public Flux<User> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all users", description = "Stream all users as newline-delimited JSON with constant memory use")
+    public Flux<User> exportUsers() {
+        return userService.getAllUsers();
+    }
+
+    @GetMapping("/users/paginated")
+    @Operation(summary = "Get paginated users", description = "Retrieve users with pagination support")
+    public Mono<Page<User>> getAllUsersPaginated(Pageable pageable) {
+        return userService.getAllUsers(pageable);
+    }
+
+    @GetMapping("/users/keyset")
+    @Operation(summary = "Get users by cursor", description = "Retrieve users ordered by ID using an opaque continuation cursor; no total count is computed")
+    public Mono<UserKeysetPageDTO> getUsersByCursor(
+            @Parameter(description = "Cursor from the previous page's nextCursor; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return userService.getUsersAfter(cursor, size);
+    }
+
+    @GetMapping("/users/{id}")
+    @Operation(summary = "Get user by ID", description = "Retrieve a specific user by their ID")
+    public Mono<User> getUserById(
+            @Parameter(description = "ID of the user to retrieve") @PathVariable Long id) {
+        return userService.getUserById(id);
+    }
+
+    @GetMapping("/users/username/{username}")
+    @Operation(summary = "Get user by username", description = "Retrieve a specific user by their username")
+    public Mono<User> getUserByUsername(
+            @Parameter(description = "Username of the user to retrieve") @PathVariable String username) {
+        return userService.getUserByUsername(username);
+    }
+
+    @GetMapping("/users/email/{email}")
+    @Operation(summary = "Get user by email", description = "Retrieve a specific user by their email address")
+    public Mono<User> getUserByEmail(
+            @Parameter(description = "Email address of the user to retrieve") @PathVariable String email) {
+        return userService.getUserByEmail(email);
+    }
+
+    @GetMapping(value = "/users/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Search users by name", description = "Search for users by their first or last name; results are ranked (exact, prefix, substring) and paginated")
+    public Flux<User> searchUsersByName(
+            @Parameter(description = "Name to search for") @RequestParam String name,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-50)") @RequestParam(defaultValue = "20") int size) {
+        return userService.searchUsersByName(name, page, size);
+    }
+
+    @PostMapping("/users")
+    @Operation(summary = "Create new user", description = "Create a new user with the provided information")
+    public Mono<ResponseEntity<User>> createUser(
+            @Parameter(description = "User information") @Valid @RequestBody User user) {
+        return userService.createUser(user)
+                .map(createdUser -> ResponseEntity.status(HttpStatus.CREATED).body(createdUser));
+    }
+
+    @PostMapping("/users/batch")
+    @Operation(summary = "Create users in bulk", description = "Create up to 5000 users in one request; either all users are created or none")
+    public Mono<ResponseEntity<Map<String, Object>>> createUsers(
+            @Parameter(description = "Users to create") @Valid @RequestBody UserBatchRequestDTO request) {
+        return userService.createUsers(request.getUsers())
+                .map(createdUsers -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("created", createdUsers.size());
+                    response.put("ids", createdUsers.stream().map(User::getId).collect(Collectors.toList()));
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                });
+    }
+
+    @PutMapping("/users/{id}")
+    @Operation(summary = "Update user", description = "Update an existing user with new information")
+    public Mono<User> updateUser(
+            @Parameter(description = "ID of the user to update") @PathVariable Long id,
+            @Parameter(description = "Updated user information") @Valid @RequestBody User userDetails) {
+        return userService.updateUser(id, userDetails);
+    }
+
+    @DeleteMapping("/users/{id}")
+    @Operation(summary = "Delete user", description = "Delete a user by their ID")
+    public Mono<Map<String, String>> deleteUser(
+            @Parameter(description = "ID of the user to delete") @PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "User deleted successfully");
+                    return response;
+                }));
+    }
+
+    @GetMapping("/users/count")
+    @Operation(summary = "Get user count", description = "Get the total number of users in the system; the response reports whether the number is cached, estimated or exact")
+    public Mono<UserCountDTO> getUserCount(
+            @Parameter(description = "Count mode: cached, estimated or exact (defaults to users.count.mode)") @RequestParam(required = false) String mode) {
+        return mode == null
+                ? userService.getCount()
+                : Mono.fromCallable(() -> UserCountService.Mode.parse(mode)).flatMap(userService::getCount);
+    }
+
+    // ========== HEALTH CHECK ==========
+
+    @GetMapping("/health")
+    @Operation(summary = "Health check", description = "Check if the main service is running")
+    public Map<String, String> healthCheck() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "hellojava06");
+        response.put("timestamp", java.time.LocalDateTime.now().toString());
+        return response;
+    }
+}
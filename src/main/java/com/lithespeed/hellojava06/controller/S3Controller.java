@@ -1,19 +1,34 @@
 package com.lithespeed.hellojava06.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import com.lithespeed.hellojava06.dto.S3BatchDeleteRequestDTO;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import com.lithespeed.hellojava06.dto.S3RequestErrorDTO;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
 import com.lithespeed.hellojava06.service.S3Service;
+import jakarta.validation.Valid;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/s3")
@@ -28,38 +43,51 @@ public class S3Controller {
 
     @PostMapping(value = "/upload-file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload a multipart file", description = "Upload a real file using multipart form data")
-    public CompletableFuture<ResponseEntity<Map<String, Object>>> uploadMultipartFile(
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> uploadMultipartFile(
             @RequestBody(description = "File to upload", required = true) @RequestParam("file") MultipartFile file) {
 
         if (file.isEmpty()) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", "File cannot be empty");
-            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(new S3RequestErrorDTO("File cannot be empty")));
         }
 
         return s3Service.processFileUpload(file)
-                .thenApply(response -> {
-                    Boolean success = (Boolean) response.get("success");
-                    if (Boolean.TRUE.equals(success)) {
-                        return ResponseEntity.ok(response);
-                    } else {
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-                    }
-                });
+                .thenApply(S3Controller::okOrServerError);
+    }
+
+    @PostMapping(value = "/upload-files", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload many files", description = "Upload several files in one multipart request; files are sent to S3 in parallel and reported individually")
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> uploadMultipartFiles(
+            @RequestBody(description = "Files to upload", required = true) @RequestParam("files") List<MultipartFile> files) {
+
+        if (files == null || files.isEmpty() || files.size() > S3Service.MAX_UPLOAD_FILES) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new S3RequestErrorDTO("Provide between 1 and " + S3Service.MAX_UPLOAD_FILES + " files")));
+        }
+
+        return s3Service.processFileBatchUpload(files)
+                .thenApply(S3Controller::batchStatus);
     }
 
     @GetMapping("/list")
-    @Operation(summary = "List files")
-    public CompletableFuture<ResponseEntity<Object>> listFiles() {
-        return s3Service.processFileList()
-                .thenApply(response -> {
-                    Boolean success = (Boolean) response.get("success");
-                    if (Boolean.TRUE.equals(success)) {
-                        return ResponseEntity.ok(response);
-                    } else {
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body((Object) response);
-                    }
-                });
+    @Operation(summary = "List files", description = "List one page of keys; pass nextContinuationToken back as continuationToken for the next page")
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> listFiles(
+            @Parameter(description = "Only list keys starting with this prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Roll up keys below this delimiter into commonPrefixes") @RequestParam(required = false) String delimiter,
+            @Parameter(description = "Maximum keys per page (1-1000)") @RequestParam(defaultValue = "1000") int pageSize,
+            @Parameter(description = "Token from the previous page") @RequestParam(required = false) String continuationToken) {
+        return s3Service.processFileList(prefix, delimiter, pageSize, continuationToken)
+                .thenApply(S3Controller::okOrServerError);
+    }
+
+    @GetMapping(value = "/list/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all files", description = "Stream every key under the prefix as newline-delimited JSON while S3 pages arrive")
+    public ResponseEntity<StreamingResponseBody> streamFiles(
+            @Parameter(description = "Only list keys starting with this prefix") @RequestParam(required = false) String prefix) {
+        StreamingResponseBody body = outputStream -> s3Service.writeKeysAsNdjson(prefix, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/health")
@@ -72,19 +100,158 @@ public class S3Controller {
 
     @DeleteMapping("/delete")
     @Operation(summary = "Delete a file from S3")
-    public CompletableFuture<ResponseEntity<String>> deleteFile(@RequestParam String key) {
-        return s3Service.deleteFileAsync(key)
-                .thenApply(deletedKey -> ResponseEntity.ok("File deleted successfully: " + deletedKey))
-                .exceptionally(e -> {
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body("Failed to delete file: " + e.getMessage());
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> deleteFile(@RequestParam String key) {
+        return s3Service.processFileDelete(key)
+                .thenApply(S3Controller::okOrServerError);
+    }
+
+    @GetMapping("/download")
+    @Operation(summary = "Download a file from S3", description = "Stream the object body; honours a single-range Range header with 206 Partial Content. With parallel=true the whole object is fetched as concurrent ranged GETs")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadFile(
+            @Parameter(description = "Key of the object to download") @RequestParam String key,
+            @Parameter(description = "Fetch the object as parallel ranged GETs (ignored with a Range header)") @RequestParam(defaultValue = "false") boolean parallel,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+
+        String singleRange = singleByteRange(range);
+        // Packed files are small slices of a shared object; one ranged GET is all they need
+        if (parallel && singleRange == null && !s3Service.isPackedKey(key)) {
+            return s3Service.getMetadataAsync(key)
+                    .thenCompose(metadata -> {
+                        if (!metadata.isExists()) {
+                            return CompletableFuture.completedFuture(
+                                    ResponseEntity.status(HttpStatus.NOT_FOUND).<StreamingResponseBody>build());
+                        }
+                        // Ranges of a compressed object are ranges of its gzip bytes; stream and decode it instead.
+                        // An empty object has no range to fetch.
+                        if (metadata.getSize() == null || metadata.getSize() == 0 || metadata.getContentEncoding() != null) {
+                            return streamObject(key, null);
+                        }
+                        // Headers come from a fresh first range, not the cache, so they match what is streamed
+                        return s3Service.getFirstRangeAsync(key).thenCompose(firstRange -> {
+                            GetObjectResponse object = firstRange.response();
+                            if (object.contentEncoding() != null) {
+                                return streamObject(key, null);
+                            }
+                            StreamingResponseBody body = outputStream ->
+                                    s3Service.writeRangesInParallel(key, firstRange, outputStream);
+                            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                                    .contentType(mediaTypeOf(object.contentType()))
+                                    .contentLength(S3Service.totalSize(object));
+                            if (object.eTag() != null) {
+                                builder.eTag(object.eTag());
+                            }
+                            return CompletableFuture.completedFuture(builder.body(body));
+                        });
+                    })
+                    .exceptionally(e -> ResponseEntity.status(downloadErrorStatus(e)).build());
+        }
+
+        return streamObject(key, singleRange)
+                .exceptionally(e -> ResponseEntity.status(downloadErrorStatus(e)).build());
+    }
+
+    private CompletableFuture<ResponseEntity<StreamingResponseBody>> streamObject(String key, String range) {
+        return s3Service.downloadAsync(key, range)
+                .thenApply(stream -> {
+                    GetObjectResponse object = stream.response();
+                    StreamingResponseBody body = outputStream -> {
+                        try (stream) {
+                            stream.transferTo(outputStream);
+                        }
+                    };
+                    ResponseEntity.BodyBuilder builder = ResponseEntity
+                            .status(object.contentRange() != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                            .contentType(mediaTypeOf(object.contentType()));
+                    if (object.contentLength() != null) {
+                        builder.contentLength(object.contentLength());
+                    }
+                    if (object.eTag() != null) {
+                        builder.eTag(object.eTag());
+                    }
+                    if (object.contentRange() != null) {
+                        builder.header(HttpHeaders.CONTENT_RANGE, object.contentRange());
+                    }
+                    return builder.body(body);
                 });
     }
 
+    // S3 serves a single range only; anything else falls back to the full object, as RFC 9110 allows
+    private static String singleByteRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            return HttpRange.parseRanges(range).size() == 1 ? range.trim() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static MediaType mediaTypeOf(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    private static HttpStatus downloadErrorStatus(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof NoSuchKeyException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (cause instanceof S3Exception) {
+            HttpStatus status = HttpStatus.resolve(((S3Exception) cause).statusCode());
+            if (status == HttpStatus.NOT_FOUND || status == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+                return status;
+            }
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    @PostMapping("/delete-batch")
+    @Operation(summary = "Delete many files from S3", description = "Delete a list of keys or every key under a prefix using DeleteObjects batches of up to 1000 keys; returns one result per key for a key list, and counts plus the failed keys for a prefix. Prefix deletes skip packs/")
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> deleteFiles(
+            @RequestBody(description = "Keys or prefix to delete", required = true)
+            @Valid @org.springframework.web.bind.annotation.RequestBody S3BatchDeleteRequestDTO request) {
+
+        boolean hasKeys = request.getKeys() != null && !request.getKeys().isEmpty();
+        boolean hasPrefix = request.getPrefix() != null && !request.getPrefix().isBlank();
+        if (hasKeys == hasPrefix) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new S3RequestErrorDTO("Provide either keys or a non-empty prefix")));
+        }
+        if (hasPrefix && s3Service.isPackStorageKey(request.getPrefix())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new S3RequestErrorDTO("Packs cannot be deleted by prefix; delete them by key")));
+        }
+
+        return s3Service.processFileBatchDelete(hasKeys ? request.getKeys() : null, hasKeys ? null : request.getPrefix())
+                .thenApply(S3Controller::batchStatus);
+    }
+
+    private static ResponseEntity<S3ResponseDTO> okOrServerError(S3ResponseDTO response) {
+        return response.isSuccess()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    // A batch that ran but had failures carries per-item results; an error response means the batch itself failed
+    private static ResponseEntity<S3ResponseDTO> batchStatus(S3ResponseDTO response) {
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.status(response instanceof S3ErrorResponseDTO
+                ? HttpStatus.INTERNAL_SERVER_ERROR
+                : HttpStatus.MULTI_STATUS).body(response);
+    }
+
     @GetMapping("/exists")
     @Operation(summary = "Check if file exists in S3")
-    public CompletableFuture<ResponseEntity<Boolean>> fileExists(@RequestParam String key) {
-        return s3Service.fileExistsAsync(key)
-                .thenApply(exists -> ResponseEntity.ok(exists));
+    public CompletableFuture<ResponseEntity<S3ResponseDTO>> fileExists(@RequestParam String key) {
+        return s3Service.processFileExists(key)
+                .thenApply(S3Controller::okOrServerError);
     }
 }
@@ -0,0 +1,90 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.lithespeed.hellojava06.dto.S3MultipartCompleteRequestDTO;
+import com.lithespeed.hellojava06.service.S3PresignService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hands out presigned S3 URLs so upload and download bytes bypass the application.
+ */
+@RestController
+@RequestMapping("/s3/presign")
+public class S3PresignController {
+
+    private final S3PresignService s3PresignService;
+
+    @Autowired
+    public S3PresignController(S3PresignService s3PresignService) {
+        this.s3PresignService = s3PresignService;
+    }
+
+    @PostMapping("/upload")
+    @Operation(summary = "Presign an upload", description = "Return a new key and a presigned PUT URL; call /s3/presign/complete after the upload")
+    public ResponseEntity<Map<String, Object>> presignUpload(
+            @Parameter(description = "Original file name, used for the key's extension") @RequestParam String fileName,
+            @Parameter(description = "Content type the client will send") @RequestParam(defaultValue = "application/octet-stream") String contentType) {
+        return ResponseEntity.ok(s3PresignService.presignUpload(fileName, contentType));
+    }
+
+    @GetMapping("/download")
+    @Operation(summary = "Presign a download", description = "Return a presigned GET URL for the key")
+    public ResponseEntity<Map<String, Object>> presignDownload(
+            @Parameter(description = "Key of the object to download") @RequestParam String key) {
+        return ResponseEntity.ok(s3PresignService.presignDownload(key));
+    }
+
+    @PostMapping("/multipart")
+    @Operation(summary = "Presign a multipart upload", description = "Start a multipart upload and return one presigned PUT URL per part; finish with /s3/presign/multipart/complete")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> presignMultipartUpload(
+            @Parameter(description = "Original file name, used for the key's extension") @RequestParam String fileName,
+            @Parameter(description = "Content type of the object") @RequestParam(defaultValue = "application/octet-stream") String contentType,
+            @Parameter(description = "Number of parts (1-10000)") @RequestParam int parts) {
+        if (parts < 1 || parts > S3PresignService.MAX_PARTS) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Part count must be between 1 and " + S3PresignService.MAX_PARTS);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
+        }
+        return s3PresignService.presignMultipartUpload(fileName, contentType, parts)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> failure("presign multipart upload", e));
+    }
+
+    @PostMapping("/multipart/complete")
+    @Operation(summary = "Complete a presigned multipart upload", description = "Assemble the uploaded parts and register the object")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> completeMultipartUpload(
+            @Valid @RequestBody S3MultipartCompleteRequestDTO request) {
+        return s3PresignService.completeMultipartUpload(request)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> failure("complete multipart upload", e));
+    }
+
+    @PostMapping("/complete")
+    @Operation(summary = "Register a direct upload", description = "Completion callback: confirm the object exists in S3 and register its metadata")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> completeUpload(
+            @Parameter(description = "Key returned by /s3/presign/upload") @RequestParam String key) {
+        return s3PresignService.completeUpload(key)
+                .thenApply(response -> Boolean.TRUE.equals(response.get("exists"))
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body(response))
+                .exceptionally(e -> failure("register upload", e));
+    }
+
+    private static ResponseEntity<Map<String, Object>> failure(String operation, Throwable e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("operation", operation);
+        response.put("message", cause.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+}
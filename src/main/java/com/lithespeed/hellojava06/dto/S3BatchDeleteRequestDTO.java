@@ -0,0 +1,50 @@
+package com.lithespeed.hellojava06.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request body for bulk S3 deletion: either an explicit list of keys or a (non-empty) prefix, not both.
+ */
+public class S3BatchDeleteRequestDTO {
+
+    public static final int MAX_KEYS = 100_000;
+
+    @Size(max = MAX_KEYS, message = "A batch must not exceed " + MAX_KEYS + " keys")
+    private List<String> keys;
+
+    private String prefix;
+
+    public S3BatchDeleteRequestDTO() {
+    }
+
+    public S3BatchDeleteRequestDTO(List<String> keys, String prefix) {
+        this.keys = keys;
+        this.prefix = prefix;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String toString() {
+        return "S3BatchDeleteRequestDTO{" +
+                "keys=" + (keys == null ? 0 : keys.size()) +
+                ", prefix='" + prefix + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.lithespeed.hellojava06.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a batch deletion; {@code success} only when every key was deleted.
+ * A key list gets one result per key in request order, while a prefix deletion only reports the keys that
+ * failed (at most {@code MAX_DELETE_BATCH_SIZE} of them) next to the counts.
+ */
+public class S3BatchDeleteResponseDTO extends S3ResponseDTO {
+
+    private final long requested;
+    private final long deleted;
+    private final List<S3KeyDeleteResultDTO> results;
+
+    public S3BatchDeleteResponseDTO(long deleted, List<S3KeyDeleteResultDTO> results) {
+        this(results.size(), deleted, results);
+    }
+
+    public S3BatchDeleteResponseDTO(long requested, long deleted, List<S3KeyDeleteResultDTO> results) {
+        super(deleted == requested);
+        this.requested = requested;
+        this.deleted = deleted;
+        this.results = results;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getFailed() {
+        return requested - deleted;
+    }
+
+    public List<S3KeyDeleteResultDTO> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "S3BatchDeleteResponseDTO{" +
+                "requested=" + requested +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.lithespeed.hellojava06.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a multi-file upload with one result per file in request order; {@code success} only when every
+ * file was uploaded.
+ */
+public class S3BatchUploadResponseDTO extends S3ResponseDTO {
+
+    private final long uploaded;
+    private final List<S3FileUploadResultDTO> results;
+
+    public S3BatchUploadResponseDTO(long uploaded, List<S3FileUploadResultDTO> results) {
+        super(uploaded == results.size());
+        this.uploaded = uploaded;
+        this.results = results;
+    }
+
+    public int getRequested() {
+        return results.size();
+    }
+
+    public long getUploaded() {
+        return uploaded;
+    }
+
+    public long getFailed() {
+        return results.size() - uploaded;
+    }
+
+    public List<S3FileUploadResultDTO> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "S3BatchUploadResponseDTO{" +
+                "requested=" + results.size() +
+                ", uploaded=" + uploaded +
+                '}';
+    }
+}
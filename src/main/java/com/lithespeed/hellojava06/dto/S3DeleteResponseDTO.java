@@ -0,0 +1,31 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * Deleted object.
+ */
+public class S3DeleteResponseDTO extends S3ResponseDTO {
+
+    private final String message;
+    private final String key;
+
+    public S3DeleteResponseDTO(String message, String key) {
+        super(true);
+        this.message = message;
+        this.key = key;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "S3DeleteResponseDTO{" +
+                "key='" + key + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Failed S3 operation. {@code code} is the name of an {@code S3ErrorCode}; {@code message}, {@code context},
+ * the cause and {@code stackTrace} are left out of the JSON when absent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class S3ErrorResponseDTO extends S3ResponseDTO {
+
+    private final String code;
+    private final boolean retryable;
+    private final String operation;
+    private final String message;
+    private final String exceptionType;
+    private final String context;
+    private final String timestamp;
+    private final String causeType;
+    private final String causeMessage;
+    private final String stackTrace;
+
+    public S3ErrorResponseDTO(String code, boolean retryable, String operation, String message, String exceptionType,
+                              String context, String timestamp, String causeType, String causeMessage,
+                              String stackTrace) {
+        super(false);
+        this.code = code;
+        this.retryable = retryable;
+        this.operation = operation;
+        this.message = message;
+        this.exceptionType = exceptionType;
+        this.context = context;
+        this.timestamp = timestamp;
+        this.causeType = causeType;
+        this.causeMessage = causeMessage;
+        this.stackTrace = stackTrace;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getExceptionType() {
+        return exceptionType;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public String getCauseType() {
+        return causeType;
+    }
+
+    public String getCauseMessage() {
+        return causeMessage;
+    }
+
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    @Override
+    public String toString() {
+        return "S3ErrorResponseDTO{" +
+                "code='" + code + '\'' +
+                ", operation='" + operation + '\'' +
+                ", message='" + message + '\'' +
+                ", exceptionType='" + exceptionType + '\'' +
+                ", context='" + context + '\'' +
+                '}';
+    }
+}
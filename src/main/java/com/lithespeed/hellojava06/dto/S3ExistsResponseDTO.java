@@ -0,0 +1,32 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * Result of an existence check; {@code success} means the check itself worked, whatever its answer.
+ */
+public class S3ExistsResponseDTO extends S3ResponseDTO {
+
+    private final boolean exists;
+    private final String key;
+
+    public S3ExistsResponseDTO(boolean exists, String key) {
+        super(true);
+        this.exists = exists;
+        this.key = key;
+    }
+
+    public boolean isExists() {
+        return exists;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "S3ExistsResponseDTO{" +
+                "exists=" + exists +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one file of a multi-file upload: {@code key} when it was uploaded, {@code error} when not.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class S3FileUploadResultDTO {
+
+    private final String fileName;
+    private final long size;
+    private final boolean uploaded;
+    private final String key;
+    private final String error;
+
+    private S3FileUploadResultDTO(String fileName, long size, boolean uploaded, String key, String error) {
+        this.fileName = fileName;
+        this.size = size;
+        this.uploaded = uploaded;
+        this.key = key;
+        this.error = error;
+    }
+
+    public static S3FileUploadResultDTO uploaded(String fileName, long size, String key) {
+        return new S3FileUploadResultDTO(fileName, size, true, key, null);
+    }
+
+    public static S3FileUploadResultDTO failed(String fileName, long size, String error) {
+        return new S3FileUploadResultDTO(fileName, size, false, null, error);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isUploaded() {
+        return uploaded;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "S3FileUploadResultDTO{" +
+                "fileName='" + fileName + '\'' +
+                ", uploaded=" + uploaded +
+                ", key='" + key + '\'' +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of deleting one key of a batch; {@code error} is only present when it was not deleted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class S3KeyDeleteResultDTO {
+
+    private final String key;
+    private final boolean deleted;
+    private final String error;
+
+    private S3KeyDeleteResultDTO(String key, boolean deleted, String error) {
+        this.key = key;
+        this.deleted = deleted;
+        this.error = error;
+    }
+
+    public static S3KeyDeleteResultDTO deleted(String key) {
+        return new S3KeyDeleteResultDTO(key, true, null);
+    }
+
+    public static S3KeyDeleteResultDTO failed(String key, String error) {
+        return new S3KeyDeleteResultDTO(key, false, error);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "S3KeyDeleteResultDTO{" +
+                "key='" + key + '\'' +
+                ", deleted=" + deleted +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
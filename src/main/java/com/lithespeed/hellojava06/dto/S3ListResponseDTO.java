@@ -0,0 +1,55 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of keys; {@code nextContinuationToken} is only present when another page follows.
+ */
+public class S3ListResponseDTO extends S3ResponseDTO {
+
+    private final List<String> files;
+    private final List<String> commonPrefixes;
+    private final boolean truncated;
+    private final String nextContinuationToken;
+
+    public S3ListResponseDTO(List<String> files, List<String> commonPrefixes, boolean truncated,
+                             String nextContinuationToken) {
+        super(true);
+        this.files = files;
+        this.commonPrefixes = commonPrefixes;
+        this.truncated = truncated;
+        this.nextContinuationToken = nextContinuationToken;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public int getCount() {
+        return files.size();
+    }
+
+    public List<String> getCommonPrefixes() {
+        return commonPrefixes;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextContinuationToken() {
+        return nextContinuationToken;
+    }
+
+    @Override
+    public String toString() {
+        return "S3ListResponseDTO{" +
+                "files=" + files.size() +
+                ", commonPrefixes=" + commonPrefixes.size() +
+                ", truncated=" + truncated +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.lithespeed.hellojava06.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Request body for finishing a multipart upload whose parts the client sent straight to S3 through presigned URLs.
+ */
+public class S3MultipartCompleteRequestDTO {
+
+    @NotBlank(message = "Key is required")
+    private String key;
+
+    @NotBlank(message = "Upload id is required")
+    private String uploadId;
+
+    @NotEmpty(message = "At least one part is required")
+    private List<@Valid Part> parts;
+
+    public S3MultipartCompleteRequestDTO() {
+    }
+
+    public S3MultipartCompleteRequestDTO(String key, String uploadId, List<Part> parts) {
+        this.key = key;
+        this.uploadId = uploadId;
+        this.parts = parts;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    public void setParts(List<Part> parts) {
+        this.parts = parts;
+    }
+
+    @Override
+    public String toString() {
+        return "S3MultipartCompleteRequestDTO{" +
+                "key='" + key + '\'' +
+                ", uploadId='" + uploadId + '\'' +
+                ", parts=" + (parts == null ? 0 : parts.size()) +
+                '}';
+    }
+
+    /**
+     * Part number and the ETag S3 returned for it.
+     */
+    public static class Part {
+
+        @NotNull(message = "Part number is required")
+        @Min(value = 1, message = "Part numbers start at 1")
+        private Integer partNumber;
+
+        @NotBlank(message = "ETag is required")
+        private String etag;
+
+        public Part() {
+        }
+
+        public Part(Integer partNumber, String etag) {
+            this.partNumber = partNumber;
+            this.etag = etag;
+        }
+
+        public Integer getPartNumber() {
+            return partNumber;
+        }
+
+        public void setPartNumber(Integer partNumber) {
+            this.partNumber = partNumber;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+    }
+}
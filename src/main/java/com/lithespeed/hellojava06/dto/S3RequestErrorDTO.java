@@ -0,0 +1,25 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * Request to an {@code /s3} endpoint rejected before any S3 call, for example an empty upload.
+ */
+public class S3RequestErrorDTO extends S3ResponseDTO {
+
+    private final String error;
+
+    public S3RequestErrorDTO(String error) {
+        super(false);
+        this.error = error;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "S3RequestErrorDTO{" +
+                "error='" + error + '\'' +
+                '}';
+    }
+}
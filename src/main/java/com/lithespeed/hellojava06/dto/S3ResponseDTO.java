@@ -0,0 +1,18 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * Base of the {@code /s3} operation responses: either the operation's result or an {@link S3ErrorResponseDTO}.
+ * Written by the pre-built Jackson writers of {@code S3ResponseHttpMessageConverter}.
+ */
+public abstract class S3ResponseDTO {
+
+    private final boolean success;
+
+    protected S3ResponseDTO(boolean success) {
+        this.success = success;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+}
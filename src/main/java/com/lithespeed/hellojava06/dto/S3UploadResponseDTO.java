@@ -0,0 +1,51 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * Uploaded file; {@code etag} carries the object key the file was stored under.
+ */
+public class S3UploadResponseDTO extends S3ResponseDTO {
+
+    private final String message;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final String etag;
+
+    public S3UploadResponseDTO(String message, String fileName, String contentType, long size, String etag) {
+        super(true);
+        this.message = message;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.etag = etag;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    @Override
+    public String toString() {
+        return "S3UploadResponseDTO{" +
+                "fileName='" + fileName + '\'' +
+                ", size=" + size +
+                ", etag='" + etag + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.lithespeed.hellojava06.entity.User;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request body for bulk user creation.
+ * Wraps the list so that {@code @Valid} cascades into every user.
+ */
+public class UserBatchRequestDTO {
+
+    public static final int MAX_USERS = 5000;
+
+    @NotEmpty(message = "At least one user is required")
+    @Size(max = MAX_USERS, message = "A batch must not exceed " + MAX_USERS + " users")
+    private List<@Valid User> users;
+
+    public UserBatchRequestDTO() {
+    }
+
+    public UserBatchRequestDTO(List<User> users) {
+        this.users = users;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<User> users) {
+        this.users = users;
+    }
+
+    @Override
+    public String toString() {
+        return "UserBatchRequestDTO{" +
+                "users=" + (users == null ? 0 : users.size()) +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.lithespeed.hellojava06.dto;
+
+/**
+ * User count together with the mode that produced it ({@code cached}, {@code estimated} or {@code exact}).
+ */
+public class UserCountDTO {
+
+    private final long count;
+    private final String mode;
+
+    public UserCountDTO(long count, String mode) {
+        this.count = count;
+        this.mode = mode;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    @Override
+    public String toString() {
+        return "UserCountDTO{" +
+                "count=" + count +
+                ", mode='" + mode + '\'' +
+                '}';
+    }
+}
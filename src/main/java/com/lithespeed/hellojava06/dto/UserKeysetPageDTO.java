@@ -0,0 +1,48 @@
+package com.lithespeed.hellojava06.dto;
+
+import com.lithespeed.hellojava06.entity.User;
+
+import java.util.List;
+
+/**
+ * One page of users from keyset pagination.
+ * Carries no total count; {@code nextCursor} is an opaque token for the following page and is
+ * {@code null} on the last page.
+ */
+public class UserKeysetPageDTO {
+
+    private final List<User> content;
+    private final String nextCursor;
+    private final int size;
+
+    public UserKeysetPageDTO(List<User> content, String nextCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<User> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "UserKeysetPageDTO{" +
+                "content=" + content.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package com.lithespeed.hellojava06.repository;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a line-delimited dialog catalog through memory-mapped segments.
+ * Each line is {@code id<TAB>request<TAB>response} in UTF-8; blank lines and lines starting with {@code #}
+ * are skipped. Each segment is mapped read-only and kept by the returned {@link MappedDialogCatalog}; reading
+ * parses ids and records field offsets but decodes no text, which is left to the catalog on demand.
+ * The mappings outlive the channel, so the file must not be modified in place while a catalog built from it is
+ * in use.
+ */
+final class DialogCatalogReader {
+
+    private static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte TAB = '\t';
+    private static final byte COMMENT = '#';
+
+    private final long segmentSize;
+
+    DialogCatalogReader() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    DialogCatalogReader(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    MappedDialogCatalog read(Path path) throws IOException {
+        MappedDialogCatalog.Builder dialogs = new MappedDialogCatalog.Builder();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(segmentSize, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                dialogs.addSegment(segment);
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (segment.get(i) == NEWLINE) {
+                        parseLine(segment, lineStart, i, dialogs, position);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (position + length == size) {
+                    if (lineStart < length) {
+                        parseLine(segment, lineStart, length, dialogs, position);
+                    }
+                    position = size;
+                } else if (lineStart == 0) {
+                    throw new IOException("Catalog line at offset " + position + " exceeds segment size " + segmentSize);
+                } else {
+                    // Remap from the start of the partial line so it is parsed whole in the next segment
+                    position += lineStart;
+                }
+            }
+        }
+        return dialogs.build();
+    }
+
+    private void parseLine(MappedByteBuffer segment, int start, int end, MappedDialogCatalog.Builder dialogs,
+                           long segmentOffset)
+            throws IOException {
+        if (end > start && segment.get(end - 1) == CARRIAGE_RETURN) {
+            end--;
+        }
+        if (end == start || segment.get(start) == COMMENT) {
+            return;
+        }
+
+        int firstTab = indexOf(segment, TAB, start, end);
+        int secondTab = firstTab < 0 ? -1 : indexOf(segment, TAB, firstTab + 1, end);
+        if (secondTab < 0) {
+            throw new IOException("Malformed catalog line at offset " + (segmentOffset + start)
+                    + ": expected id<TAB>request<TAB>response");
+        }
+
+        int id = parseId(segment, start, firstTab, segmentOffset);
+        dialogs.add(id, firstTab + 1, secondTab, end);
+    }
+
+    private static int indexOf(MappedByteBuffer segment, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (segment.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseId(MappedByteBuffer segment, int start, int end, long segmentOffset) throws IOException {
+        boolean negative = start < end && segment.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw new IOException("Missing dialog id at offset " + (segmentOffset + start));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = segment.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Invalid dialog id at offset " + (segmentOffset + start));
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new IOException("Dialog id out of range at offset " + (segmentOffset + start));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Dialog id out of range at offset " + (segmentOffset + start));
+        }
+        return (int) value;
+    }
+}
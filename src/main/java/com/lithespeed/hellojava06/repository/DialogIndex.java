@@ -0,0 +1,181 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.Dialog;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+
+/**
+ * Immutable lookup structure over a fixed set of {@link DialogRecords}.
+ * Ids are held in an open-addressing int hash table, so lookups by id never box the id or touch the request text.
+ * A {@link TrigramIndex} over the normalized request text serves fragment searches that ignore the id; the text is
+ * only needed while the index is built. Dialogs are materialized from the records only once they are returned.
+ */
+final class DialogIndex {
+
+    private static final int EMPTY = -1;
+
+    private final DialogRecords records;
+    private final List<Dialog> view;
+    private final TrigramIndex trigrams;
+    private final int[] keys;
+    private final int[] positions;
+    private final int mask;
+
+    DialogIndex(List<Dialog> source) {
+        this(DialogRecords.of(source));
+    }
+
+    DialogIndex(DialogRecords records) {
+        this.records = records;
+        this.view = new RecordList(records);
+
+        int size = records.size();
+        int capacity = Integer.highestOneBit(Math.max(2, size * 2) - 1) << 1;
+        this.keys = new int[capacity];
+        this.positions = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(positions, EMPTY);
+
+        for (int i = 0; i < size; i++) {
+            insert(records.id(i), i);
+        }
+        this.trigrams = TrigramIndex.build(size, records::normalizedRequest);
+    }
+
+    /**
+     * Returns the dialogs in load order as an unmodifiable list; the same instance is returned on every call.
+     * Each element is materialized from the records when it is accessed.
+     */
+    List<Dialog> all() {
+        return view;
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    int trigramCount() {
+        return trigrams.gramCount();
+    }
+
+    /**
+     * Finds the dialog with the given id whose request contains {@code request} (case insensitive).
+     * A {@code null} request matches on id alone.
+     *
+     * @return the matching dialog, or {@code null} if none matches
+     */
+    Dialog find(int id, String request) {
+        int position = positionOf(id);
+        if (position == EMPTY) {
+            return null;
+        }
+        if (request == null || records.requestContains(position, request)) {
+            return records.dialog(position);
+        }
+        return null;
+    }
+
+    /**
+     * Finds dialogs whose request contains {@code fragment} (case insensitive), in load order.
+     * Fragments of at least three characters are narrowed through the trigram index; shorter ones fall
+     * back to a scan of every request.
+     *
+     * @param limit maximum number of dialogs to return
+     */
+    List<Dialog> search(String fragment, int limit) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        List<Dialog> matches = new ArrayList<>(Math.max(0, Math.min(limit, 16)));
+        int[] candidates = trigrams.candidates(needle);
+        if (candidates == null) {
+            for (int position = 0; position < records.size() && matches.size() < limit; position++) {
+                collectIfMatches(position, needle, matches);
+            }
+        } else {
+            for (int i = 0; i < candidates.length && matches.size() < limit; i++) {
+                collectIfMatches(candidates[i], needle, matches);
+            }
+        }
+        return matches;
+    }
+
+    private void collectIfMatches(int position, String needle, List<Dialog> matches) {
+        if (records.requestContains(position, needle)) {
+            matches.add(records.dialog(position));
+        }
+    }
+
+    private void insert(int id, int position) {
+        int slot = slotFor(id);
+        while (positions[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                // Keep the first dialog loaded for a duplicate id, matching the previous list scan
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        positions[slot] = position;
+    }
+
+    private int positionOf(int id) {
+        int slot = slotFor(id);
+        while (positions[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                return positions[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private int slotFor(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Substring search of {@code query} within already-lowercased {@code text}, lowercasing the query
+     * one character at a time instead of allocating a lowercased copy.
+     */
+    static boolean containsIgnoreCase(String text, String query) {
+        if (text == null) {
+            return false;
+        }
+        int queryLength = query.length();
+        int last = text.length() - queryLength;
+        for (int start = 0; start <= last; start++) {
+            int j = 0;
+            while (j < queryLength && text.charAt(start + j) == Character.toLowerCase(query.charAt(j))) {
+                j++;
+            }
+            if (j == queryLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RecordList extends AbstractList<Dialog> implements RandomAccess {
+
+        private final DialogRecords records;
+
+        RecordList(DialogRecords records) {
+            this.records = records;
+        }
+
+        @Override
+        public Dialog get(int index) {
+            return records.dialog(index);
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+    }
+}
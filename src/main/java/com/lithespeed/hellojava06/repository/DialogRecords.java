@@ -0,0 +1,79 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.Dialog;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Positional access to a loaded set of dialogs.
+ * {@link DialogIndex} works with ids and request matches by position and only asks for a whole {@link Dialog}
+ * once it returns one, so a source backed by a mapped file never decodes records that are not part of a result.
+ */
+interface DialogRecords {
+
+    int size();
+
+    int id(int position);
+
+    /**
+     * Returns the request text lowercased with {@link Locale#ROOT}, or {@code null} when the dialog has none.
+     * May allocate a new string on every call.
+     */
+    String normalizedRequest(int position);
+
+    /**
+     * Whether the request at {@code position} contains {@code query}, with the semantics of
+     * {@link DialogIndex#containsIgnoreCase(String, String)}.
+     */
+    boolean requestContains(int position, String query);
+
+    Dialog dialog(int position);
+
+    static DialogRecords of(List<Dialog> dialogs) {
+        return new InMemory(dialogs);
+    }
+
+    /**
+     * Dialogs already on the heap, such as the built-in set; request text is lowercased once up front.
+     */
+    final class InMemory implements DialogRecords {
+
+        private final List<Dialog> dialogs;
+        private final String[] normalizedRequests;
+
+        private InMemory(List<Dialog> source) {
+            this.dialogs = List.copyOf(source);
+            this.normalizedRequests = new String[dialogs.size()];
+            for (int i = 0; i < normalizedRequests.length; i++) {
+                String request = dialogs.get(i).getRequest();
+                normalizedRequests[i] = request == null ? null : request.toLowerCase(Locale.ROOT);
+            }
+        }
+
+        @Override
+        public int size() {
+            return dialogs.size();
+        }
+
+        @Override
+        public int id(int position) {
+            return dialogs.get(position).getId();
+        }
+
+        @Override
+        public String normalizedRequest(int position) {
+            return normalizedRequests[position];
+        }
+
+        @Override
+        public boolean requestContains(int position, String query) {
+            return DialogIndex.containsIgnoreCase(normalizedRequests[position], query);
+        }
+
+        @Override
+        public Dialog dialog(int position) {
+            return dialogs.get(position);
+        }
+    }
+}
@@ -1,23 +1,70 @@
 package com.lithespeed.hellojava06.repository;
 
 import com.lithespeed.hellojava06.entity.Dialog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Dialog store backed by an immutable {@link DialogIndex}.
+ * Without {@code dialogs.catalog.path} the built-in dialogs are served. With it, the catalog file is read through
+ * {@link DialogCatalogReader} and re-read whenever its modification time or size changes; the new index is built
+ * off to the side and published with a single volatile write, so readers never block or see a partial catalog.
+ * The published catalog keeps reading dialog text from its mapping of the file, so a new catalog has to be
+ * published by writing a separate file and renaming it over the old one; the old mapping then keeps the previous
+ * contents alive for readers still holding it. Truncating or rewriting the file in place makes access to the
+ * mapping fail with an {@link InternalError}.
+ * Reloads are serialized with a {@link ReentrantLock} rather than {@code synchronized}, which would pin a virtual
+ * thread to its carrier for the duration of the file read.
+ */
 @Repository
 public class DialogRepository {
 
-    private List<Dialog> dialogs;
+    private static final Logger logger = LoggerFactory.getLogger(DialogRepository.class);
+
+    private final Path catalogPath;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile DialogIndex index;
+    private FileTime loadedModifiedTime;
+    private long loadedSize = -1;
 
     public DialogRepository() {
-        this.dialogs = new ArrayList<>();
-        loadDialogs();
+        this("");
+    }
+
+    @Autowired
+    public DialogRepository(@Value("${dialogs.catalog.path:}") String catalogPath) {
+        if (catalogPath == null || catalogPath.isBlank()) {
+            this.catalogPath = null;
+            this.index = new DialogIndex(loadDialogs());
+        } else {
+            this.catalogPath = Paths.get(catalogPath);
+            try {
+                reloadIfChanged(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load dialog catalog from " + catalogPath, e);
+            }
+        }
     }
 
-    private void loadDialogs() {
+    private List<Dialog> loadDialogs() {
+        List<Dialog> dialogs = new ArrayList<>();
         dialogs.add(new Dialog(1, "Hello", "Hello"));
         dialogs.add(new Dialog(2, "How are you?", "I'm doing well, thank you for asking!"));
         dialogs.add(new Dialog(3, "What's your name?", "I'm an AI assistant here to help you."));
@@ -27,16 +74,63 @@ public class DialogRepository {
                 "You can ask me questions and I'll do my best to provide helpful answers."));
         dialogs.add(new Dialog(6, "Goodbye", "Goodbye! Have a great day!"));
         dialogs.add(new Dialog(7, "Thank you", "You're welcome! I'm glad I could help."));
+        return dialogs;
     }
 
+    /**
+     * Returns an immutable snapshot of all dialogs; the same instance is shared between calls.
+     */
     public List<Dialog> findAll() {
-        return new ArrayList<>(dialogs);
+        return index.all();
     }
 
     public Optional<Dialog> findByIdAndRequest(int id, String request) {
-        return dialogs.stream()
-                .filter(dialog -> dialog.getId() == id &&
-                        (request == null || dialog.getRequest().toLowerCase().contains(request.toLowerCase())))
-                .findFirst();
+        return Optional.ofNullable(index.find(id, request));
+    }
+
+    /**
+     * Finds dialogs whose request text contains the fragment (case insensitive), regardless of id.
+     */
+    public List<Dialog> searchByRequest(String fragment, int limit) {
+        return index.search(fragment, limit);
+    }
+
+    /**
+     * Polls the catalog file and swaps in a fresh index when it has changed.
+     * A failed reload is logged and the previous catalog stays in service. That includes the
+     * {@link InternalError} raised when the file is truncated in place while it is being mapped and read.
+     */
+    @Scheduled(fixedDelayString = "${dialogs.catalog.reload-interval-ms:5000}")
+    public void reloadCatalog() {
+        if (catalogPath == null) {
+            return;
+        }
+        try {
+            reloadIfChanged(false);
+        } catch (IOException | RuntimeException | InternalError e) {
+            logger.warn("Failed to reload dialog catalog from {}, keeping previous version: {}",
+                    catalogPath, e.getMessage());
+        }
+    }
+
+    private void reloadIfChanged(boolean force) throws IOException {
+        reloadLock.lock();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(catalogPath, BasicFileAttributes.class);
+            if (!force && attributes.size() == loadedSize
+                    && Objects.equals(attributes.lastModifiedTime(), loadedModifiedTime)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            DialogIndex reloaded = new DialogIndex(new DialogCatalogReader().read(catalogPath));
+            index = reloaded;
+            loadedModifiedTime = attributes.lastModifiedTime();
+            loadedSize = attributes.size();
+            logger.info("Loaded {} dialogs from {} in {} ms", reloaded.size(), catalogPath,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            reloadLock.unlock();
+        }
     }
-}
\ No newline at end of file
+}
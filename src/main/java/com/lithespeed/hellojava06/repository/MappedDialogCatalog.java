@@ -0,0 +1,160 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.Dialog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dialog records that stay in the mapped catalog file.
+ * The heap holds only the id and the field offsets of each line; request and response text is decoded from the
+ * mapping when a dialog is returned, or when a request match cannot be decided on the raw bytes.
+ * ASCII requests are matched against ASCII queries byte by byte without decoding, which is exact because
+ * {@link Character#toLowerCase(char)} and {@link String#toLowerCase(Locale)} agree on ASCII.
+ */
+final class MappedDialogCatalog implements DialogRecords {
+
+    private final ByteBuffer[] segments;
+    private final int size;
+    private final int[] ids;
+    private final int[] segmentIndexes;
+    private final int[] requestStarts;
+    private final int[] requestEnds;
+    private final int[] responseEnds;
+
+    private MappedDialogCatalog(Builder builder) {
+        this.segments = builder.segments.toArray(new ByteBuffer[0]);
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.segmentIndexes = Arrays.copyOf(builder.segmentIndexes, size);
+        this.requestStarts = Arrays.copyOf(builder.requestStarts, size);
+        this.requestEnds = Arrays.copyOf(builder.requestEnds, size);
+        this.responseEnds = Arrays.copyOf(builder.responseEnds, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int id(int position) {
+        return ids[position];
+    }
+
+    @Override
+    public String normalizedRequest(int position) {
+        return request(position).toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean requestContains(int position, String query) {
+        ByteBuffer segment = segments[segmentIndexes[position]];
+        int start = requestStarts[position];
+        int end = requestEnds[position];
+        if (!isAscii(query) || !isAscii(segment, start, end)) {
+            return DialogIndex.containsIgnoreCase(normalizedRequest(position), query);
+        }
+
+        int queryLength = query.length();
+        int last = end - queryLength;
+        for (int from = start; from <= last; from++) {
+            int j = 0;
+            while (j < queryLength && toLowerAscii(segment.get(from + j)) == toLowerAscii(query.charAt(j))) {
+                j++;
+            }
+            if (j == queryLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Dialog dialog(int position) {
+        ByteBuffer segment = segments[segmentIndexes[position]];
+        int requestEnd = requestEnds[position];
+        return new Dialog(ids[position], request(position),
+                decode(segment, requestEnd + 1, responseEnds[position]));
+    }
+
+    private String request(int position) {
+        return decode(segments[segmentIndexes[position]], requestStarts[position], requestEnds[position]);
+    }
+
+    // Absolute reads only, so the shared buffers are safe to read from any number of threads
+    private static String decode(ByteBuffer segment, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        segment.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(ByteBuffer segment, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (segment.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLowerAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    static final class Builder {
+
+        private final List<ByteBuffer> segments = new ArrayList<>();
+        private int size;
+        private int[] ids = new int[64];
+        private int[] segmentIndexes = new int[64];
+        private int[] requestStarts = new int[64];
+        private int[] requestEnds = new int[64];
+        private int[] responseEnds = new int[64];
+
+        /**
+         * Registers a mapped segment; records added afterwards refer to it until the next one is added.
+         */
+        void addSegment(ByteBuffer segment) {
+            segments.add(segment);
+        }
+
+        /**
+         * Adds a record whose request spans {@code [requestStart, requestEnd)} of the current segment and whose
+         * response runs from after the separator at {@code requestEnd} up to {@code responseEnd}.
+         */
+        void add(int id, int requestStart, int requestEnd, int responseEnd) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                segmentIndexes = Arrays.copyOf(segmentIndexes, capacity);
+                requestStarts = Arrays.copyOf(requestStarts, capacity);
+                requestEnds = Arrays.copyOf(requestEnds, capacity);
+                responseEnds = Arrays.copyOf(responseEnds, capacity);
+            }
+            ids[size] = id;
+            segmentIndexes[size] = segments.size() - 1;
+            requestStarts[size] = requestStart;
+            requestEnds[size] = requestEnd;
+            responseEnds[size] = responseEnd;
+            size++;
+        }
+
+        MappedDialogCatalog build() {
+            return new MappedDialogCatalog(this);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.User;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking access to the {@code users} table over R2DBC, mirroring the queries of {@link UserRepository}.
+ * Ids come from {@code users_seq} with the same pooled scheme Hibernate uses (see the V3 migration): every
+ * sequence value {@code w} reserves the ids {@code (w - 50, w]}, so one sequence call serves up to 50 inserts and
+ * the blocks never overlap those handed out by the JPA side.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    // Must match INCREMENT BY of users_seq
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    // Rows are requested from the database in chunks as the subscriber asks for them
+    private static final int FETCH_SIZE = 500;
+
+    private static final String COLUMNS = "id, username, email, first_name, last_name, created_at, updated_at";
+
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private static final String INSERT_SQL = "INSERT INTO users (" + COLUMNS + ") VALUES ($1, $2, $3, $4, $5, $6, $7)";
+
+    private final DatabaseClient databaseClient;
+    private final boolean postgres;
+    private final Object idLock = new Object();
+    private long nextId;
+    private long lastReservedId = -1;
+
+    @Autowired
+    public ReactiveUserRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.postgres = connectionFactory.getMetadata().getName().toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    /**
+     * Streams every user ordered by id; rows are fetched as they are demanded.
+     */
+    public Flux<User> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    /**
+     * One page by offset. Only the entity's own properties can be sorted on; the default order is by id.
+     */
+    public Flux<User> findPage(long offset, int limit, Sort sort) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users ORDER BY " + orderBy(sort)
+                        + " LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Flux<User> findByIdGreaterThan(long id, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<User> findById(long id) {
+        return findOneBy("id", id);
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return findOneBy("username", username);
+    }
+
+    public Mono<User> findByEmail(String email) {
+        return findOneBy("email", email);
+    }
+
+    public Mono<Boolean> existsByUsername(String username) {
+        return existsBy("username", username);
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return existsBy("email", email);
+    }
+
+    public Flux<User> findByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE username IN (:usernames) OR email IN (:emails)")
+                .bind("usernames", usernames)
+                .bind("emails", emails)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    /**
+     * Same ranking as {@link UserRepository#searchByName}: exact first/last name matches, then prefix matches,
+     * then other substring matches. {@code contains} and {@code prefix} are LIKE patterns escaped with {@code !}.
+     */
+    public Flux<User> searchByName(String term, String contains, String prefix, long offset, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users "
+                        + "WHERE LOWER(first_name) LIKE :contains ESCAPE '!' OR LOWER(last_name) LIKE :contains ESCAPE '!' "
+                        + "ORDER BY CASE "
+                        + "WHEN LOWER(first_name) = :term OR LOWER(last_name) = :term THEN 0 "
+                        + "WHEN LOWER(first_name) LIKE :prefix ESCAPE '!' OR LOWER(last_name) LIKE :prefix ESCAPE '!' THEN 1 "
+                        + "ELSE 2 END, last_name, first_name, id "
+                        + "LIMIT :limit OFFSET :offset")
+                .bind("term", term)
+                .bind("contains", contains)
+                .bind("prefix", prefix)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM users")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * PostgreSQL's planner estimate of the row count; empty on other databases.
+     */
+    public Mono<Long> estimateCount() {
+        if (!postgres) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Inserts the user with a newly allocated id and creation timestamps, which are set on the instance.
+     */
+    public Mono<User> insert(User user) {
+        return insertAll(List.of(user)).single();
+    }
+
+    /**
+     * Inserts all users as one batched statement.
+     */
+    public Flux<User> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.range(0, users.size())
+                .concatMap(i -> nextId())
+                .collectList()
+                .flatMapMany(ids -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    for (int i = 0; i < users.size(); i++) {
+                        User user = users.get(i);
+                        user.setId(ids.get(i));
+                        user.setCreatedAt(now);
+                        user.setUpdatedAt(now);
+                    }
+                    return databaseClient.inConnectionMany(connection -> {
+                        Statement statement = connection.createStatement(INSERT_SQL);
+                        for (int i = 0; i < users.size(); i++) {
+                            if (i > 0) {
+                                statement.add();
+                            }
+                            bindInsert(statement, users.get(i));
+                        }
+                        return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                    }).thenMany(Flux.fromIterable(users));
+                });
+    }
+
+    /**
+     * Writes the user's names and email and refreshes {@code updated_at}.
+     *
+     * @return the number of rows updated, 0 if the user no longer exists
+     */
+    public Mono<Long> update(User user) {
+        user.setUpdatedAt(LocalDateTime.now());
+        return databaseClient.sql("UPDATE users SET username = :username, email = :email, first_name = :firstName, "
+                        + "last_name = :lastName, updated_at = :updatedAt WHERE id = :id")
+                .bind("username", user.getUsername())
+                .bind("email", user.getEmail())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("updatedAt", user.getUpdatedAt())
+                .bind("id", user.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return the number of rows deleted, 0 if the user did not exist
+     */
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    static String orderBy(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return "id";
+        }
+        String orderBy = sort.stream()
+                .map(order -> {
+                    String column = SORTABLE_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new RuntimeException("Cannot sort users by: " + order.getProperty());
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", "));
+        // A unique last key keeps offset pages stable
+        return sort.getOrderFor("id") == null ? orderBy + ", id" : orderBy;
+    }
+
+    private Mono<Long> nextId() {
+        synchronized (idLock) {
+            if (nextId <= lastReservedId) {
+                return Mono.just(nextId++);
+            }
+        }
+        return databaseClient.sql(postgres ? "SELECT nextval('users_seq')" : "SELECT NEXT VALUE FOR users_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(sequenceValue -> {
+                    synchronized (idLock) {
+                        // A concurrent caller may have reserved a block meanwhile; ours then only serves this id
+                        if (nextId > lastReservedId) {
+                            // A fresh sequence starts at 1, whose block would reach below the first id
+                            nextId = Math.max(1, sequenceValue - ID_ALLOCATION_SIZE + 1);
+                            lastReservedId = sequenceValue;
+                            return nextId++;
+                        }
+                        return sequenceValue;
+                    }
+                });
+    }
+
+    private Mono<User> findOneBy(String column, Object value) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE " + column + " = :value")
+                .bind("value", value)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    private Mono<Boolean> existsBy(String column, String value) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE " + column + " = :value")
+                .bind("value", value)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    private static void bindInsert(Statement statement, User user) {
+        statement.bind(0, user.getId())
+                .bind(1, user.getUsername())
+                .bind(2, user.getEmail())
+                .bind(3, user.getFirstName())
+                .bind(4, user.getLastName())
+                .bind(5, user.getCreatedAt())
+                .bind(6, user.getUpdatedAt());
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User(row.get("username", String.class), row.get("email", String.class),
+                row.get("first_name", String.class), row.get("last_name", String.class));
+        user.setId(row.get("id", Long.class));
+        user.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        user.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return user;
+    }
+}
@@ -0,0 +1,135 @@
+package com.lithespeed.hellojava06.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable trigram inverted index over normalized dialog request text.
+ * Trigrams are packed into a {@code long} and kept in a sorted array with one flat posting array,
+ * so a query is a handful of binary searches followed by an intersection of sorted position lists.
+ */
+final class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final long[] grams;
+    private final int[] offsets;
+    private final int[] postings;
+
+    private TrigramIndex(long[] grams, int[] offsets, int[] postings) {
+        this.grams = grams;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index over {@code count} positions, asking {@code texts} for each text exactly once and in
+     * position order; a text may be {@code null} and is not retained after its trigrams are recorded.
+     */
+    static TrigramIndex build(int count, IntFunction<String> texts) {
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        int total = 0;
+        for (int position = 0; position < count; position++) {
+            String text = texts.apply(position);
+            if (text == null) {
+                continue;
+            }
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                if (builders.computeIfAbsent(encode(text, i), k -> new PostingBuilder()).add(position)) {
+                    total++;
+                }
+            }
+        }
+
+        long[] grams = new long[builders.size()];
+        int g = 0;
+        for (Long gram : builders.keySet()) {
+            grams[g++] = gram;
+        }
+        Arrays.sort(grams);
+
+        int[] offsets = new int[grams.length + 1];
+        int[] postings = new int[total];
+        int cursor = 0;
+        for (int i = 0; i < grams.length; i++) {
+            PostingBuilder builder = builders.get(grams[i]);
+            offsets[i] = cursor;
+            System.arraycopy(builder.positions, 0, postings, cursor, builder.size);
+            cursor += builder.size;
+        }
+        offsets[grams.length] = cursor;
+        return new TrigramIndex(grams, offsets, postings);
+    }
+
+    /**
+     * Returns the sorted positions whose text contains every trigram of {@code needle}, or {@code null}
+     * when the needle is shorter than a trigram and the index cannot narrow the search.
+     * Candidates must still be verified against the text, since trigram order is not checked.
+     */
+    int[] candidates(String needle) {
+        int gramCount = needle.length() - GRAM_LENGTH + 1;
+        if (gramCount <= 0) {
+            return null;
+        }
+
+        int[] starts = new int[gramCount];
+        int[] ends = new int[gramCount];
+        int smallest = 0;
+        for (int i = 0; i < gramCount; i++) {
+            int slot = Arrays.binarySearch(grams, encode(needle, i));
+            if (slot < 0) {
+                return new int[0];
+            }
+            starts[i] = offsets[slot];
+            ends[i] = offsets[slot + 1];
+            if (ends[i] - starts[i] < ends[smallest] - starts[smallest]) {
+                smallest = i;
+            }
+        }
+
+        int[] result = Arrays.copyOfRange(postings, starts[smallest], ends[smallest]);
+        int size = result.length;
+        for (int i = 0; i < gramCount && size > 0; i++) {
+            if (i == smallest) {
+                continue;
+            }
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(postings, starts[i], ends[i], result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    int gramCount() {
+        return grams.length;
+    }
+
+    private static long encode(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    private static final class PostingBuilder {
+        private int[] positions = new int[4];
+        private int size;
+
+        // Positions arrive in ascending order, so a repeated trigram within one text is always the last entry
+        boolean add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return false;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+            return true;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.lithespeed.hellojava06.repository;
 
 import com.lithespeed.hellojava06.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,6 +23,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE u.firstName LIKE %:name% OR u.lastName LIKE %:name%")
-    java.util.List<User> findByNameContaining(@Param("name") String name);
+    List<User> findByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails);
+
+    // Slice return type fetches size + 1 rows to detect a next page, with no count query
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Case-insensitive name search ranked on the server: exact first/last name matches first, then prefix
+     * matches, then other substring matches. {@code contains} and {@code prefix} are LIKE patterns escaped
+     * with {@code !}; the {@code lower(...)} expressions match the trigram indexes from the V4 migration.
+     */
+    @Query("SELECT u FROM User u "
+            + "WHERE LOWER(u.firstName) LIKE :contains ESCAPE '!' OR LOWER(u.lastName) LIKE :contains ESCAPE '!' "
+            + "ORDER BY CASE "
+            + "WHEN LOWER(u.firstName) = :term OR LOWER(u.lastName) = :term THEN 0 "
+            + "WHEN LOWER(u.firstName) LIKE :prefix ESCAPE '!' OR LOWER(u.lastName) LIKE :prefix ESCAPE '!' THEN 1 "
+            + "ELSE 2 END, u.lastName, u.firstName, u.id")
+    List<User> searchByName(@Param("term") String term, @Param("contains") String contains,
+                            @Param("prefix") String prefix, Pageable pageable);
 }
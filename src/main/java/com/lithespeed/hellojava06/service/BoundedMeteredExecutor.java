@@ -0,0 +1,68 @@
+package com.lithespeed.hellojava06.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pool of {@code coreSize} threads that grows to {@code maxSize} once {@code queueCapacity} tasks are
+ * waiting and beyond that rejects with a {@link RejectedExecutionException}, which {@code GlobalExceptionHandler}
+ * answers with 503 rather than queueing without limit. Pool size, active threads and queue depth are published
+ * as {@code executor.*} meters tagged {@code name=<name>}, plus {@code <name>.saturation} (queue fill ratio, 0-1)
+ * and {@code <name>.rejected}.
+ */
+abstract class BoundedMeteredExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService monitored;
+
+    BoundedMeteredExecutor(String name, String threadNamePrefix, String description, int coreSize, int maxSize,
+                           int queueCapacity, Duration keepAlive, MeterRegistry meterRegistry) {
+        int capacity = Math.max(1, queueCapacity);
+        Counter rejected = Counter.builder(name + ".rejected")
+                .description(description + " tasks rejected because the queue was full")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        this.pool = new ThreadPoolExecutor(Math.max(1, coreSize), Math.max(Math.max(1, coreSize), maxSize),
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity), threadFactory,
+                (task, executor) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException(description + " queue is full (" + capacity + " tasks waiting)");
+                });
+
+        this.monitored = ExecutorServiceMetrics.monitor(meterRegistry, pool, name);
+        Gauge.builder(name + ".saturation", pool, p -> (double) p.getQueue().size() / capacity)
+                .description("Fill ratio of the " + description + " queue")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        monitored.execute(command);
+    }
+
+    /**
+     * Tasks currently waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -12,6 +12,8 @@ import java.util.Optional;
 @Service
 public class DialogService {
 
+    public static final int MAX_SEARCH_RESULTS = 100;
+
     private final DialogRepository dialogRepository;
 
     @Autowired
@@ -32,4 +34,16 @@ public class DialogService {
             throw new Exception("Dialog not found");
         }
     }
+
+    /**
+     * Searches dialogs by request fragment alone, using the repository's trigram index.
+     * The limit is clamped to {@code 1..MAX_SEARCH_RESULTS}.
+     */
+    public List<Dialog> searchDialogsByRequest(String fragment, int limit) {
+        if (fragment == null || fragment.isBlank()) {
+            throw new IllegalArgumentException("Search fragment is required");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return dialogRepository.searchByRequest(fragment, boundedLimit);
+    }
 }
\ No newline at end of file
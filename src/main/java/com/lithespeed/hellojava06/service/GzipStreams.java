@@ -0,0 +1,127 @@
+package com.lithespeed.hellojava06.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pull-based gzip streams for S3 transfers. The JDK only compresses through {@code GZIPOutputStream}, which has
+ * to be pushed into; uploads read their body as an {@link InputStream}, so compression here is a
+ * {@link DeflaterInputStream} framed with the gzip header and a CRC/size trailer computed once the source is drained.
+ */
+final class GzipStreams {
+
+    static final String ENCODING = "gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private GzipStreams() {
+    }
+
+    /**
+     * Returns the gzip encoding of the source, compressed as it is read.
+     */
+    static InputStream compressing(InputStream source, int level) {
+        CheckedInputStream checked = new CheckedInputStream(source, new CRC32());
+        Deflater deflater = new Deflater(level, true);
+        DeflaterInputStream body = new DeflaterInputStream(checked, deflater, BUFFER_SIZE);
+
+        // The trailer is only built once the body is exhausted, when the CRC and length are final
+        Iterator<Supplier<InputStream>> parts = List.<Supplier<InputStream>>of(
+                () -> new ByteArrayInputStream(HEADER),
+                () -> body,
+                () -> {
+                    long crc = checked.getChecksum().getValue();
+                    long size = deflater.getBytesRead();
+                    deflater.end();
+                    return new ByteArrayInputStream(new byte[] {
+                            (byte) crc, (byte) (crc >>> 8), (byte) (crc >>> 16), (byte) (crc >>> 24),
+                            (byte) size, (byte) (size >>> 8), (byte) (size >>> 16), (byte) (size >>> 24)
+                    });
+                }).iterator();
+
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return parts.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return parts.next().get();
+            }
+        }) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end();
+                    checked.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Decodes a gzip stream, skipping {@code skip} decoded bytes and returning at most {@code limit} after them
+     * ({@code limit < 0} for no limit). Nothing is read from the source until the first read, so this is safe to
+     * set up on a thread that must not block.
+     */
+    static InputStream decompressing(InputStream source, long skip, long limit) {
+        return new InputStream() {
+            private InputStream decoded;
+            private long remaining = limit;
+
+            private InputStream decoded() throws IOException {
+                if (decoded == null) {
+                    decoded = new GZIPInputStream(source, BUFFER_SIZE);
+                    decoded.skipNBytes(skip);
+                }
+                return decoded;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                int read = read(single, 0, 1);
+                return read == -1 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (remaining == 0) {
+                    return -1;
+                }
+                int wanted = remaining < 0 ? length : (int) Math.min(length, remaining);
+                int read = decoded().read(buffer, offset, wanted);
+                if (read > 0 && remaining > 0) {
+                    remaining -= read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (decoded != null) {
+                    decoded.close();
+                } else {
+                    source.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,255 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.repository.ReactiveUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive user API ({@code reactive} profile).
+ * Validation, paging limits and error messages are the same, so failures map to the same HTTP statuses.
+ * Writes run in an R2DBC transaction through {@link TransactionalOperator}. Lookups are not cached:
+ * {@link UserCache} loads synchronously and would block the calling thread. The {@code cached} count is an
+ * in-memory counter as in {@link UserCountService}, adjusted after committed writes and reconciled periodically.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    private final ReactiveUserRepository userRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final UserCountService.Mode defaultCountMode;
+    private final AtomicLong count = new AtomicLong();
+    private volatile boolean countInitialized;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository userRepository, TransactionalOperator transactionalOperator,
+                               @Value("${users.count.mode:cached}") String defaultCountMode) {
+        this.userRepository = userRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.defaultCountMode = UserCountService.Mode.parse(defaultCountMode);
+    }
+
+    /**
+     * Streams all users ordered by id, reading from the database only as fast as the subscriber consumes.
+     */
+    public Flux<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    public Mono<Page<User>> getAllUsers(Pageable pageable) {
+        return Mono.defer(() -> userRepository.findPage(pageable.getOffset(), pageable.getPageSize(), pageable.getSort())
+                        .collectList())
+                .zipWith(userRepository.count(), (content, total) -> new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Keyset pagination ordered by id, as {@link UserService#getUsersAfter}; one extra row is read to detect
+     * the next page.
+     */
+    public Mono<UserKeysetPageDTO> getUsersAfter(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, UserService.MAX_KEYSET_PAGE_SIZE));
+        return Mono.fromCallable(() -> cursor == null || cursor.isBlank() ? 0L : UserService.decodeCursor(cursor))
+                .flatMap(afterId -> userRepository.findByIdGreaterThan(afterId, pageSize + 1).collectList())
+                .map(users -> {
+                    boolean hasNext = users.size() > pageSize;
+                    List<User> content = hasNext ? users.subList(0, pageSize) : users;
+                    String nextCursor = hasNext ? UserService.encodeCursor(content.get(content.size() - 1).getId()) : null;
+                    return new UserKeysetPageDTO(content, nextCursor, pageSize);
+                });
+    }
+
+    public Mono<User> getUserById(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with id: " + id)));
+    }
+
+    public Mono<User> getUserByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with username: " + username)));
+    }
+
+    public Mono<User> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with email: " + email)));
+    }
+
+    /**
+     * Ranked, case-insensitive search on first and last name with the same limits as
+     * {@link UserService#searchUsersByName(String, int, int)}.
+     */
+    public Flux<User> searchUsersByName(String name, int page, int size) {
+        String term;
+        try {
+            term = UserService.normalizeSearchTerm(name);
+        } catch (RuntimeException e) {
+            return Flux.error(e);
+        }
+        int pageSize = Math.max(1, Math.min(size, UserService.MAX_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if ((long) pageNumber * pageSize >= UserService.MAX_SEARCH_RESULTS) {
+            return Flux.empty();
+        }
+
+        String escaped = UserService.escapeLike(term);
+        return userRepository.searchByName(term, "%" + escaped + "%", escaped + "%",
+                (long) pageNumber * pageSize, pageSize);
+    }
+
+    public Mono<User> createUser(User user) {
+        return validateUniqueConstraints(user)
+                .then(Mono.defer(() -> userRepository.insert(user)))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(created -> count.incrementAndGet());
+    }
+
+    /**
+     * Creates all users in one transaction, or none if any username or email is taken. Uniqueness is checked
+     * with a single set-based query and the rows are written as one batched insert.
+     */
+    public Mono<List<User>> createUsers(List<User> users) {
+        if (users.size() > UserBatchRequestDTO.MAX_USERS) {
+            return Mono.error(new RuntimeException(
+                    "Batch size exceeds maximum of " + UserBatchRequestDTO.MAX_USERS + " users"));
+        }
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (User user : users) {
+            if (!usernames.add(user.getUsername())) {
+                return Mono.error(new RuntimeException("Duplicate username in batch: " + user.getUsername()));
+            }
+            if (!emails.add(user.getEmail())) {
+                return Mono.error(new RuntimeException("Duplicate email in batch: " + user.getEmail()));
+            }
+        }
+
+        return userRepository.findByUsernameInOrEmailIn(usernames, emails)
+                .collectList()
+                .flatMap(existingUsers -> {
+                    List<String> conflicts = new ArrayList<>();
+                    for (User existing : existingUsers) {
+                        if (usernames.contains(existing.getUsername())) {
+                            conflicts.add("username " + existing.getUsername());
+                        }
+                        if (emails.contains(existing.getEmail())) {
+                            conflicts.add("email " + existing.getEmail());
+                        }
+                    }
+                    if (!conflicts.isEmpty()) {
+                        return Mono.<List<User>>error(new RuntimeException(
+                                "Username or email already exists: " + String.join(", ", conflicts)));
+                    }
+                    users.forEach(user -> user.setId(null));
+                    return userRepository.insertAll(users).collectList();
+                })
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(created -> count.addAndGet(created.size()));
+    }
+
+    public Mono<User> updateUser(Long id, User userDetails) {
+        return getUserById(id)
+                .flatMap(existingUser -> {
+                    Mono<Void> usernameCheck = existingUser.getUsername().equals(userDetails.getUsername())
+                            ? Mono.empty()
+                            : userRepository.existsByUsername(userDetails.getUsername())
+                                    .flatMap(taken -> taken
+                                            ? Mono.<Void>error(new RuntimeException("Username already exists: " + userDetails.getUsername()))
+                                            : Mono.<Void>empty());
+                    Mono<Void> emailCheck = existingUser.getEmail().equals(userDetails.getEmail())
+                            ? Mono.empty()
+                            : userRepository.existsByEmail(userDetails.getEmail())
+                                    .flatMap(taken -> taken
+                                            ? Mono.<Void>error(new RuntimeException("Email already exists: " + userDetails.getEmail()))
+                                            : Mono.<Void>empty());
+                    return usernameCheck.then(emailCheck).then(Mono.defer(() -> {
+                        existingUser.setUsername(userDetails.getUsername());
+                        existingUser.setEmail(userDetails.getEmail());
+                        existingUser.setFirstName(userDetails.getFirstName());
+                        existingUser.setLastName(userDetails.getLastName());
+                        return userRepository.update(existingUser).thenReturn(existingUser);
+                    }));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> deleteUser(Long id) {
+        return userRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new RuntimeException("User not found with id: " + id))
+                        : Mono.<Void>empty())
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> count.decrementAndGet());
+    }
+
+    public Mono<UserCountDTO> getCount() {
+        return getCount(defaultCountMode);
+    }
+
+    /**
+     * Same modes as {@link UserCountService#getCount(UserCountService.Mode)}.
+     */
+    public Mono<UserCountDTO> getCount(UserCountService.Mode mode) {
+        if (mode == UserCountService.Mode.EXACT) {
+            return userRepository.count().map(exact -> new UserCountDTO(exact, UserCountService.Mode.EXACT.label()));
+        }
+        Mono<UserCountDTO> cached = Mono.defer(() -> countInitialized ? Mono.<Void>empty() : reconcileCount())
+                .then(Mono.fromSupplier(() -> new UserCountDTO(count.get(), UserCountService.Mode.CACHED.label())));
+        if (mode == UserCountService.Mode.ESTIMATED) {
+            // reltuples is -1 (PostgreSQL 14+) or 0 until the table has been vacuumed or analyzed
+            return userRepository.estimateCount()
+                    .filter(estimate -> estimate > 0)
+                    .map(estimate -> new UserCountDTO(estimate, UserCountService.Mode.ESTIMATED.label()))
+                    .switchIfEmpty(cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Resets the cached counter to the database count; subscribed to by the scheduler like any other job.
+     */
+    @Scheduled(fixedDelayString = "${users.count.reconcile-interval-ms:60000}",
+            initialDelayString = "${users.count.reconcile-interval-ms:60000}")
+    public Mono<Void> reconcileCount() {
+        return userRepository.count()
+                .doOnNext(actual -> {
+                    long previous = count.getAndSet(actual);
+                    if (countInitialized && previous != actual) {
+                        logger.info("Reconciled cached user count from {} to {}", previous, actual);
+                    }
+                    countInitialized = true;
+                })
+                .then();
+    }
+
+    private Mono<Void> validateUniqueConstraints(User user) {
+        return userRepository.existsByUsername(user.getUsername())
+                .flatMap(usernameTaken -> usernameTaken
+                        ? Mono.<Boolean>error(new RuntimeException("Username already exists: " + user.getUsername()))
+                        : userRepository.existsByEmail(user.getEmail()))
+                .flatMap(emailTaken -> emailTaken
+                        ? Mono.<Void>error(new RuntimeException("Email already exists: " + user.getEmail()))
+                        : Mono.<Void>empty());
+    }
+}
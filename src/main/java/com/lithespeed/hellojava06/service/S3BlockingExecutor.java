@@ -0,0 +1,26 @@
+package com.lithespeed.hellojava06.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@link BoundedMeteredExecutor} for blocking upload steps: reading and hashing upload files, content-index JDBC.
+ */
+@Component
+public class S3BlockingExecutor extends BoundedMeteredExecutor {
+
+    static final String NAME = "s3.blocking";
+
+    @Autowired
+    public S3BlockingExecutor(@Value("${aws.s3.blocking.core-size:16}") int coreSize,
+                              @Value("${aws.s3.blocking.max-size:32}") int maxSize,
+                              @Value("${aws.s3.blocking.queue-capacity:1000}") int queueCapacity,
+                              @Value("${aws.s3.blocking.keep-alive:60s}") Duration keepAlive,
+                              MeterRegistry meterRegistry) {
+        super(NAME, "s3-blocking-", "S3 blocking I/O", coreSize, maxSize, queueCapacity, keepAlive, meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.lithespeed.hellojava06.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@link BoundedMeteredExecutor} for the non-blocking continuations of S3 futures, off the SDK's event-loop threads.
+ */
+@Component
+public class S3CallbackExecutor extends BoundedMeteredExecutor {
+
+    static final String NAME = "s3.callbacks";
+
+    @Autowired
+    public S3CallbackExecutor(@Value("${aws.s3.callbacks.core-size:4}") int coreSize,
+                              @Value("${aws.s3.callbacks.max-size:16}") int maxSize,
+                              @Value("${aws.s3.callbacks.queue-capacity:1000}") int queueCapacity,
+                              @Value("${aws.s3.callbacks.keep-alive:60s}") Duration keepAlive,
+                              MeterRegistry meterRegistry) {
+        super(NAME, "s3-callback-", "S3 callback", coreSize, maxSize, queueCapacity, keepAlive, meterRegistry);
+    }
+}
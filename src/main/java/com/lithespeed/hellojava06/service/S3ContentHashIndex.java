@@ -0,0 +1,206 @@
+package com.lithespeed.hellojava06.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maps the SHA-256 of uploaded content to the S3 key that already holds it ({@code s3_content_hashes}, V5
+ * migration), so {@link S3Service} can skip uploading the same bytes twice. Entries are scoped: a key is only
+ * handed out again for the scope (entity) it was registered for, and entries of deleted keys are dropped.
+ * A Bloom filter over all known hashes sits in front of the table: content that was never uploaded, the common
+ * case, is answered without a query. The filter is filled from the table on first use and only ever grows;
+ * hashes of deleted objects stay in it and just cost one query that finds nothing.
+ */
+@Component
+public class S3ContentHashIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3ContentHashIndex.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final int FORGET_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final BloomFilter bloomFilter;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    @Autowired
+    public S3ContentHashIndex(JdbcTemplate jdbcTemplate,
+                              @Value("${aws.s3.dedup.enabled:false}") boolean enabled,
+                              @Value("${aws.s3.dedup.expected-objects:1000000}") long expectedObjects,
+                              @Value("${aws.s3.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.bloomFilter = enabled ? new BloomFilter(expectedObjects, falsePositiveRate) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the key of an object already holding content with this hash within the scope.
+     */
+    public Optional<String> findKey(String sha256, String scope) {
+        ensureLoaded();
+        if (!bloomFilter.mightContain(sha256)) {
+            return Optional.empty();
+        }
+        List<String> keys = jdbcTemplate.queryForList(
+                "SELECT object_key FROM s3_content_hashes WHERE sha256 = ? AND scope = ?", String.class, sha256, scope);
+        return keys.stream().findFirst();
+    }
+
+    /**
+     * Records that the key holds content with this hash within the scope. When a concurrent upload of the same
+     * content in the same scope registered first, its key is kept.
+     */
+    public void register(String sha256, String scope, String key, long size) {
+        ensureLoaded();
+        try {
+            jdbcTemplate.update("INSERT INTO s3_content_hashes (sha256, scope, object_key, size) VALUES (?, ?, ?, ?)",
+                    sha256, scope, key, size);
+        } catch (DuplicateKeyException e) {
+            logger.debug("Content {} already registered for {}, keeping the existing key", sha256, scope);
+        }
+        bloomFilter.put(sha256);
+    }
+
+    /**
+     * Drops a mapping whose object turned out to be gone, so the next upload of the content stores it again.
+     */
+    public void forget(String sha256, String key) {
+        jdbcTemplate.update("DELETE FROM s3_content_hashes WHERE sha256 = ? AND object_key = ?", sha256, key);
+    }
+
+    /**
+     * Drops the mappings of deleted keys, whatever content they held. A no-op while dedup is disabled.
+     */
+    public void forgetKeys(Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM s3_content_hashes WHERE object_key = ?", keys, FORGET_BATCH_SIZE,
+                (statement, key) -> statement.setString(1, key));
+    }
+
+    /**
+     * Streams the input through SHA-256 in fixed-size chunks and returns the lowercase hex digest.
+     */
+    public static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        // Not synchronized: the load is a JDBC scan, and a virtual thread blocked on it inside a monitor pins its carrier
+        loadLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            long[] count = { 0 };
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT sha256 FROM s3_content_hashes",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                bloomFilter.put(resultSet.getString(1));
+                count[0]++;
+            });
+            loaded = true;
+            logger.info("Loaded {} content hashes into the dedup filter in {} ms", count[0],
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Bloom filter over SHA-256 hex digests. The digest is already uniformly distributed, so the bit positions
+     * come straight from its first 128 bits by double hashing instead of rehashing the string.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedEntries, double falsePositiveRate) {
+            long entries = Math.max(1, expectedEntries);
+            long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+        }
+
+        void put(String sha256) {
+            long h1 = Long.parseUnsignedLong(sha256.substring(0, 16), 16);
+            long h2 = Long.parseUnsignedLong(sha256.substring(16, 32), 16);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    // Lost a race with another bit in the same word; retry
+                }
+            }
+        }
+
+        boolean mightContain(String sha256) {
+            long h1 = Long.parseUnsignedLong(sha256.substring(0, 16), 16);
+            long h2 = Long.parseUnsignedLong(sha256.substring(16, 32), 16);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int hashCount() {
+            return hashCount;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lithespeed.hellojava06.service;
+
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coarse classification of a failed S3 operation, reported as {@code code} in error responses so clients can
+ * decide whether to retry without parsing messages.
+ */
+public enum S3ErrorCode {
+
+    NOT_FOUND(false),
+    ACCESS_DENIED(false),
+    INVALID_REQUEST(false),
+    THROTTLED(true),
+    TIMEOUT(true),
+    UNAVAILABLE(true),
+    CLIENT_ERROR(true),
+    INTERNAL(false);
+
+    // Enough to get through CompletionException and our own RuntimeException wrappers
+    private static final int MAX_CAUSE_DEPTH = 5;
+
+    private final boolean retryable;
+
+    S3ErrorCode(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    /**
+     * Whether the same request may succeed later (throttling, timeouts, S3 or network trouble).
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * Classifies by the first recognised exception in the cause chain.
+     */
+    public static S3ErrorCode of(Throwable e) {
+        Throwable current = e;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof NoSuchKeyException || current instanceof NoSuchBucketException) {
+                return NOT_FOUND;
+            }
+            if (current instanceof S3Exception) {
+                return ofStatus(((S3Exception) current).statusCode());
+            }
+            if (current instanceof ApiCallTimeoutException || current instanceof ApiCallAttemptTimeoutException
+                    || current instanceof TimeoutException) {
+                return TIMEOUT;
+            }
+            if (current instanceof SdkClientException) {
+                return CLIENT_ERROR;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return INTERNAL;
+    }
+
+    private static S3ErrorCode ofStatus(int status) {
+        if (status == 404) {
+            return NOT_FOUND;
+        }
+        if (status == 403) {
+            return ACCESS_DENIED;
+        }
+        // S3 answers SlowDown with 503
+        if (status == 429 || status == 503) {
+            return THROTTLED;
+        }
+        if (status >= 500) {
+            return UNAVAILABLE;
+        }
+        return status >= 400 ? INVALID_REQUEST : INTERNAL;
+    }
+
+    /**
+     * Strips the {@link CompletionException}/{@link ExecutionException} layers futures add around the failure.
+     */
+    static Throwable unwrap(Throwable e) {
+        Throwable current = e;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
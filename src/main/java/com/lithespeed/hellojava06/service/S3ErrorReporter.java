@@ -0,0 +1,128 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds the error responses of failed S3 operations and logs them, cheaply enough to stay out of the way when
+ * S3 is browning out and every request fails:
+ * <ul>
+ *   <li>responses are immutable {@link S3ErrorResponseDTO}s with a typed {@code code} ({@link S3ErrorCode}); the
+ *       stack trace is only rendered into them with {@code aws.s3.errors.include-stack-trace}</li>
+ *   <li>each operation and code is logged at most once per {@code aws.s3.errors.log-interval}, with the number of
+ *       failures suppressed since the previous line; every failure still counts towards the
+ *       {@code s3.errors} counter tagged {@code operation} and {@code code}</li>
+ * </ul>
+ */
+@Component
+public class S3ErrorReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3ErrorReporter.class);
+
+    private static final S3ErrorCode[] CODES = S3ErrorCode.values();
+
+    private final boolean includeStackTrace;
+    private final long logIntervalNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, LogWindow[]> windowsByOperation = new ConcurrentHashMap<>();
+
+    @Autowired
+    public S3ErrorReporter(@Value("${aws.s3.errors.include-stack-trace:false}") boolean includeStackTrace,
+                           @Value("${aws.s3.errors.log-interval:10s}") Duration logInterval,
+                           MeterRegistry meterRegistry) {
+        this.includeStackTrace = includeStackTrace;
+        this.logIntervalNanos = logInterval.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the failure and returns its response.
+     */
+    public S3ErrorResponseDTO report(String operation, Throwable e, String context) {
+        Throwable failure = S3ErrorCode.unwrap(e);
+        S3ErrorCode code = S3ErrorCode.of(failure);
+        log(operation, code, failure, context);
+
+        Throwable cause = failure.getCause();
+        String stackTrace = null;
+        if (includeStackTrace) {
+            StringWriter writer = new StringWriter();
+            failure.printStackTrace(new PrintWriter(writer));
+            stackTrace = writer.toString();
+        }
+        return new S3ErrorResponseDTO(code.name(), code.isRetryable(), operation, failure.getMessage(),
+                failure.getClass().getSimpleName(), context, LocalDateTime.now().toString(),
+                cause != null ? cause.getClass().getSimpleName() : null, cause != null ? cause.getMessage() : null,
+                stackTrace);
+    }
+
+    private void log(String operation, S3ErrorCode code, Throwable failure, String context) {
+        LogWindow window = windowsByOperation
+                .computeIfAbsent(operation, this::newWindows)[code.ordinal()];
+        window.failures.increment();
+        long suppressed = window.tryOpen(System.nanoTime(), logIntervalNanos);
+        if (suppressed < 0) {
+            return;
+        }
+        String message = suppressed == 0
+                ? "Failed to {} [{}] ({}): {}"
+                : "Failed to {} [{}] ({}): {} - " + suppressed + " similar failures not logged";
+        // Only the logged failure pays for formatting its stack trace
+        if (code.isRetryable()) {
+            logger.warn(message, operation, code, context, failure.getMessage(), failure);
+        } else {
+            logger.error(message, operation, code, context, failure.getMessage(), failure);
+        }
+    }
+
+    private LogWindow[] newWindows(String operation) {
+        LogWindow[] windows = new LogWindow[CODES.length];
+        for (S3ErrorCode code : CODES) {
+            windows[code.ordinal()] = new LogWindow(Counter.builder("s3.errors")
+                    .description("Failed S3 operations")
+                    .tag("operation", operation)
+                    .tag("code", code.name())
+                    .register(meterRegistry));
+        }
+        return windows;
+    }
+
+    private static final class LogWindow {
+
+        private final Counter failures;
+        private final LongAdder suppressed = new LongAdder();
+        private final AtomicLong nextLogNanos = new AtomicLong(System.nanoTime());
+
+        LogWindow(Counter failures) {
+            this.failures = failures;
+        }
+
+        /**
+         * Claims the log line if the interval has passed, returning how many failures were suppressed since the
+         * previous one; otherwise counts this failure as suppressed and returns -1.
+         */
+        long tryOpen(long now, long intervalNanos) {
+            long next = nextLogNanos.get();
+            if (now - next >= 0 && nextLogNanos.compareAndSet(next, now + intervalNanos)) {
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+    }
+}
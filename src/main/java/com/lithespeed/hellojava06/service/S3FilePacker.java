@@ -0,0 +1,407 @@
+package com.lithespeed.hellojava06.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lithespeed.hellojava06.service.S3MetadataCache.ObjectMetadata;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRange;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Packs small uploads into shared S3 objects, so a burst of tiny files costs two PUTs instead of one per file.
+ * Files up to {@code aws.s3.packing.max-file-size} are buffered for at most {@code window-ms} (or until the pack
+ * reaches {@code max-pack-size} or {@code max-files}) and written as {@code packs/<packId>.pack}, the files'
+ * bytes back to back, followed by {@code packs/<packId>.idx}, one {@code name<TAB>offset<TAB>length<TAB>contentType}
+ * line per file. Each file gets the logical key {@code packs/<packId>/<uuid>.extension}; reads look the name up in
+ * the pack's index (cached) and fetch just its bytes with a ranged GET.
+ * Packed files are immutable: they cannot be deleted one by one, only together with their pack. Logical keys
+ * are only recognised while packing is enabled, so with packing off {@code packs/a/b} is an ordinary key.
+ * Files still buffered when the application stops are written on shutdown.
+ */
+@Component
+public class S3FilePacker {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3FilePacker.class);
+
+    static final String PACK_PREFIX = "packs/";
+    private static final String PACK_SUFFIX = ".pack";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int INDEX_CACHE_SIZE = 1000;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final AsyncCache<String, Map<String, PackEntry>> indexByPackId;
+
+    @Value("${aws.s3.bucket-name:test-bucket}")
+    private String bucketName;
+
+    @Value("${aws.s3.packing.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${aws.s3.packing.max-file-size:64KB}")
+    private DataSize maxFileSize = DataSize.ofKilobytes(64);
+
+    @Value("${aws.s3.packing.max-pack-size:8MB}")
+    private DataSize maxPackSize = DataSize.ofMegabytes(8);
+
+    @Value("${aws.s3.packing.max-files:1000}")
+    private int maxFiles = 1000;
+
+    @Value("${aws.s3.packing.window-ms:200}")
+    private long windowMs = 200;
+
+    @Value("${aws.s3.packing.shutdown-wait:10s}")
+    private Duration shutdownWait = Duration.ofSeconds(10);
+
+    private final Object lock = new Object();
+    private List<PendingFile> pending = new ArrayList<>();
+    private long pendingBytes;
+    private long oldestPendingNanos;
+    private boolean closed;
+
+    @Autowired
+    public S3FilePacker(S3AsyncClient s3AsyncClient) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.indexByPackId = Caffeine.newBuilder()
+                .maximumSize(INDEX_CACHE_SIZE)
+                .buildAsync();
+    }
+
+    /**
+     * Whether a file of this size goes into a pack rather than its own object.
+     */
+    public boolean accepts(long size) {
+        return enabled && size > 0 && size <= maxFileSize.toBytes();
+    }
+
+    /**
+     * Whether the key is the logical key of a packed file; always false while packing is disabled.
+     */
+    public boolean isPackedKey(String key) {
+        return enabled && parse(key) != null;
+    }
+
+    /**
+     * Whether the key lies under {@code packs/}, where the pack and index objects live. Independent of
+     * {@code enabled}, so packs written earlier are not lost to a prefix delete after packing is switched off.
+     */
+    public boolean isPackStorageKey(String key) {
+        return key != null && key.startsWith(PACK_PREFIX);
+    }
+
+    /**
+     * Queues the file for the next pack.
+     *
+     * @return the file's logical key, once its pack and index are stored
+     */
+    public CompletableFuture<String> add(byte[] content, String contentType, String originalFileName) {
+        // Content types are index fields, so they may not break the line format
+        String safeContentType = contentType == null || contentType.isBlank() ? null
+                : contentType.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        PendingFile file = new PendingFile(UUID.randomUUID() + extensionOf(originalFileName), content, safeContentType);
+        List<PendingFile> full = null;
+        synchronized (lock) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("File packer is shut down"));
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.add(file);
+            pendingBytes += content.length;
+            if (pendingBytes >= maxPackSize.toBytes() || pending.size() >= maxFiles) {
+                full = takePending();
+            }
+        }
+        if (full != null) {
+            writePack(full);
+        }
+        return file.result;
+    }
+
+    /**
+     * Writes the buffered files once the oldest has waited for the packing window.
+     */
+    @Scheduled(fixedDelayString = "${aws.s3.packing.window-ms:200}")
+    public void flushIfDue() {
+        List<PendingFile> due;
+        synchronized (lock) {
+            if (pending.isEmpty() || System.nanoTime() - oldestPendingNanos < windowMs * 1_000_000) {
+                return;
+            }
+            due = takePending();
+        }
+        writePack(due);
+    }
+
+    /**
+     * Writes whatever is buffered right away.
+     */
+    public void flush() {
+        List<PendingFile> due;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            due = takePending();
+        }
+        writePack(due);
+    }
+
+    /**
+     * Writes whatever is buffered before the application stops and rejects later files. Waits up to
+     * {@code aws.s3.packing.shutdown-wait} for the pack to be stored; files whose pack is not stored by then are
+     * failed rather than left waiting forever.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<PendingFile> due;
+        synchronized (lock) {
+            closed = true;
+            if (pending.isEmpty()) {
+                return;
+            }
+            due = takePending();
+        }
+        CompletableFuture<Void> written = writePack(due);
+        try {
+            written.get(shutdownWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // writePack already failed the files
+        } catch (TimeoutException e) {
+            logger.warn("Pack of {} files not stored within {} of shutdown", due.size(), shutdownWait);
+            failAll(due, new IllegalStateException("File packer shut down before the pack was stored"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(due, new IllegalStateException("File packer shut down before the pack was stored"));
+        }
+    }
+
+    private static void failAll(List<PendingFile> files, Throwable cause) {
+        files.forEach(file -> file.result.completeExceptionally(cause));
+    }
+
+    private List<PendingFile> takePending() {
+        List<PendingFile> taken = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        return taken;
+    }
+
+    private CompletableFuture<Void> writePack(List<PendingFile> files) {
+        String packId = UUID.randomUUID().toString();
+        Map<String, PackEntry> index = new HashMap<>();
+        StringBuilder indexText = new StringBuilder(files.size() * 96);
+        long offset = 0;
+        for (PendingFile file : files) {
+            PackEntry entry = new PackEntry(offset, file.content.length, file.contentType);
+            index.put(file.name, entry);
+            indexText.append(file.name).append('\t').append(offset).append('\t').append(file.content.length)
+                    .append('\t').append(file.contentType == null ? "" : file.contentType).append('\n');
+            offset += file.content.length;
+        }
+
+        ByteBuffer packBody = ByteBuffer.allocate((int) offset);
+        files.forEach(file -> packBody.put(file.content));
+        packBody.flip();
+        byte[] indexBody = indexText.toString().getBytes(StandardCharsets.UTF_8);
+
+        long packSize = offset;
+        return s3AsyncClient.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(PACK_PREFIX + packId + PACK_SUFFIX)
+                        .contentType("application/octet-stream")
+                        .contentLength(packSize)
+                        .build(), AsyncRequestBody.fromByteBuffer(packBody))
+                // The index goes last: a name is only resolvable once its bytes are in place
+                .thenCompose(response -> s3AsyncClient.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(PACK_PREFIX + packId + INDEX_SUFFIX)
+                        .contentType("text/tab-separated-values")
+                        .contentLength((long) indexBody.length)
+                        .build(), AsyncRequestBody.fromBytes(indexBody)))
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        logger.error("Failed to write pack {} with {} files", packId, files.size(), e);
+                        failAll(files, e);
+                        return;
+                    }
+                    logger.debug("Wrote pack {}: {} files, {} bytes", packId, files.size(), packSize);
+                    indexByPackId.put(packId, CompletableFuture.completedFuture(Collections.unmodifiableMap(index)));
+                    files.forEach(file -> file.result.complete(PACK_PREFIX + packId + "/" + file.name));
+                })
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Size and content type of a packed file, or missing when its pack does not list it.
+     */
+    public CompletableFuture<ObjectMetadata> metadataAsync(String key) {
+        String[] packIdAndName = parse(key);
+        return indexAsync(packIdAndName[0])
+                .thenApply(index -> {
+                    PackEntry entry = index.get(packIdAndName[1]);
+                    return entry == null ? ObjectMetadata.missing() : ObjectMetadata.of(entry.length, null, entry.contentType);
+                })
+                .exceptionally(e -> {
+                    if (unwrap(e) instanceof NoSuchKeyException) {
+                        return ObjectMetadata.missing();
+                    }
+                    throw new CompletionException(unwrap(e));
+                });
+    }
+
+    /**
+     * Opens a packed file, or the requested single byte range of it, with one ranged GET on its pack.
+     * The returned response describes the file, not the pack: its length, content type and, for a range,
+     * a {@code Content-Range} relative to the file.
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> openAsync(String key, String range) {
+        String[] packIdAndName = parse(key);
+        return indexAsync(packIdAndName[0]).thenCompose(index -> {
+            PackEntry entry = index.get(packIdAndName[1]);
+            if (entry == null) {
+                return CompletableFuture.failedFuture(NoSuchKeyException.builder()
+                        .message("No packed file " + key).statusCode(404).build());
+            }
+
+            long start = 0;
+            long end = entry.length - 1;
+            if (range != null) {
+                try {
+                    HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+                    start = httpRange.getRangeStart(entry.length);
+                    end = httpRange.getRangeEnd(entry.length);
+                } catch (IllegalArgumentException e) {
+                    return CompletableFuture.failedFuture(S3Exception.builder()
+                            .message("Range " + range + " not satisfiable for " + key).statusCode(416).build());
+                }
+            }
+            String contentRange = range == null ? null : "bytes " + start + "-" + end + "/" + entry.length;
+            long length = end - start + 1;
+
+            GetObjectRequest request = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(PACK_PREFIX + packIdAndName[0] + PACK_SUFFIX)
+                    .range("bytes=" + (entry.offset + start) + "-" + (entry.offset + end))
+                    .build();
+            return s3AsyncClient.getObject(request, AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream())
+                    .thenApply(stream -> new ResponseInputStream<>(
+                            stream.response().toBuilder()
+                                    .contentLength(length)
+                                    .contentRange(contentRange)
+                                    .contentType(entry.contentType)
+                                    .eTag(null)
+                                    .build(),
+                            AbortableInputStream.create(stream, stream::abort)));
+        });
+    }
+
+    private CompletableFuture<Map<String, PackEntry>> indexAsync(String packId) {
+        return indexByPackId.get(packId, (id, executor) -> s3AsyncClient
+                .getObject(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(PACK_PREFIX + id + INDEX_SUFFIX)
+                        .build(), AsyncResponseTransformer.toBytes())
+                .thenApply(bytes -> parseIndex(bytes.asUtf8String())));
+    }
+
+    static Map<String, PackEntry> parseIndex(String text) {
+        Map<String, PackEntry> index = new HashMap<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 4) {
+                throw new IllegalStateException("Malformed pack index line: " + line);
+            }
+            index.put(fields[0], new PackEntry(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                    fields[3].isEmpty() ? null : fields[3]));
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    // packs/<packId>/<name> -> {packId, name}; anything else (including the .pack and .idx objects) is not packed
+    private static String[] parse(String key) {
+        if (key == null || !key.startsWith(PACK_PREFIX)) {
+            return null;
+        }
+        int slash = key.indexOf('/', PACK_PREFIX.length());
+        if (slash <= PACK_PREFIX.length() || slash == key.length() - 1 || key.indexOf('/', slash + 1) >= 0) {
+            return null;
+        }
+        return new String[] { key.substring(PACK_PREFIX.length(), slash), key.substring(slash + 1) };
+    }
+
+    private static String extensionOf(String originalFileName) {
+        if (originalFileName != null && originalFileName.contains(".")) {
+            String extension = originalFileName.substring(originalFileName.lastIndexOf("."));
+            // Names are index fields and key segments
+            if (extension.indexOf('/') < 0 && extension.indexOf('\t') < 0 && extension.indexOf('\n') < 0) {
+                return extension;
+            }
+        }
+        return "";
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    static final class PackEntry {
+        final long offset;
+        final long length;
+        final String contentType;
+
+        PackEntry(long offset, long length, String contentType) {
+            this.offset = offset;
+            this.length = length;
+            this.contentType = contentType;
+        }
+    }
+
+    private static final class PendingFile {
+        final String name;
+        final byte[] content;
+        final String contentType;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        PendingFile(String name, byte[] content, String contentType) {
+            this.name = name;
+            this.content = content;
+            this.contentType = contentType;
+        }
+    }
+}
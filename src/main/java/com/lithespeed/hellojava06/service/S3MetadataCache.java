@@ -0,0 +1,141 @@
+package com.lithespeed.hellojava06.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of S3 object metadata, so repeated existence checks do not each cost a {@code HeadObject}.
+ * Existing objects are kept for {@code aws.s3.metadata-cache.expire-after-write}, missing ones only for the
+ * shorter {@code negative-expire-after-write}. Concurrent lookups of the same key share one in-flight request,
+ * and failed lookups are not cached. Statistics are published to Micrometer as {@code cache.*} meters tagged
+ * {@code cache=s3.metadata}.
+ */
+@Component
+public class S3MetadataCache {
+
+    private final AsyncCache<String, ObjectMetadata> metadataByKey;
+
+    @Autowired
+    public S3MetadataCache(@Value("${aws.s3.metadata-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${aws.s3.metadata-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                           @Value("${aws.s3.metadata-cache.negative-expire-after-write:30s}") Duration negativeExpireAfterWrite,
+                           MeterRegistry meterRegistry) {
+        this.metadataByKey = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, ObjectMetadata>() {
+                    @Override
+                    public long expireAfterCreate(String key, ObjectMetadata value, long currentTime) {
+                        return (value.isExists() ? expireAfterWrite : negativeExpireAfterWrite).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, ObjectMetadata value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, ObjectMetadata value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, metadataByKey.synchronous(), "s3.metadata");
+    }
+
+    /**
+     * Returns the cached metadata or starts the loader; a {@code null} key is never cached.
+     */
+    public CompletableFuture<ObjectMetadata> get(String key,
+                                                 Function<String, CompletableFuture<ObjectMetadata>> loader) {
+        if (key == null) {
+            return loader.apply(null);
+        }
+        return metadataByKey.get(key, (k, executor) -> loader.apply(k));
+    }
+
+    public void put(String key, ObjectMetadata metadata) {
+        if (key != null) {
+            metadataByKey.put(key, CompletableFuture.completedFuture(metadata));
+        }
+    }
+
+    /**
+     * Drops the key, including any lookup still in flight, so the next check goes back to S3.
+     */
+    public void invalidate(String key) {
+        if (key != null) {
+            metadataByKey.synchronous().invalidate(key);
+        }
+    }
+
+    /**
+     * What a {@code HeadObject} told us about a key; {@link #missing()} for keys that do not exist.
+     */
+    public static final class ObjectMetadata {
+
+        private static final ObjectMetadata MISSING = new ObjectMetadata(false, null, null, null, null);
+
+        private final boolean exists;
+        private final Long size;
+        private final String eTag;
+        private final String contentType;
+        private final String contentEncoding;
+
+        private ObjectMetadata(boolean exists, Long size, String eTag, String contentType, String contentEncoding) {
+            this.exists = exists;
+            this.size = size;
+            this.eTag = eTag;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+
+        public static ObjectMetadata of(Long size, String eTag, String contentType) {
+            return new ObjectMetadata(true, size, eTag, contentType, null);
+        }
+
+        /**
+         * Metadata of an object stored with a {@code Content-Encoding}; {@code size} is the decoded size.
+         */
+        public static ObjectMetadata of(Long size, String eTag, String contentType, String contentEncoding) {
+            return new ObjectMetadata(true, size, eTag, contentType, contentEncoding);
+        }
+
+        public static ObjectMetadata missing() {
+            return MISSING;
+        }
+
+        public boolean isExists() {
+            return exists;
+        }
+
+        public Long getSize() {
+            return size;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+    }
+}
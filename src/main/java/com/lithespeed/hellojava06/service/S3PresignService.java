@@ -0,0 +1,201 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.S3MultipartCompleteRequestDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Issues presigned URLs so clients move object bytes straight to and from S3; the application only hands out
+ * keys and URLs and registers finished uploads. Signing is a local HMAC computation and involves no call to S3,
+ * except for starting and completing multipart uploads.
+ */
+@Service
+public class S3PresignService {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3PresignService.class);
+
+    /** S3 allows at most 10,000 parts per multipart upload. */
+    public static final int MAX_PARTS = 10_000;
+
+    private final S3Presigner s3Presigner;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Service s3Service;
+    private final String bucketName;
+    private final Duration expiration;
+
+    @Autowired
+    public S3PresignService(S3Presigner s3Presigner, S3AsyncClient s3AsyncClient, S3Service s3Service,
+                            @Value("${aws.s3.bucket-name:test-bucket}") String bucketName,
+                            @Value("${aws.s3.presign.expiration:15m}") Duration expiration) {
+        this.s3Presigner = s3Presigner;
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Service = s3Service;
+        this.bucketName = bucketName;
+        this.expiration = expiration;
+    }
+
+    /**
+     * Presigns a single PUT for a new {@code uploads/<id>/<uuid>.ext} key. The client must send the returned
+     * headers (the content type is part of the signature).
+     */
+    public Map<String, Object> presignUpload(String fileName, String contentType) {
+        String key = s3Service.newObjectKey("uploads", s3Service.generateFileId(), fileName);
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(expiration)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .build());
+
+        logger.info("Presigned upload for {} as {}", fileName, key);
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("method", "PUT");
+        response.put("url", presigned.url().toString());
+        response.put("headers", clientHeaders(presigned.signedHeaders()));
+        response.put("expiresAt", presigned.expiration().toString());
+        return response;
+    }
+
+    public Map<String, Object> presignDownload(String key) {
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(expiration)
+                .getObjectRequest(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .build());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("method", "GET");
+        response.put("url", presigned.url().toString());
+        response.put("expiresAt", presigned.expiration().toString());
+        return response;
+    }
+
+    /**
+     * Starts a multipart upload and presigns one PUT per part. The client uploads the parts in any order and
+     * in parallel, then calls {@link #completeMultipartUpload} with the ETag S3 returned for each part.
+     */
+    public CompletableFuture<Map<String, Object>> presignMultipartUpload(String fileName, String contentType,
+                                                                         int partCount) {
+        if (partCount < 1 || partCount > MAX_PARTS) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Part count must be between 1 and " + MAX_PARTS));
+        }
+        String key = s3Service.newObjectKey("uploads", s3Service.generateFileId(), fileName);
+
+        return s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .thenApply(created -> {
+                    List<Map<String, Object>> parts = new ArrayList<>(partCount);
+                    for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                        PresignedUploadPartRequest presigned = s3Presigner.presignUploadPart(
+                                UploadPartPresignRequest.builder()
+                                        .signatureDuration(expiration)
+                                        .uploadPartRequest(UploadPartRequest.builder()
+                                                .bucket(bucketName)
+                                                .key(key)
+                                                .uploadId(created.uploadId())
+                                                .partNumber(partNumber)
+                                                .build())
+                                        .build());
+                        Map<String, Object> part = new HashMap<>();
+                        part.put("partNumber", partNumber);
+                        part.put("url", presigned.url().toString());
+                        parts.add(part);
+                    }
+
+                    logger.info("Presigned {} part uploads for {} as {}", partCount, fileName, key);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("key", key);
+                    response.put("uploadId", created.uploadId());
+                    response.put("method", "PUT");
+                    response.put("parts", parts);
+                    response.put("expiresAt", Instant.now().plus(expiration).toString());
+                    return response;
+                });
+    }
+
+    public CompletableFuture<Map<String, Object>> completeMultipartUpload(S3MultipartCompleteRequestDTO request) {
+        List<CompletedPart> parts = request.getParts().stream()
+                .sorted(Comparator.comparing(S3MultipartCompleteRequestDTO.Part::getPartNumber))
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.getPartNumber())
+                        .eTag(part.getEtag())
+                        .build())
+                .collect(Collectors.toList());
+
+        return s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(request.getKey())
+                        .uploadId(request.getUploadId())
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                        .build())
+                .thenCompose(completed -> completeUpload(request.getKey()));
+    }
+
+    /**
+     * Completion callback for direct uploads: confirms the object exists in S3 and registers its metadata.
+     */
+    public CompletableFuture<Map<String, Object>> completeUpload(String key) {
+        return s3Service.registerUploadedObject(key)
+                .thenApply(metadata -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("key", key);
+                    response.put("exists", metadata.isExists());
+                    if (metadata.isExists()) {
+                        logger.info("Registered direct upload {} ({} bytes)", key, metadata.getSize());
+                        response.put("size", metadata.getSize());
+                        response.put("etag", metadata.getETag());
+                        response.put("contentType", metadata.getContentType());
+                    }
+                    return response;
+                });
+    }
+
+    // Host is set by the HTTP client itself; everything else must be replayed exactly as signed
+    private static Map<String, String> clientHeaders(Map<String, List<String>> signedHeaders) {
+        Map<String, String> headers = new HashMap<>();
+        signedHeaders.forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return headers;
+    }
+}
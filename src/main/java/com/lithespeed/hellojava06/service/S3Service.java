@@ -1,42 +1,163 @@
 package com.lithespeed.hellojava06.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lithespeed.hellojava06.dto.S3BatchDeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3BatchUploadResponseDTO;
+import com.lithespeed.hellojava06.dto.S3DeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ExistsResponseDTO;
+import com.lithespeed.hellojava06.dto.S3FileUploadResultDTO;
+import com.lithespeed.hellojava06.dto.S3KeyDeleteResultDTO;
+import com.lithespeed.hellojava06.dto.S3ListResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
+import com.lithespeed.hellojava06.dto.S3UploadResponseDTO;
+import com.lithespeed.hellojava06.service.S3MetadataCache.ObjectMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.time.LocalDateTime;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * S3 operations behind {@code /s3}. Continuations of SDK futures never run on the SDK thread that completed the
+ * future when they do more than hand a value on: response building goes to {@link S3CallbackExecutor}, and
+ * anything that blocks (JDBC, file reads) to {@link S3BlockingExecutor}.
+ */
 @Service
 public class S3Service {
 
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
 
     private final S3AsyncClient s3AsyncClient;
-    
+    private final S3MetadataCache metadataCache;
+    private final S3FilePacker filePacker;
+    private final S3ContentHashIndex contentHashIndex;
+    private final S3CallbackExecutor callbackExecutor;
+    private final S3BlockingExecutor blockingExecutor;
+    private final S3ErrorReporter errorReporter;
+
+    /** S3 never returns more than 1,000 keys per ListObjectsV2 call. */
+    public static final int MAX_LIST_PAGE_SIZE = 1000;
+
+    /** DeleteObjects accepts at most 1,000 keys per call. */
+    public static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    /** Most files accepted by one multi-file upload request. */
+    public static final int MAX_UPLOAD_FILES = 1000;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String PACKED_DELETE_ERROR = "Packed files cannot be deleted individually";
+
+    // S3 rejects multipart parts smaller than 5 MiB (except the last one)
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /** User metadata holding the decoded size of objects stored with a {@code Content-Encoding}. */
+    static final String ORIGINAL_SIZE_METADATA = "original-size";
+
     @Value("${aws.s3.bucket-name:test-bucket}")
     private String bucketName;
 
-    public S3Service(S3AsyncClient s3AsyncClient) {
+    @Value("${aws.s3.upload.multipart-threshold:8MB}")
+    private DataSize multipartThreshold = DataSize.ofMegabytes(8);
+
+    @Value("${aws.s3.upload.part-size:8MB}")
+    private DataSize partSize = DataSize.ofMegabytes(8);
+
+    @Value("${aws.s3.upload.max-concurrent-parts:4}")
+    private int maxConcurrentParts = 4;
+
+    @Value("${aws.s3.upload.max-concurrent-files:16}")
+    private int maxConcurrentFileUploads = 16;
+
+    @Value("${aws.s3.compression.enabled:false}")
+    private boolean compressionEnabled = false;
+
+    @Value("${aws.s3.compression.content-types:text/*,application/json,application/xml,application/javascript,application/x-ndjson,image/svg+xml}")
+    private String[] compressibleContentTypes = {
+            "text/*", "application/json", "application/xml", "application/javascript", "application/x-ndjson",
+            "image/svg+xml"
+    };
+
+    @Value("${aws.s3.compression.level:1}")
+    private int compressionLevel = 1;
+
+    @Value("${aws.s3.compression.min-size:1KB}")
+    private DataSize compressionMinSize = DataSize.ofKilobytes(1);
+
+    @Value("${aws.s3.download.part-size:8MB}")
+    private DataSize downloadPartSize = DataSize.ofMegabytes(8);
+
+    @Value("${aws.s3.download.max-concurrent-parts:4}")
+    private int maxConcurrentDownloadParts = 4;
+
+    @Value("${aws.s3.delete.max-concurrent-batches:4}")
+    private int maxConcurrentDeleteBatches = 4;
+
+    @Autowired
+    public S3Service(S3AsyncClient s3AsyncClient, S3MetadataCache metadataCache, S3FilePacker filePacker,
+                     S3ContentHashIndex contentHashIndex, S3CallbackExecutor callbackExecutor,
+                     S3BlockingExecutor blockingExecutor, S3ErrorReporter errorReporter) {
         this.s3AsyncClient = s3AsyncClient;
+        this.metadataCache = metadataCache;
+        this.filePacker = filePacker;
+        this.contentHashIndex = contentHashIndex;
+        this.callbackExecutor = callbackExecutor;
+        this.blockingExecutor = blockingExecutor;
+        this.errorReporter = errorReporter;
     }
 
     /**
      * Uploads provided {@link MultipartFile} to configured S3 Bucket using key {@code
      * entityType/entityId/UUID.extension}.
+     * The content is read from the file's {@link InputStream}, never through {@link MultipartFile#getBytes()}:
+     * files up to {@code aws.s3.upload.multipart-threshold} go out in a single PUT, larger files as an S3 multipart
+     * upload, so heap use per request stays bounded regardless of file size.
+     * With {@code aws.s3.packing.enabled}, small files are handed to {@link S3FilePacker} instead and get a
+     * {@code packs/packId/UUID.extension} key.
+     * With {@code aws.s3.dedup.enabled}, content that is already stored for the same entity (same SHA-256 and
+     * size, and a fresh {@code HeadObject} finds the object) is not uploaded again; the key of the existing object
+     * is returned instead.
+     * With {@code aws.s3.compression.enabled}, files of a compressible content type are gzip-compressed while they
+     * are read and stored with {@code Content-Encoding: gzip}; {@link #downloadAsync} decodes them again.
      *
      * @param entityId ID of the entity for which this document is being uploaded
      * @param entityType Type of the entity for which this document is being uploaded
@@ -44,217 +165,1049 @@ public class S3Service {
      * @return {@code entityType/entityId/UUID.extension}
      */
     public CompletableFuture<String> uploadFileAsync(String entityType, String entityId, MultipartFile file) {
-        try {
-            String originalFileName = file.getOriginalFilename();
-            String extension = "";
-            if (originalFileName != null && originalFileName.contains(".")) {
-                extension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        if (!contentHashIndex.isEnabled() || file.isEmpty()) {
+            return storeAsync(entityType, entityId, file);
+        }
+
+        String sha256;
+        try (InputStream inputStream = file.getInputStream()) {
+            // A separate pass over the local copy of the upload: the hash must be known before deciding to send
+            sha256 = S3ContentHashIndex.sha256Hex(inputStream);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read file content", e));
+        }
+
+        Optional<String> existingKey = contentHashIndex.findKey(sha256, dedupScope(entityType, entityId));
+        if (existingKey.isEmpty()) {
+            return storeAndRegisterAsync(entityType, entityId, file, sha256);
+        }
+        String key = existingKey.get();
+        // A cached entry may outlive the object; only a fresh HEAD proves the key can be handed out again
+        metadataCache.invalidate(key);
+        // The HEAD completes on an SDK thread, and the JDBC and file reads below block
+        return getMetadataAsync(key).thenComposeAsync(metadata -> {
+            if (metadata.isExists() && Long.valueOf(file.getSize()).equals(metadata.getSize())) {
+                logger.info("Skipped upload of {}: identical content already stored as {}", file.getOriginalFilename(), key);
+                return CompletableFuture.completedFuture(key);
             }
-            
-            String key = String.format("%s/%s/%s%s", entityType, entityId, UUID.randomUUID().toString(), extension);
-            
-            PutObjectRequest putRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .contentLength(file.getSize())
-                    .build();
-
-            AsyncRequestBody requestBody = AsyncRequestBody.fromBytes(file.getBytes());
+            // The object was deleted or replaced since it was registered
+            contentHashIndex.forget(sha256, key);
+            return storeAndRegisterAsync(entityType, entityId, file, sha256);
+        }, blockingExecutor);
+    }
+
+    private CompletableFuture<String> storeAndRegisterAsync(String entityType, String entityId, MultipartFile file,
+                                                            String sha256) {
+        // Registering is a blocking insert; keep it off the SDK thread that completes the upload
+        return storeAsync(entityType, entityId, file)
+                .thenApplyAsync(key -> {
+                    contentHashIndex.register(sha256, dedupScope(entityType, entityId), key, file.getSize());
+                    return key;
+                }, blockingExecutor);
+    }
+
+    // Dedup never hands one entity a key stored for another
+    private static String dedupScope(String entityType, String entityId) {
+        return entityType + "/" + entityId;
+    }
+
+    private CompletableFuture<String> storeAsync(String entityType, String entityId, MultipartFile file) {
+        if (filePacker.accepts(file.getSize())) {
+            return uploadPackedAsync(file);
+        }
+
+        String key = newObjectKey(entityType, entityId, file.getOriginalFilename());
+
+        boolean compress = shouldCompress(file);
+        if (file.getSize() > multipartThreshold.toBytes()) {
+            return uploadInPartsAsync(key, file, compress);
+        }
+        if (compress) {
+            return uploadCompressedAsync(key, file);
+        }
+
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType())
+                .contentLength(file.getSize())
+                .build();
+
+        try (InputStream inputStream = file.getInputStream()) {
+            // Bounded by the multipart threshold
+            AsyncRequestBody requestBody = AsyncRequestBody.fromByteBuffer(
+                    ByteBuffer.wrap(inputStream.readNBytes((int) file.getSize())));
 
             return s3AsyncClient.putObject(putRequest, requestBody)
-                    .thenApply(response -> key);
+                    .thenApply(response -> {
+                        metadataCache.put(key, ObjectMetadata.of(file.getSize(), response.eTag(), file.getContentType()));
+                        return key;
+                    });
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read file content", e));
+        }
+    }
+
+    private boolean shouldCompress(MultipartFile file) {
+        if (!compressionEnabled || file.getSize() < compressionMinSize.toBytes() || file.getContentType() == null) {
+            return false;
+        }
+        try {
+            MimeType contentType = MimeTypeUtils.parseMimeType(file.getContentType());
+            for (String compressible : compressibleContentTypes) {
+                if (MimeTypeUtils.parseMimeType(compressible.trim()).includes(contentType)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMimeTypeException e) {
+            logger.debug("Not compressing {}: {}", file.getOriginalFilename(), e.getMessage());
+        }
+        return false;
+    }
+
+    private CompletableFuture<String> uploadCompressedAsync(String key, MultipartFile file) {
+        byte[] compressed;
+        try (InputStream inputStream = GzipStreams.compressing(file.getInputStream(), compressionLevel)) {
+            // Bounded by the multipart threshold; gzip output only exceeds its input by a few bytes
+            compressed = inputStream.readAllBytes();
         } catch (IOException e) {
             return CompletableFuture.failedFuture(new RuntimeException("Failed to read file content", e));
         }
+        logger.debug("Compressed {} from {} to {} bytes", key, file.getSize(), compressed.length);
+
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType())
+                .contentEncoding(GzipStreams.ENCODING)
+                .contentLength((long) compressed.length)
+                .metadata(Map.of(ORIGINAL_SIZE_METADATA, Long.toString(file.getSize())))
+                .build();
+        return s3AsyncClient.putObject(putRequest, AsyncRequestBody.fromByteBuffer(ByteBuffer.wrap(compressed)))
+                .thenApply(response -> {
+                    metadataCache.put(key, ObjectMetadata.of(file.getSize(), response.eTag(), file.getContentType(),
+                            GzipStreams.ENCODING));
+                    return key;
+                });
+    }
+
+    private CompletableFuture<String> uploadPackedAsync(MultipartFile file) {
+        byte[] content;
+        try (InputStream inputStream = file.getInputStream()) {
+            // Bounded by aws.s3.packing.max-file-size
+            content = inputStream.readNBytes((int) file.getSize());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read file content", e));
+        }
+        return filePacker.add(content, file.getContentType(), file.getOriginalFilename())
+                .thenApply(key -> {
+                    metadataCache.put(key, ObjectMetadata.of((long) content.length, null, file.getContentType()));
+                    return key;
+                });
+    }
+
+    /**
+     * Builds a fresh {@code entityType/entityId/UUID.extension} key, keeping the original file's extension.
+     */
+    public String newObjectKey(String entityType, String entityId, String originalFileName) {
+        String extension = "";
+        if (originalFileName != null && originalFileName.contains(".")) {
+            extension = originalFileName.substring(originalFileName.lastIndexOf("."));
+        }
+        return String.format("%s/%s/%s%s", entityType, entityId, UUID.randomUUID().toString(), extension);
+    }
+
+    /**
+     * Streams the file to S3 as a multipart upload without blocking the calling thread. Once S3 has created the
+     * upload, {@code aws.s3.upload.max-concurrent-parts} workers each read the next part from the input stream on
+     * {@link S3BlockingExecutor}, upload it, and read another part when that upload completes, so at most that many
+     * part buffers are held at once and no thread waits for a free slot.
+     * Any failure aborts the upload so S3 does not keep the orphaned parts.
+     * With {@code compress}, the parts are cut from the gzip stream of the file rather than the file itself.
+     */
+    private CompletableFuture<String> uploadInPartsAsync(String key, MultipartFile file, boolean compress) {
+        CreateMultipartUploadRequest.Builder createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType());
+        if (compress) {
+            createRequest.contentEncoding(GzipStreams.ENCODING)
+                    .metadata(Map.of(ORIGINAL_SIZE_METADATA, Long.toString(file.getSize())));
+        }
+        InputStreamSource source = compress
+                ? () -> GzipStreams.compressing(file.getInputStream(), compressionLevel)
+                : file;
+
+        return s3AsyncClient.createMultipartUpload(createRequest.build())
+                .thenCompose(created -> uploadPartsAsync(key, created.uploadId(), file, compress,
+                        new PartReader(source, (int) Math.max(partSize.toBytes(), MIN_PART_SIZE))));
+    }
+
+    private CompletableFuture<String> uploadPartsAsync(String key, String uploadId, MultipartFile file,
+                                                       boolean compress, PartReader reader) {
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(1, maxConcurrentParts)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = uploadNextPartAsync(key, uploadId, reader).whenComplete((ignored, e) -> {
+                if (e != null) {
+                    reader.fail();
+                }
+            });
+        }
+        // allOf waits for every worker, so no read is still running when the stream is closed
+        return CompletableFuture.allOf(workers)
+                .whenComplete((ignored, e) -> reader.close())
+                .thenCompose(ignored -> {
+                    List<CompletedPart> parts = reader.completedParts();
+                    logger.debug("Uploading {} ({} bytes) in {} parts", key, file.getSize(), parts.size());
+                    return s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                            .build());
+                })
+                .thenApply(response -> {
+                    metadataCache.put(key, ObjectMetadata.of(file.getSize(), response.eTag(), file.getContentType(),
+                            compress ? GzipStreams.ENCODING : null));
+                    return key;
+                })
+                .handle((completedKey, e) -> e == null
+                        ? CompletableFuture.completedFuture(completedKey)
+                        : this.<String>abortMultipartUpload(key, uploadId, e))
+                .thenCompose(future -> future);
+    }
+
+    /**
+     * One upload worker: reads a part (blocking, so on {@link S3BlockingExecutor} rather than the SDK thread that
+     * finished the previous part), uploads it and repeats until the input is exhausted or any part failed.
+     */
+    private CompletableFuture<Void> uploadNextPartAsync(String key, String uploadId, PartReader reader) {
+        return CompletableFuture.completedFuture(reader)
+                .thenApplyAsync(PartReader::next, blockingExecutor)
+                .thenCompose(part -> part == null
+                        ? CompletableFuture.<Void>completedFuture(null)
+                        : uploadPartAsync(key, uploadId, part.number, part.content)
+                                .whenComplete(reader::completed)
+                                .thenCompose(completed -> uploadNextPartAsync(key, uploadId, reader)));
+    }
+
+    private CompletableFuture<CompletedPart> uploadPartAsync(String key, String uploadId, int partNumber, byte[] chunk) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) chunk.length)
+                .build();
+        return s3AsyncClient.uploadPart(request, AsyncRequestBody.fromByteBuffer(ByteBuffer.wrap(chunk)))
+                .thenApply(response -> CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build());
+    }
+
+    /**
+     * Records an object written directly to S3 (for example through a presigned URL): drops whatever the
+     * metadata cache knew about the key and re-reads it with a fresh {@code HeadObject}.
+     */
+    public CompletableFuture<ObjectMetadata> registerUploadedObject(String key) {
+        metadataCache.invalidate(key);
+        return getMetadataAsync(key);
+    }
+
+    /**
+     * Cuts the input stream of a multipart upload into numbered parts for concurrent workers. Reads are serialized,
+     * so part numbers follow the stream; once a part fails, the remaining workers stop reading.
+     */
+    private static final class PartReader {
+
+        private final InputStreamSource source;
+        private final int partBytes;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<CompletedPart> completed = new ArrayList<>();
+        private InputStream inputStream;
+        private int nextPartNumber = 1;
+        private boolean exhausted;
+        private volatile boolean failed;
+
+        PartReader(InputStreamSource source, int partBytes) {
+            this.source = source;
+            this.partBytes = partBytes;
+        }
+
+        /**
+         * Reads the next part, or returns {@code null} once the input is exhausted or a part has failed.
+         */
+        Part next() {
+            lock.lock();
+            try {
+                if (exhausted || failed) {
+                    return null;
+                }
+                if (inputStream == null) {
+                    inputStream = source.getInputStream();
+                }
+                byte[] content = inputStream.readNBytes(partBytes);
+                exhausted = content.length < partBytes;
+                return content.length == 0 ? null : new Part(nextPartNumber++, content);
+            } catch (IOException e) {
+                failed = true;
+                throw new RuntimeException("Failed to read file content", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completed(CompletedPart part, Throwable e) {
+            if (e != null) {
+                fail();
+                return;
+            }
+            lock.lock();
+            try {
+                completed.add(part);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void fail() {
+            failed = true;
+        }
+
+        /**
+         * The uploaded parts in part-number order, as CompleteMultipartUpload requires.
+         */
+        List<CompletedPart> completedParts() {
+            lock.lock();
+            try {
+                List<CompletedPart> parts = new ArrayList<>(completed);
+                parts.sort(Comparator.comparing(CompletedPart::partNumber));
+                return parts;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (inputStream != null) {
+                    inputStream.close();
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to close upload stream: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Part {
+
+        private final int number;
+        private final byte[] content;
+
+        Part(int number, byte[] content) {
+            this.number = number;
+            this.content = content;
+        }
+    }
+
+    private <T> CompletableFuture<T> abortMultipartUpload(String key, String uploadId, Throwable cause) {
+        logger.warn("Aborting multipart upload {} for {}: {}", uploadId, key, cause.getMessage());
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build())
+                .whenComplete((response, abortError) -> {
+                    if (abortError != null) {
+                        logger.warn("Failed to abort multipart upload {} for {}", uploadId, key, abortError);
+                    }
+                    failed.completeExceptionally(cause);
+                });
+        return failed;
     }
 
     /**
      * Business logic method to handle complete file upload process
      */
-    public CompletableFuture<Map<String, Object>> processFileUpload(MultipartFile file) {
+    public CompletableFuture<S3ResponseDTO> processFileUpload(MultipartFile file) {
         String fileName = file.getOriginalFilename();
         logger.info("Starting async upload for file: {} (size: {} bytes)", fileName, file.getSize());
 
         return uploadFileAsync("uploads", generateFileId(), file)
-            .thenApply(etag -> {
-                logger.info("File uploaded successfully using async S3Service");
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("message", "File uploaded successfully");
-                response.put("fileName", fileName);
-                response.put("contentType", file.getContentType());
-                response.put("size", file.getSize());
-                response.put("etag", etag);
-
+            .<S3ResponseDTO>thenApplyAsync(etag -> {
                 logger.info("Successfully uploaded file: {} (size: {} bytes)", fileName, file.getSize());
-                return response;
-            })
-            .exceptionally(e -> {
-                logger.error("Failed to upload file: {}", fileName, e);
-                Exception exception = (e instanceof Exception) ? (Exception) e : new RuntimeException(e);
+                return new S3UploadResponseDTO("File uploaded successfully", fileName, file.getContentType(),
+                        file.getSize(), etag);
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
                 return createErrorResponse(
                         "upload file to S3",
-                        exception,
+                        e,
                         "fileName: " + fileName);
-            });
+            }, callbackExecutor);
+    }
+
+    /**
+     * Uploads every file under its own {@code uploads/UUID/UUID.extension} key, with at most
+     * {@code aws.s3.upload.max-concurrent-files} uploads in flight, so the whole batch takes about as long as
+     * its slowest files rather than the sum of all of them.
+     * Empty files and failed uploads are reported per file; the other files still go through.
+     *
+     * @return one result per file, in request order
+     */
+    public CompletableFuture<List<S3FileUploadResultDTO>> uploadFilesAsync(List<MultipartFile> files) {
+        return runBounded(files, maxConcurrentFileUploads, this::uploadOneOfManyAsync);
+    }
+
+    private CompletableFuture<S3FileUploadResultDTO> uploadOneOfManyAsync(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        if (file.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    S3FileUploadResultDTO.failed(fileName, file.getSize(), "File cannot be empty"));
+        }
+
+        // runBounded starts the next file on the thread that completed the previous upload, usually an SDK
+        // thread; hashing and reading the file block, so do it on the blocking I/O pool instead.
+        // Unlike supplyAsync, a rejected stage fails the future rather than throwing, so it is reported per file
+        return CompletableFuture.completedFuture(file)
+                .thenComposeAsync(upload -> uploadFileAsync("uploads", generateFileId(), upload), blockingExecutor)
+                .handle((key, e) -> {
+                    if (e == null) {
+                        return S3FileUploadResultDTO.uploaded(fileName, file.getSize(), key);
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    logger.warn("Failed to upload file {} in batch: {}", fileName, cause.getMessage());
+                    return S3FileUploadResultDTO.failed(fileName, file.getSize(), cause.getMessage());
+                });
     }
 
     /**
-     * Business logic method to handle complete file listing process  
+     * Uploads the files in parallel and summarizes the per-file results.
      */
-    public CompletableFuture<Map<String, Object>> processFileList() {
-        logger.info("Starting async file listing using S3Service");
-        
-        return listFilesAsync()
-            .thenApply(files -> {
+    public CompletableFuture<S3ResponseDTO> processFileBatchUpload(List<MultipartFile> files) {
+        logger.info("Starting async batch upload of {} files", files.size());
+
+        return uploadFilesAsync(files)
+            .<S3ResponseDTO>thenApplyAsync(results -> {
+                long uploaded = results.stream().filter(S3FileUploadResultDTO::isUploaded).count();
+                logger.info("Batch upload completed: {} of {} files uploaded", uploaded, results.size());
+                return new S3BatchUploadResponseDTO(uploaded, results);
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
+                return createErrorResponse(
+                        "batch upload files to S3",
+                        e,
+                        "files: " + files.size());
+            }, callbackExecutor);
+    }
+
+    /**
+     * Business logic method to handle complete file listing process; returns the first page of the bucket
+     */
+    public CompletableFuture<S3ResponseDTO> processFileList() {
+        return processFileList(null, null, MAX_LIST_PAGE_SIZE, null);
+    }
+
+    /**
+     * Lists one page of keys. Pass the returned {@code nextContinuationToken} back to get the following page;
+     * with a delimiter, keys below it are rolled up into {@code commonPrefixes}.
+     */
+    public CompletableFuture<S3ResponseDTO> processFileList(String prefix, String delimiter, int pageSize,
+                                                           String continuationToken) {
+        logger.info("Starting async file listing using S3Service (prefix: {}, pageSize: {})", prefix, pageSize);
+
+        return listFilesPageAsync(prefix, delimiter, pageSize, continuationToken)
+            .<S3ResponseDTO>thenApplyAsync(page -> {
+                List<String> files = page.contents().stream().map(S3Object::key).collect(Collectors.toList());
                 logger.info("Files listed successfully using async S3Service: {} files", files.size());
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("files", files);
-                response.put("count", files.size());
-                return response;
-            })
-            .exceptionally(e -> {
-                logger.error("Failed to list files", e);
-                Exception exception = (e instanceof Exception) ? (Exception) e : new RuntimeException(e);
+                return new S3ListResponseDTO(files,
+                        page.commonPrefixes().stream().map(CommonPrefix::prefix).collect(Collectors.toList()),
+                        Boolean.TRUE.equals(page.isTruncated()), page.nextContinuationToken());
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
                 return createErrorResponse(
                         "list files from S3",
-                        exception,
+                        e,
                         "Attempting to retrieve S3 file list");
-            });
+            }, callbackExecutor);
     }
 
     /**
      * List all files in the S3 bucket
      */
     public CompletableFuture<List<String>> listFilesAsync() {
+        return listFilesAsync(null);
+    }
+
+    /**
+     * Lists every key under the prefix, following continuation tokens through the SDK paginator.
+     * All keys are collected in memory; use {@link #writeKeysAsNdjson} for buckets of unbounded size.
+     */
+    public CompletableFuture<List<String>> listFilesAsync(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        List<String> keys = new ArrayList<>();
+        // The publisher delivers objects one at a time, so the list needs no synchronization
+        return s3AsyncClient.listObjectsV2Paginator(request)
+                .contents()
+                .subscribe(object -> keys.add(object.key()))
+                .thenApply(done -> keys);
+    }
+
+    /**
+     * Fetches a single page of at most {@code pageSize} (capped at {@value #MAX_LIST_PAGE_SIZE}) objects.
+     */
+    public CompletableFuture<ListObjectsV2Response> listFilesPageAsync(String prefix, String delimiter, int pageSize,
+                                                                       String continuationToken) {
         ListObjectsV2Request request = ListObjectsV2Request.builder()
                 .bucket(bucketName)
+                .prefix(prefix)
+                .delimiter(delimiter)
+                .maxKeys(Math.max(1, Math.min(pageSize, MAX_LIST_PAGE_SIZE)))
+                .continuationToken(continuationToken)
                 .build();
 
-        return s3AsyncClient.listObjectsV2(request)
-                .thenApply(response -> response.contents()
-                        .stream()
-                        .map(S3Object::key)
-                        .collect(Collectors.toList()));
+        return s3AsyncClient.listObjectsV2(request);
+    }
+
+    /**
+     * Writes every object under the prefix as one JSON object per line ({@code key}, {@code size},
+     * {@code lastModified}) while pages arrive from S3. Only the page being written and the one being fetched
+     * are held in memory, and the next page is requested only after the previous one has been handed to the
+     * output stream, so a slow client slows the listing down instead of building up a backlog.
+     *
+     * @return number of objects written
+     */
+    public long writeKeysAsNdjson(String prefix, OutputStream outputStream) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            CompletableFuture<ListObjectsV2Response> next = listFilesPageAsync(prefix, null, MAX_LIST_PAGE_SIZE, null);
+            while (next != null) {
+                ListObjectsV2Response page = next.join();
+                // Fetch the following page while this one is written out
+                next = Boolean.TRUE.equals(page.isTruncated()) && page.nextContinuationToken() != null
+                        ? listFilesPageAsync(prefix, null, MAX_LIST_PAGE_SIZE, page.nextContinuationToken())
+                        : null;
+
+                for (S3Object object : page.contents()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("key", object.key());
+                    if (object.size() != null) {
+                        generator.writeNumberField("size", object.size());
+                    }
+                    if (object.lastModified() != null) {
+                        generator.writeStringField("lastModified", object.lastModified().toString());
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    written++;
+                }
+                generator.flush();
+            }
+        }
+        logger.info("Streamed {} keys (prefix: {})", written, prefix);
+        return written;
+    }
+
+    /**
+     * Starts a GET for the object, optionally limited to a single HTTP byte range such as {@code bytes=0-1023}.
+     * The future completes once the response headers arrive; the body is then pulled from the returned stream
+     * as it is read, so nothing beyond the SDK's own buffers is held in memory.
+     * Objects stored gzip-compressed are decoded on the fly; a range then applies to the decoded bytes, so the whole
+     * object is fetched and the range cut from the decoded stream.
+     */
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> downloadAsync(String key, String range) {
+        if (filePacker.isPackedKey(key)) {
+            return filePacker.openAsync(key, range);
+        }
+
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .build();
+
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream())
+                .thenCompose(stream -> {
+                    if (!GzipStreams.ENCODING.equalsIgnoreCase(stream.response().contentEncoding())) {
+                        return CompletableFuture.completedFuture(stream);
+                    }
+                    if (range == null) {
+                        return CompletableFuture.completedFuture(decoded(stream, null));
+                    }
+                    // The range addressed compressed bytes, which cannot be decoded on their own
+                    stream.abort();
+                    return s3AsyncClient.getObject(request.toBuilder().range(null).build(),
+                                    AsyncResponseTransformer.toBlockingInputStream())
+                            .thenApply(full -> decoded(full, range));
+                });
+    }
+
+    private static ResponseInputStream<GetObjectResponse> decoded(ResponseInputStream<GetObjectResponse> stream,
+                                                                  String range) {
+        GetObjectResponse response = stream.response();
+        Long size = decodedSize(response.metadata(), null);
+        long start = 0;
+        long length = -1;
+        String contentRange = null;
+        if (range != null && size != null) {
+            try {
+                HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+                start = httpRange.getRangeStart(size);
+                long end = httpRange.getRangeEnd(size);
+                length = end - start + 1;
+                contentRange = "bytes " + start + "-" + end + "/" + size;
+            } catch (IllegalArgumentException e) {
+                stream.abort();
+                throw S3Exception.builder().message("Range " + range + " not satisfiable").statusCode(416).build();
+            }
+        }
+
+        GetObjectResponse decodedResponse = response.toBuilder()
+                .contentEncoding(null)
+                .contentLength(length >= 0 ? Long.valueOf(length) : size)
+                .contentRange(contentRange)
+                .build();
+        return new ResponseInputStream<>(decodedResponse,
+                AbortableInputStream.create(GzipStreams.decompressing(stream, start, length), stream::abort));
+    }
+
+    // Decoded size recorded at upload for compressed objects, else the stored size
+    private static Long decodedSize(Map<String, String> metadata, Long storedSize) {
+        String originalSize = metadata == null ? null : metadata.get(ORIGINAL_SIZE_METADATA);
+        if (originalSize != null) {
+            try {
+                return Long.valueOf(originalSize);
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed {} metadata: {}", ORIGINAL_SIZE_METADATA, originalSize);
+            }
+        }
+        return storedSize;
+    }
+
+    /**
+     * Fetches the first {@code aws.s3.download.part-size} bytes of the object with a ranged GET. Its response
+     * carries the object's current ETag, content type and total size (see {@link #totalSize}), so response headers
+     * can be committed from it rather than from cached metadata that may be out of date.
+     */
+    public CompletableFuture<ResponseBytes<GetObjectResponse>> getFirstRangeAsync(String key) {
+        return getRangeAsync(key, 0, Math.max(1, downloadPartSize.toBytes()) - 1, null);
+    }
+
+    /**
+     * Writes the range returned by {@link #getFirstRangeAsync}, then downloads the rest of the object as ranged
+     * GETs of {@code aws.s3.download.part-size}, with at most {@code aws.s3.download.max-concurrent-parts} requests
+     * in flight, and writes the parts in order. Each part is pinned to the first range's ETag, so a concurrent
+     * overwrite fails the download instead of mixing versions.
+     *
+     * @return number of bytes written
+     */
+    public long writeRangesInParallel(String key, ResponseBytes<GetObjectResponse> firstRange,
+                                      OutputStream outputStream) throws IOException {
+        long size = totalSize(firstRange.response());
+        String eTag = firstRange.response().eTag();
+        long rangeBytes = Math.max(1, downloadPartSize.toBytes());
+        int window = Math.max(1, maxConcurrentDownloadParts);
+
+        byte[] first = firstRange.asByteArrayUnsafe();
+        outputStream.write(first);
+        long written = first.length;
+
+        Deque<CompletableFuture<ResponseBytes<GetObjectResponse>>> inFlight = new ArrayDeque<>();
+        long nextStart = written;
+        try {
+            while (written < size) {
+                while (inFlight.size() < window && nextStart < size) {
+                    long end = Math.min(nextStart + rangeBytes, size) - 1;
+                    inFlight.add(getRangeAsync(key, nextStart, end, eTag));
+                    nextStart = end + 1;
+                }
+                byte[] part = inFlight.removeFirst().join().asByteArrayUnsafe();
+                outputStream.write(part);
+                written += part.length;
+            }
+        } finally {
+            // Client went away or a part failed: stop waiting for the rest
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        outputStream.flush();
+        return written;
+    }
+
+    private CompletableFuture<ResponseBytes<GetObjectResponse>> getRangeAsync(String key, long start, long end,
+                                                                            String eTag) {
+        return s3AsyncClient.getObject(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .range("bytes=" + start + "-" + end)
+                        .ifMatch(eTag)
+                        .build(),
+                AsyncResponseTransformer.toBytes());
+    }
+
+    /**
+     * Size of the whole object behind a ranged GET response, read from {@code Content-Range: bytes a-b/size}.
+     */
+    public static long totalSize(GetObjectResponse response) {
+        String contentRange = response.contentRange();
+        int slash = contentRange == null ? -1 : contentRange.lastIndexOf('/');
+        if (slash >= 0) {
+            try {
+                return Long.parseLong(contentRange.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring unparseable Content-Range: {}", contentRange);
+            }
+        }
+        // No range in the answer: S3 returned the whole object
+        return response.contentLength() != null ? response.contentLength() : 0L;
     }
 
     /**
      * Delete a file from S3 bucket by key
      */
     public CompletableFuture<String> deleteFileAsync(String key) {
+        if (filePacker.isPackedKey(key)) {
+            return CompletableFuture.failedFuture(new RuntimeException(PACKED_DELETE_ERROR + ": " + key));
+        }
+
         DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
                 .build();
 
         return s3AsyncClient.deleteObject(deleteRequest)
-                .thenApply(response -> key);
+                .whenComplete((response, e) -> metadataCache.invalidate(key))
+                .thenCompose(response -> forgetContentHashesAsync(Collections.singletonList(key), key));
+    }
+
+    /**
+     * Deletes the keys with {@code DeleteObjects} calls of up to {@value #MAX_DELETE_BATCH_SIZE} keys, running at
+     * most {@code aws.s3.delete.max-concurrent-batches} calls at a time.
+     * A batch that fails as a whole marks all of its keys as failed; the other batches still run.
+     * Packed files are not sent to S3 and fail, as with {@link #deleteFileAsync}.
+     *
+     * @return one result per key, in request order
+     */
+    public CompletableFuture<List<S3KeyDeleteResultDTO>> deleteFilesAsync(List<String> keys) {
+        List<String> deletable = keys.stream().filter(key -> !filePacker.isPackedKey(key)).collect(Collectors.toList());
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < deletable.size(); from += MAX_DELETE_BATCH_SIZE) {
+            batches.add(deletable.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, deletable.size())));
+        }
+
+        return runBounded(batches, maxConcurrentDeleteBatches, this::deleteBatchAsync)
+                .thenApply(batchResults -> {
+                    // Batch results follow the order of the deletable keys; slot the packed keys back in between
+                    Iterator<S3KeyDeleteResultDTO> deleted = batchResults.stream().flatMap(List::stream).iterator();
+                    List<S3KeyDeleteResultDTO> results = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        results.add(filePacker.isPackedKey(key)
+                                ? S3KeyDeleteResultDTO.failed(key, PACKED_DELETE_ERROR)
+                                : deleted.next());
+                    }
+                    return results;
+                });
+    }
+
+    private CompletableFuture<List<S3KeyDeleteResultDTO>> deleteBatchAsync(List<String> batch) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder()
+                        .objects(batch.stream()
+                                .map(key -> ObjectIdentifier.builder().key(key).build())
+                                .collect(Collectors.toList()))
+                        // Quiet mode: S3 only reports failures, the rest are deleted
+                        .quiet(true)
+                        .build())
+                .build();
+
+        return s3AsyncClient.deleteObjects(request)
+                .handle((response, e) -> {
+                    // Even failed keys may be gone or changed; let the next existence check ask S3
+                    batch.forEach(metadataCache::invalidate);
+
+                    Map<String, String> errors = new HashMap<>();
+                    if (e != null) {
+                        String message = (e.getCause() != null ? e.getCause() : e).getMessage();
+                        batch.forEach(key -> errors.put(key, message));
+                    } else {
+                        response.errors().forEach(error -> errors.put(error.key(), error.code() + ": " + error.message()));
+                    }
+
+                    List<S3KeyDeleteResultDTO> results = new ArrayList<>(batch.size());
+                    for (String key : batch) {
+                        String error = errors.get(key);
+                        results.add(error == null
+                                ? S3KeyDeleteResultDTO.deleted(key)
+                                : S3KeyDeleteResultDTO.failed(key, error));
+                    }
+                    return results;
+                })
+                .thenCompose(results -> forgetContentHashesAsync(results.stream()
+                        .filter(S3KeyDeleteResultDTO::isDeleted)
+                        .map(S3KeyDeleteResultDTO::getKey)
+                        .collect(Collectors.toList()), results));
+    }
+
+    /**
+     * Drops the dedup entries of deleted keys so no later upload is answered with them. A failure is only logged:
+     * the delete itself succeeded, and a stale entry is caught by the HEAD check before a key is reused.
+     */
+    private <T> CompletableFuture<T> forgetContentHashesAsync(List<String> deletedKeys, T result) {
+        if (!contentHashIndex.isEnabled() || deletedKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return CompletableFuture.completedFuture(result)
+                .thenApplyAsync(r -> {
+                    contentHashIndex.forgetKeys(deletedKeys);
+                    return r;
+                }, blockingExecutor)
+                .exceptionally(e -> {
+                    logger.warn("Could not drop dedup entries of {} deleted keys: {}", deletedKeys.size(), e.getMessage());
+                    return result;
+                });
+    }
+
+    /**
+     * Deletes either the given keys or everything under the prefix. A key list is answered with one result per
+     * key; a prefix, whose size is unknown up front, with counts and the failed keys only.
+     */
+    public CompletableFuture<S3ResponseDTO> processFileBatchDelete(List<String> keys, String prefix) {
+        logger.info("Starting async batch deletion ({} keys, prefix: {})", keys == null ? 0 : keys.size(), prefix);
+
+        CompletableFuture<S3BatchDeleteResponseDTO> batch = keys != null
+                ? deleteFilesAsync(keys).thenApply(results -> new S3BatchDeleteResponseDTO(
+                        results.stream().filter(S3KeyDeleteResultDTO::isDeleted).count(), results))
+                : deletePrefixAsync(prefix);
+
+        return batch
+            .<S3ResponseDTO>thenApplyAsync(response -> {
+                logger.info("Batch deletion completed: {} of {} keys deleted",
+                        response.getDeleted(), response.getRequested());
+                return response;
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
+                return createErrorResponse(
+                        "batch delete files from S3",
+                        e,
+                        prefix != null ? "prefix: " + prefix : "keys: " + keys.size());
+            }, callbackExecutor);
+    }
+
+    /**
+     * Deletes every key under the prefix one listing page at a time: each page of up to
+     * {@value #MAX_LIST_PAGE_SIZE} keys goes straight into one {@code DeleteObjects} call. The next page is
+     * listed while the current one is deleted, but deleted only after it, so at most two pages are held in
+     * memory however many keys the prefix covers. Objects under {@code packs/} are skipped: deleting a pack would
+     * take every file packed into it along.
+     */
+    CompletableFuture<S3BatchDeleteResponseDTO> deletePrefixAsync(String prefix) {
+        PrefixDeleteTally tally = new PrefixDeleteTally();
+        return deletePagesAsync(prefix, null, CompletableFuture.completedFuture(null), tally)
+                .thenApply(done -> tally.toResponse());
+    }
+
+    private CompletableFuture<Void> deletePagesAsync(String prefix, String continuationToken,
+                                                     CompletableFuture<Void> previousDelete, PrefixDeleteTally tally) {
+        return listFilesPageAsync(prefix, null, MAX_LIST_PAGE_SIZE, continuationToken)
+                .thenCompose(page -> previousDelete.thenCompose(previous -> {
+                    List<String> keys = page.contents().stream()
+                            .map(S3Object::key)
+                            .filter(key -> !filePacker.isPackStorageKey(key))
+                            .collect(Collectors.toList());
+                    CompletableFuture<Void> delete = keys.isEmpty()
+                            ? CompletableFuture.completedFuture(null)
+                            : deleteBatchAsync(keys).thenAccept(tally::add);
+                    return Boolean.TRUE.equals(page.isTruncated()) && page.nextContinuationToken() != null
+                            ? deletePagesAsync(prefix, page.nextContinuationToken(), delete, tally)
+                            : delete;
+                }));
+    }
+
+    /**
+     * Running counts of a prefix deletion. Pages are added one after another, each once the previous delete
+     * has completed, so the future chain already orders the updates.
+     */
+    private static final class PrefixDeleteTally {
+
+        private long requested;
+        private long deleted;
+        private final List<S3KeyDeleteResultDTO> failures = new ArrayList<>();
+
+        void add(List<S3KeyDeleteResultDTO> results) {
+            requested += results.size();
+            for (S3KeyDeleteResultDTO result : results) {
+                if (result.isDeleted()) {
+                    deleted++;
+                } else if (failures.size() < MAX_DELETE_BATCH_SIZE) {
+                    failures.add(result);
+                }
+            }
+        }
+
+        S3BatchDeleteResponseDTO toResponse() {
+            return new S3BatchDeleteResponseDTO(requested, deleted, failures);
+        }
+    }
+
+    /**
+     * Applies the task to every item with at most {@code concurrency} tasks in flight; results keep item order.
+     * Each of the {@code concurrency} workers starts its next item when its previous one completes,
+     * so no thread blocks while waiting for a free slot.
+     */
+    static <T, R> CompletableFuture<List<R>> runBounded(List<T> items, int concurrency,
+                                                        Function<T, CompletableFuture<R>> task) {
+        List<R> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(1, Math.min(concurrency, items.size()))];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = runNext(items, task, results, next);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> results);
+    }
+
+    private static <T, R> CompletableFuture<Void> runNext(List<T> items, Function<T, CompletableFuture<R>> task,
+                                                          List<R> results, AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= items.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return task.apply(items.get(index))
+                .thenCompose(result -> {
+                    synchronized (results) {
+                        results.set(index, result);
+                    }
+                    return runNext(items, task, results, next);
+                });
     }
 
     /**
      * Business logic method to handle complete file deletion process
      */
-    public CompletableFuture<Map<String, Object>> processFileDelete(String key) {
+    public CompletableFuture<S3ResponseDTO> processFileDelete(String key) {
         logger.info("Starting async deletion for file: {}", key);
 
         return deleteFileAsync(key)
-            .thenApply(deletedKey -> {
+            .<S3ResponseDTO>thenApplyAsync(deletedKey -> {
                 logger.info("File deleted successfully using async S3Service: {}", deletedKey);
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("message", "File deleted successfully: " + deletedKey);
-                response.put("key", deletedKey);
-
-                return response;
-            })
-            .exceptionally(e -> {
-                logger.error("Failed to delete file: {}", key, e);
-                Exception exception = (e instanceof Exception) ? (Exception) e : new RuntimeException(e);
+                return new S3DeleteResponseDTO("File deleted successfully: " + deletedKey, deletedKey);
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
                 return createErrorResponse(
                         "delete file from S3",
-                        exception,
+                        e,
                         "key: " + key);
-            });
+            }, callbackExecutor);
     }
 
     /**
-     * Check if a file exists in S3 bucket
+     * Check if a file exists in S3 bucket; answered from {@link S3MetadataCache} when possible
      */
     public CompletableFuture<Boolean> fileExistsAsync(String key) {
+        return getMetadataAsync(key).thenApply(ObjectMetadata::isExists);
+    }
+
+    /**
+     * Returns the object's size, ETag and content type, sending a {@code HeadObject} only on a cache miss.
+     */
+    public CompletableFuture<ObjectMetadata> getMetadataAsync(String key) {
+        if (filePacker.isPackedKey(key)) {
+            return metadataCache.get(key, filePacker::metadataAsync);
+        }
+        return metadataCache.get(key, this::headObjectAsync);
+    }
+
+    /**
+     * Whether the key names a file stored inside a pack; such files are served with one ranged GET on the pack.
+     */
+    public boolean isPackedKey(String key) {
+        return filePacker.isPackedKey(key);
+    }
+
+    /**
+     * Whether the key lies under {@code packs/}, where packs and their indexes are stored.
+     */
+    public boolean isPackStorageKey(String key) {
+        return filePacker.isPackStorageKey(key);
+    }
+
+    private CompletableFuture<ObjectMetadata> headObjectAsync(String key) {
         HeadObjectRequest headRequest = HeadObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
                 .build();
 
         return s3AsyncClient.headObject(headRequest)
-                .thenApply(response -> true)
-                .exceptionally(throwable -> {
-                    if (throwable.getCause() instanceof NoSuchKeyException) {
-                        return false;
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        return ObjectMetadata.of(decodedSize(response.metadata(), response.contentLength()),
+                                response.eTag(), response.contentType(), response.contentEncoding());
+                    }
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                    // HEAD responses have no body, so a missing key may surface as a bare 404
+                    if (cause instanceof NoSuchKeyException
+                            || (cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 404)) {
+                        return ObjectMetadata.missing();
                     }
                     // For other exceptions, rethrow
-                    throw new RuntimeException(throwable);
+                    throw new RuntimeException(cause);
                 });
     }
 
     /**
      * Business logic method to handle file existence check
      */
-    public CompletableFuture<Map<String, Object>> processFileExists(String key) {
+    public CompletableFuture<S3ResponseDTO> processFileExists(String key) {
         logger.info("Checking file existence for: {}", key);
 
         return fileExistsAsync(key)
-            .thenApply(exists -> {
+            .<S3ResponseDTO>thenApplyAsync(exists -> {
                 logger.info("File existence check completed for: {} - exists: {}", key, exists);
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("success", true);
-                response.put("exists", exists);
-                response.put("key", key);
-
-                return response;
-            })
-            .exceptionally(e -> {
-                logger.error("Failed to check file existence: {}", key, e);
-                Exception exception = (e instanceof Exception) ? (Exception) e : new RuntimeException(e);
+                return new S3ExistsResponseDTO(exists, key);
+            }, callbackExecutor)
+            .exceptionallyAsync(e -> {
+                rethrowIfRejected(e);
                 return createErrorResponse(
                         "check file existence in S3",
-                        exception,
+                        e,
                         "key: " + key);
-            });
+            }, callbackExecutor);
     }
 
     /**
-     * Creates a detailed error response with stack trace and context information
+     * A full callback pool is not an S3 failure: let it fail the future so the API answers 503 instead of
+     * reporting it as an error response of the operation.
      */
-    public Map<String, Object> createErrorResponse(String operation, Exception e, String context) {
-        logger.error("Error during {}: {}", operation, e.getMessage(), e);
-        
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("timestamp", LocalDateTime.now().toString());
-        errorResponse.put("operation", operation);
-        errorResponse.put("exceptionType", e.getClass().getSimpleName());
-        errorResponse.put("message", e.getMessage());
-        errorResponse.put("context", context);
-
-        // Add stack trace for detailed debugging
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        errorResponse.put("stackTrace", sw.toString());
-
-        // Add cause information if available
-        if (e.getCause() != null) {
-            errorResponse.put("causeType", e.getCause().getClass().getSimpleName());
-            errorResponse.put("causeMessage", e.getCause().getMessage());
+    private static void rethrowIfRejected(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            throw (RejectedExecutionException) cause;
         }
+    }
 
-        return errorResponse;
+    /**
+     * Creates the error response of a failed operation and logs the failure; see {@link S3ErrorReporter}
+     */
+    public S3ErrorResponseDTO createErrorResponse(String operation, Throwable e, String context) {
+        return errorReporter.report(operation, e, context);
     }
 
     /**
@@ -0,0 +1,99 @@
+package com.lithespeed.hellojava06.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lithespeed.hellojava06.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through Caffeine caches for user lookups by id, username and email.
+ * Loaders returning {@code null} are not cached, so unknown users always reach the database.
+ * Hit/miss/eviction statistics are published to Micrometer as {@code cache.*} meters tagged
+ * {@code cache=users.byId|users.byUsername|users.byEmail}.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, User> usersById;
+    private final Cache<String, User> usersByUsername;
+    private final Cache<String, User> usersByEmail;
+
+    @Autowired
+    public UserCache(@Value("${users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${users.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.usersById = build(maximumSize, expireAfterWrite);
+        this.usersByUsername = build(maximumSize, expireAfterWrite);
+        this.usersByEmail = build(maximumSize, expireAfterWrite);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByUsername, "users.byUsername");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users.byEmail");
+    }
+
+    private static <K> Cache<K, User> build(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public User getById(Long id, Function<Long, User> loader) {
+        return usersById.get(id, loader);
+    }
+
+    public User getByUsername(String username, Function<String, User> loader) {
+        return usersByUsername.get(username, loader);
+    }
+
+    public User getByEmail(String email, Function<String, User> loader) {
+        return usersByEmail.get(email, loader);
+    }
+
+    /**
+     * Evicts every entry keyed by the user's current id, username and email.
+     * The keys are captured now, so call this before mutating the user to evict its old keys.
+     * Inside a transaction the eviction is repeated after completion, dropping any value a concurrent
+     * reader loaded from the pre-commit state in between.
+     */
+    public void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        Long id = user.getId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+
+        evict(id, username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, username, email);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id, String username, String email) {
+        if (id != null) {
+            usersById.invalidate(id);
+        }
+        if (username != null) {
+            usersByUsername.invalidate(username);
+        }
+        if (email != null) {
+            usersByEmail.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the user count without a {@code count(*)} per request.
+ * <ul>
+ * <li>{@code cached}: an in-memory counter adjusted after each committed create/delete and periodically
+ * reconciled against the database, which also corrects drift from writes made outside this instance.</li>
+ * <li>{@code estimated}: PostgreSQL's planner estimate from {@code pg_class.reltuples}; falls back to
+ * {@code cached} on other databases or before the table has been analyzed.</li>
+ * <li>{@code exact}: a plain {@code count(*)}.</li>
+ * </ul>
+ */
+@Service
+public class UserCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCountService.class);
+
+    public enum Mode {
+        CACHED, ESTIMATED, EXACT;
+
+        public static Mode parse(String value) {
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid count mode: " + value);
+            }
+        }
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode defaultMode;
+    private final AtomicLong count = new AtomicLong();
+    private final ReentrantLock initializationLock = new ReentrantLock();
+    private volatile boolean initialized;
+    private volatile Boolean postgres;
+
+    @Autowired
+    public UserCountService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                            @Value("${users.count.mode:cached}") String defaultMode) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultMode = Mode.parse(defaultMode);
+    }
+
+    public UserCountDTO getCount() {
+        return getCount(defaultMode);
+    }
+
+    public UserCountDTO getCount(Mode mode) {
+        if (mode == Mode.EXACT) {
+            return new UserCountDTO(userRepository.count(), Mode.EXACT.label());
+        }
+        if (mode == Mode.ESTIMATED) {
+            Long estimate = estimate();
+            if (estimate != null) {
+                return new UserCountDTO(estimate, Mode.ESTIMATED.label());
+            }
+        }
+        if (!initialized) {
+            initialize();
+        }
+        return new UserCountDTO(count.get(), Mode.CACHED.label());
+    }
+
+    /**
+     * Runs the first reconciliation exactly once: requests arriving before it completes wait for it instead of
+     * each running their own {@code count(*)}. A lock rather than {@code synchronized}, so waiting virtual threads
+     * do not pin their carriers.
+     */
+    private void initialize() {
+        initializationLock.lock();
+        try {
+            if (!initialized) {
+                reconcile();
+            }
+        } finally {
+            initializationLock.unlock();
+        }
+    }
+
+    /**
+     * Adjusts the cached counter once the current transaction commits, or immediately outside one,
+     * so rolled-back inserts and deletes never move the count.
+     */
+    public void adjustAfterCommit(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.addAndGet(delta);
+                }
+            });
+        } else {
+            count.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Resets the cached counter to the database count. Adjustments committed while the count query runs
+     * may be lost; the next reconciliation picks them up.
+     */
+    @Scheduled(fixedDelayString = "${users.count.reconcile-interval-ms:60000}",
+            initialDelayString = "${users.count.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long actual = userRepository.count();
+        long previous = count.getAndSet(actual);
+        if (initialized && previous != actual) {
+            logger.info("Reconciled cached user count from {} to {}", previous, actual);
+        }
+        initialized = true;
+    }
+
+    private Long estimate() {
+        if (!isPostgres()) {
+            return null;
+        }
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+        // reltuples is -1 (PostgreSQL 14+) or 0 until the table has been vacuumed or analyzed
+        return estimate != null && estimate > 0 ? estimate : null;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.lithespeed.hellojava06.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lithespeed.hellojava06.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Streams the {@code users} table as newline-delimited JSON.
+ * Rows are read through a forward-only, read-only JDBC cursor with a fixed fetch size and written one at a time,
+ * bypassing the JPA persistence context, so memory use does not grow with the size of the table.
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL =
+            "SELECT id, username, email, first_name, last_name, created_at, updated_at FROM users ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter userWriter;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Let the generator's buffer decide when to hit the socket instead of flushing after every row
+        this.userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every user as one JSON object per line.
+     * Runs in a read-only transaction because PostgreSQL only honours the fetch size with auto-commit off.
+     *
+     * @return number of users written
+     */
+    @Transactional(readOnly = true)
+    public long exportAsNdjson(OutputStream outputStream) throws IOException {
+        long[] written = { 0 };
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                try {
+                    userWriter.writeValue(generator, mapRow(resultSet));
+                    generator.writeRaw('\n');
+                    written[0]++;
+                } catch (IOException e) {
+                    // Usually the client went away; abort the cursor instead of reading the rest of the table
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exported {} users as NDJSON", written[0]);
+        return written[0];
+    }
+
+    private static User mapRow(ResultSet resultSet) throws SQLException {
+        User user = new User(
+                resultSet.getString("username"),
+                resultSet.getString("email"),
+                resultSet.getString("first_name"),
+                resultSet.getString("last_name"));
+        user.setId(resultSet.getLong("id"));
+        user.setCreatedAt(toLocalDateTime(resultSet.getTimestamp("created_at")));
+        user.setUpdatedAt(toLocalDateTime(resultSet.getTimestamp("updated_at")));
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
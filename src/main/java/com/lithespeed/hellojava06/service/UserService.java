@@ -1,24 +1,46 @@
 package com.lithespeed.hellojava06.service;
 
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
 import com.lithespeed.hellojava06.entity.User;
 import com.lithespeed.hellojava06.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @Transactional
 public class UserService {
 
+    public static final int MAX_KEYSET_PAGE_SIZE = 100;
+    public static final int MIN_SEARCH_TERM_LENGTH = 3;
+    public static final int MAX_SEARCH_PAGE_SIZE = 50;
+    public static final int MAX_SEARCH_RESULTS = 1000;
+    private static final String CURSOR_PREFIX = "id:";
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final UserCountService userCountService;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCache userCache, UserCountService userCountService) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userCountService = userCountService;
     }
 
     @Transactional(readOnly = true)
@@ -31,36 +53,112 @@ public class UserService {
         return userRepository.findAll(pageable);
     }
 
+    /**
+     * Keyset (seek) pagination ordered by id: each page is an index range scan starting after the
+     * cursor's id, so deep pages cost the same as the first and no count query is issued.
+     *
+     * @param cursor token from the previous page's {@code nextCursor}, or {@code null} for the first page
+     * @param size requested page size, clamped to {@code 1..MAX_KEYSET_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public UserKeysetPageDTO getUsersAfter(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        long afterId = (cursor == null || cursor.isBlank()) ? 0L : decodeCursor(cursor);
+
+        Slice<User> slice = userRepository.findByIdGreaterThan(afterId, PageRequest.of(0, pageSize, Sort.by("id")));
+        List<User> content = slice.getContent();
+        String nextCursor = slice.hasNext() ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+        return new UserKeysetPageDTO(content, nextCursor, pageSize);
+    }
+
     @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        User user = userCache.getById(id, key -> userRepository.findById(key).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with id: " + id);
+        }
+        return user;
     }
 
     @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+        User user = userCache.getByUsername(username, key -> userRepository.findByUsername(key).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with username: " + username);
+        }
+        return user;
     }
 
     @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+        User user = userCache.getByEmail(email, key -> userRepository.findByEmail(key).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with email: " + email);
+        }
+        return user;
     }
 
+    /**
+     * Ranked, case-insensitive search on first and last name.
+     * Terms shorter than {@code MIN_SEARCH_TERM_LENGTH} after trimming are rejected before querying: they contain
+     * no trigram, so no index can narrow them and every row would be scanned and ranked.
+     * The page size is clamped to {@code 1..MAX_SEARCH_PAGE_SIZE} and pages past the first
+     * {@code MAX_SEARCH_RESULTS} ranked results return nothing.
+     */
     @Transactional(readOnly = true)
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContaining(name);
+    public List<User> searchUsersByName(String name, int page, int size) {
+        String term = normalizeSearchTerm(name);
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if ((long) pageNumber * pageSize >= MAX_SEARCH_RESULTS) {
+            return Collections.emptyList();
+        }
+
+        String escaped = escapeLike(term);
+        return userRepository.searchByName(term, "%" + escaped + "%", escaped + "%",
+                PageRequest.of(pageNumber, pageSize));
+    }
+
+    static String normalizeSearchTerm(String name) {
+        String term = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_SEARCH_TERM_LENGTH) {
+            throw new RuntimeException("Search term must be at least " + MIN_SEARCH_TERM_LENGTH + " characters");
+        }
+        return term;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     public User createUser(User user) {
         validateUniqueConstraints(user);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userCache.invalidate(savedUser);
+        userCountService.adjustAfterCommit(1);
+        return savedUser;
+    }
+
+    /**
+     * Creates all users in one transaction, or none if any username or email is taken.
+     * Uniqueness is checked with a single set-based query; the inserts are flushed as JDBC batches
+     * (see {@code hibernate.jdbc.batch_size}) thanks to the pooled {@code users_seq} id generator.
+     */
+    public List<User> createUsers(List<User> users) {
+        if (users.size() > UserBatchRequestDTO.MAX_USERS) {
+            throw new RuntimeException("Batch size exceeds maximum of " + UserBatchRequestDTO.MAX_USERS + " users");
+        }
+        validateUniqueConstraints(users);
+        users.forEach(user -> user.setId(null));
+        // New users cannot be cached yet (misses are not cached), so there is nothing to invalidate
+        List<User> savedUsers = userRepository.saveAll(users);
+        userCountService.adjustAfterCommit(savedUsers.size());
+        return savedUsers;
     }
 
     public User updateUser(Long id, User userDetails) {
-        User existingUser = getUserById(id);
+        // Load from the database rather than the cache so cached instances are never mutated
+        User existingUser = findUserForWrite(id);
 
         // Check if username or email changed and validate uniqueness
         if (!existingUser.getUsername().equals(userDetails.getUsername()) &&
@@ -73,17 +171,23 @@ public class UserService {
             throw new RuntimeException("Email already exists: " + userDetails.getEmail());
         }
 
+        // Evict under the old username/email before they change, then under the new ones
+        userCache.invalidate(existingUser);
         existingUser.setUsername(userDetails.getUsername());
         existingUser.setEmail(userDetails.getEmail());
         existingUser.setFirstName(userDetails.getFirstName());
         existingUser.setLastName(userDetails.getLastName());
 
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        userCache.invalidate(savedUser);
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
-        User user = getUserById(id);
+        User user = findUserForWrite(id);
+        userCache.invalidate(user);
         userRepository.delete(user);
+        userCountService.adjustAfterCommit(-1);
     }
 
     @Transactional(readOnly = true)
@@ -96,6 +200,28 @@ public class UserService {
         return userRepository.count();
     }
 
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("unexpected prefix");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    private User findUserForWrite(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
     private void validateUniqueConstraints(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new RuntimeException("Username already exists: " + user.getUsername());
@@ -105,4 +231,30 @@ public class UserService {
             throw new RuntimeException("Email already exists: " + user.getEmail());
         }
     }
+
+    private void validateUniqueConstraints(List<User> users) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (User user : users) {
+            if (!usernames.add(user.getUsername())) {
+                throw new RuntimeException("Duplicate username in batch: " + user.getUsername());
+            }
+            if (!emails.add(user.getEmail())) {
+                throw new RuntimeException("Duplicate email in batch: " + user.getEmail());
+            }
+        }
+
+        List<String> conflicts = new ArrayList<>();
+        for (User existing : userRepository.findByUsernameInOrEmailIn(usernames, emails)) {
+            if (usernames.contains(existing.getUsername())) {
+                conflicts.add("username " + existing.getUsername());
+            }
+            if (emails.contains(existing.getEmail())) {
+                conflicts.add("email " + existing.getEmail());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Username or email already exists: " + String.join(", ", conflicts));
+        }
+    }
 }
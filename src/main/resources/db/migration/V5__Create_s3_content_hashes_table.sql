@@ -0,0 +1,14 @@
+-- SHA-256 of uploaded content -> key of the S3 object holding it, used to skip duplicate uploads.
+-- Entries are scoped to the entity (entityType/entityId) the content was uploaded for, so an upload is
+-- never answered with a key stored for another entity.
+CREATE TABLE s3_content_hashes (
+    sha256 CHAR(64) NOT NULL,
+    scope VARCHAR(512) NOT NULL,
+    object_key VARCHAR(1024) NOT NULL,
+    size BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sha256, scope)
+);
+
+-- Deletes drop entries by key
+CREATE INDEX idx_s3_content_hashes_object_key ON s3_content_hashes(object_key);
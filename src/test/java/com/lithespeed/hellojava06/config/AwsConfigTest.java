@@ -4,21 +4,30 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.time.Duration;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 public class AwsConfigTest {
     
+    private S3ClientProperties properties;
     private AwsConfig awsConfig;
 
     @BeforeEach
     void setUp() {
-        awsConfig = new AwsConfig();
-        // Set test values using reflection
-        ReflectionTestUtils.setField(awsConfig, "numRetries", 3);
+        properties = new S3ClientProperties();
+        properties.setRetryCount(3);
+        awsConfig = new AwsConfig(properties);
     }
 
     @Test
@@ -44,7 +53,7 @@ public class AwsConfigTest {
     @Test
     void s3AsyncClient_ShouldHandleDifferentRetryCount() {
         // Arrange
-        ReflectionTestUtils.setField(awsConfig, "numRetries", 5);
+        properties.setRetryCount(5);
 
         // Act
         S3AsyncClient s3AsyncClient = awsConfig.s3AsyncClient();
@@ -57,7 +66,7 @@ public class AwsConfigTest {
     @Test
     void s3AsyncClient_ShouldHandleZeroRetries() {
         // Arrange
-        ReflectionTestUtils.setField(awsConfig, "numRetries", 0);
+        properties.setRetryCount(0);
 
         // Act
         S3AsyncClient s3AsyncClient = awsConfig.s3AsyncClient();
@@ -67,6 +76,161 @@ public class AwsConfigTest {
         assertNotNull(s3AsyncClient.serviceName());
     }
 
+    @Test
+    void s3AsyncClient_ShouldApplyCrtTuning() {
+        // Arrange
+        properties.setRegion("eu-west-1");
+        properties.setEndpoint("http://localhost:4566");
+        properties.getCrt().setTargetThroughputInGbps(25.0);
+        properties.getCrt().setMaxConcurrency(64);
+        properties.getCrt().setMinimumPartSize(DataSize.ofMegabytes(16));
+        properties.getCrt().setInitialReadBufferSize(DataSize.ofMegabytes(80));
+        properties.getCrt().setChecksumValidationEnabled(false);
+
+        // Act
+        S3AsyncClient s3AsyncClient = awsConfig.s3AsyncClient();
+
+        // Assert
+        assertNotNull(s3AsyncClient);
+        assertNotNull(s3AsyncClient.serviceName());
+    }
+
+    @Test
+    void s3AsyncClient_ShouldIgnoreBlankEndpoint() {
+        // Arrange
+        properties.setEndpoint("  ");
+
+        // Act
+        S3AsyncClient s3AsyncClient = awsConfig.s3AsyncClient();
+
+        // Assert
+        assertNotNull(s3AsyncClient);
+    }
+
+    @Test
+    void s3Presigner_ShouldUseRegionAndEndpointOverride() {
+        // Arrange
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+        properties.setRegion("eu-west-1");
+        properties.setEndpoint("http://localhost:4566");
+
+        try (S3Presigner presigner = awsConfig.s3Presigner()) {
+            // Act
+            PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r
+                    .signatureDuration(Duration.ofMinutes(5))
+                    .getObjectRequest(GetObjectRequest.builder().bucket("bucket").key("key").build()));
+
+            // Assert
+            assertTrue(presigned.url().toString().startsWith("http://"));
+            assertTrue(presigned.url().toString().contains("localhost:4566"));
+            assertTrue(presigned.url().toString().contains("eu-west-1"));
+        } finally {
+            System.clearProperty("aws.accessKeyId");
+            System.clearProperty("aws.secretAccessKey");
+        }
+    }
+
+    @Test
+    void s3AsyncClient_ShouldApplyForcePathStyle() {
+        // Arrange
+        properties.setEndpoint("http://localhost:4566");
+        properties.setForcePathStyle(true);
+
+        // Act
+        S3AsyncClient s3AsyncClient = awsConfig.s3AsyncClient();
+
+        // Assert
+        assertNotNull(s3AsyncClient);
+    }
+
+    @Test
+    void s3Presigner_ShouldUsePathStyleWhenForced() {
+        // Arrange
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+        properties.setEndpoint("http://localhost:4566");
+        properties.setForcePathStyle(true);
+
+        try (S3Presigner presigner = awsConfig.s3Presigner()) {
+            // Act
+            PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r
+                    .signatureDuration(Duration.ofMinutes(5))
+                    .getObjectRequest(GetObjectRequest.builder().bucket("bucket").key("key").build()));
+
+            // Assert
+            assertTrue(presigned.url().toString().startsWith("http://localhost:4566/bucket/key"));
+        } finally {
+            System.clearProperty("aws.accessKeyId");
+            System.clearProperty("aws.secretAccessKey");
+        }
+    }
+
+    @Test
+    void s3Presigner_ShouldUseVirtualHostedStyleByDefault() {
+        // Arrange
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+        properties.setEndpoint("http://localhost:4566");
+
+        try (S3Presigner presigner = awsConfig.s3Presigner()) {
+            // Act
+            PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r
+                    .signatureDuration(Duration.ofMinutes(5))
+                    .getObjectRequest(GetObjectRequest.builder().bucket("bucket").key("key").build()));
+
+            // Assert
+            assertTrue(presigned.url().toString().startsWith("http://bucket.localhost:4566/key"));
+        } finally {
+            System.clearProperty("aws.accessKeyId");
+            System.clearProperty("aws.secretAccessKey");
+        }
+    }
+
+    @Test
+    void properties_ShouldBindFromKebabCaseKeys() {
+        // Arrange
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "aws.s3.region", "eu-central-1",
+                "aws.s3.endpoint", "http://localhost:4566",
+                "aws.s3.force-path-style", "true",
+                "aws.s3.retry-count", "2",
+                "aws.s3.crt.target-throughput-in-gbps", "5",
+                "aws.s3.crt.max-concurrency", "32",
+                "aws.s3.crt.minimum-part-size", "16MB",
+                "aws.s3.crt.initial-read-buffer-size", "64MB",
+                "aws.s3.crt.checksum-validation-enabled", "false")));
+
+        // Act
+        S3ClientProperties bound = binder.bind("aws.s3", S3ClientProperties.class).get();
+
+        // Assert
+        assertEquals("eu-central-1", bound.getRegion());
+        assertEquals("http://localhost:4566", bound.getEndpoint());
+        assertTrue(bound.isForcePathStyle());
+        assertEquals(2, bound.getRetryCount());
+        assertEquals(5.0, bound.getCrt().getTargetThroughputInGbps());
+        assertEquals(32, bound.getCrt().getMaxConcurrency());
+        assertEquals(DataSize.ofMegabytes(16), bound.getCrt().getMinimumPartSize());
+        assertEquals(DataSize.ofMegabytes(64), bound.getCrt().getInitialReadBufferSize());
+        assertFalse(bound.getCrt().getChecksumValidationEnabled());
+    }
+
+    @Test
+    void properties_ShouldLeaveCrtSettingsUnsetByDefault() {
+        // Act
+        S3ClientProperties defaults = new S3ClientProperties();
+
+        // Assert
+        assertEquals("us-east-1", defaults.getRegion());
+        assertEquals(3, defaults.getRetryCount());
+        assertFalse(defaults.isForcePathStyle());
+        assertNull(defaults.getCrt().getTargetThroughputInGbps());
+        assertNull(defaults.getCrt().getMaxConcurrency());
+        assertNull(defaults.getCrt().getMinimumPartSize());
+        assertNull(defaults.getCrt().getChecksumValidationEnabled());
+    }
+
     @Test
     void s3AsyncClient_ShouldBeSpringBean() {
         // This test verifies that the method is annotated properly for Spring bean creation
@@ -0,0 +1,79 @@
+package com.lithespeed.hellojava06.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures upload and download throughput of the CRT client for one setting at a time.
+ * Needs a reachable S3 endpoint and credentials from the default provider chain, e.g.
+ * {@code gradle benchmarkTest -Ps3.benchmark.endpoint=http://localhost:4566 -Ps3.benchmark.bucket=bench};
+ * skipped otherwise.
+ */
+@Tag("benchmark")
+class S3ClientBenchmarkTest {
+
+    private static final int ROUNDS = 3;
+
+    @Test
+    void benchmarkCrtSettings() {
+        String endpoint = System.getProperty("s3.benchmark.endpoint");
+        assumeTrue(endpoint != null && !endpoint.isBlank(), "s3.benchmark.endpoint not set");
+        String bucket = System.getProperty("s3.benchmark.bucket", "benchmark");
+        int objectSizeMb = Integer.getInteger("s3.benchmark.object-size-mb", 256);
+
+        byte[] payload = new byte[objectSizeMb * 1024 * 1024];
+        new Random(42).nextBytes(payload);
+
+        Map<String, Consumer<S3ClientProperties.Crt>> variants = new LinkedHashMap<>();
+        variants.put("sdk defaults", crt -> { });
+        variants.put("throughput 1 Gbps", crt -> crt.setTargetThroughputInGbps(1.0));
+        variants.put("throughput 25 Gbps", crt -> crt.setTargetThroughputInGbps(25.0));
+        variants.put("max concurrency 8", crt -> crt.setMaxConcurrency(8));
+        variants.put("max concurrency 64", crt -> crt.setMaxConcurrency(64));
+        variants.put("part size 8MB", crt -> crt.setMinimumPartSize(DataSize.ofMegabytes(8)));
+        variants.put("part size 64MB", crt -> crt.setMinimumPartSize(DataSize.ofMegabytes(64)));
+        variants.put("read buffer 16MB", crt -> crt.setInitialReadBufferSize(DataSize.ofMegabytes(16)));
+        variants.put("read buffer 256MB", crt -> crt.setInitialReadBufferSize(DataSize.ofMegabytes(256)));
+        variants.put("checksums off", crt -> crt.setChecksumValidationEnabled(false));
+
+        System.out.printf("S3 CRT client: %d MB object, best of %d rounds against %s%n",
+                objectSizeMb, ROUNDS, endpoint);
+        System.out.printf("%-20s %12s %12s%n", "setting", "upload MB/s", "download MB/s");
+        for (Map.Entry<String, Consumer<S3ClientProperties.Crt>> variant : variants.entrySet()) {
+            S3ClientProperties properties = new S3ClientProperties();
+            properties.setEndpoint(endpoint);
+            variant.getValue().accept(properties.getCrt());
+
+            try (S3AsyncClient client = new AwsConfig(properties).s3AsyncClient()) {
+                String key = "benchmark/crt-" + variant.getKey().replace(' ', '-');
+                double upload = 0;
+                double download = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    client.putObject(r -> r.bucket(bucket).key(key), AsyncRequestBody.fromBytes(payload)).join();
+                    upload = Math.max(upload, objectSizeMb / ((System.nanoTime() - start) / 1e9));
+
+                    start = System.nanoTime();
+                    long read = client.getObject(r -> r.bucket(bucket).key(key), AsyncResponseTransformer.toBytes())
+                            .join().asByteArrayUnsafe().length;
+                    download = Math.max(download, objectSizeMb / ((System.nanoTime() - start) / 1e9));
+                    assertEquals(payload.length, read);
+                }
+                client.deleteObject(r -> r.bucket(bucket).key(key)).join();
+                System.out.printf("%-20s %12.1f %12.1f%n", variant.getKey(), upload, download);
+            }
+        }
+    }
+}
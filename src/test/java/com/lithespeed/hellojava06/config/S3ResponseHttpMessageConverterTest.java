@@ -0,0 +1,86 @@
+package com.lithespeed.hellojava06.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ListResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
+import com.lithespeed.hellojava06.dto.S3UploadResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3ResponseHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final S3ResponseHttpMessageConverter converter = new S3ResponseHttpMessageConverter(objectMapper);
+
+    @Test
+    void write_ShouldWriteTheSameJsonAsTheObjectMapper() throws Exception {
+        // Arrange
+        S3ListResponseDTO response = new S3ListResponseDTO(List.of("a.txt", "b.txt"), List.of("dir/"), true, "token-2");
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(response, MediaType.APPLICATION_JSON, output);
+
+        // Assert
+        JsonNode json = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals(objectMapper.valueToTree(response), json);
+        assertTrue(json.get("success").asBoolean());
+        assertEquals(2, json.get("count").asInt());
+        assertEquals("token-2", json.get("nextContinuationToken").asText());
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+    }
+
+    @Test
+    void write_ShouldLeaveAbsentErrorFieldsOut() throws Exception {
+        // Arrange
+        S3ResponseDTO response = new S3ErrorResponseDTO("THROTTLED", true, "list files from S3", "Slow down",
+                "S3Exception", null, "2024-01-01T00:00:00", null, null, null);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(response, null, output);
+
+        // Assert
+        JsonNode json = objectMapper.readTree(output.getBodyAsBytes());
+        assertFalse(json.get("success").asBoolean());
+        assertEquals("THROTTLED", json.get("code").asText());
+        assertTrue(json.get("retryable").asBoolean());
+        assertFalse(json.has("context"));
+        assertFalse(json.has("stackTrace"));
+    }
+
+    @Test
+    void write_ShouldReuseOneWriterPerResponseClass() throws Exception {
+        // Arrange
+        MockHttpOutputMessage first = new MockHttpOutputMessage();
+        MockHttpOutputMessage second = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(new S3UploadResponseDTO("File uploaded successfully", "a.txt", "text/plain", 1L, "e1"),
+                MediaType.APPLICATION_JSON, first);
+        converter.write(new S3UploadResponseDTO("File uploaded successfully", "b.txt", "text/plain", 2L, "e2"),
+                MediaType.APPLICATION_JSON, second);
+
+        // Assert
+        assertEquals("a.txt", objectMapper.readTree(first.getBodyAsBytes()).get("fileName").asText());
+        assertEquals(2L, objectMapper.readTree(second.getBodyAsBytes()).get("size").asLong());
+    }
+
+    @Test
+    void canWrite_ShouldOnlyAcceptS3ResponsesAsJson() {
+        // Act & Assert
+        assertTrue(converter.canWrite(S3ListResponseDTO.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(S3ErrorResponseDTO.class, MediaType.valueOf("application/problem+json")));
+        assertFalse(converter.canWrite(S3ListResponseDTO.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(S3ListResponseDTO.class, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,171 @@
+package com.lithespeed.hellojava06.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lithespeed.hellojava06.dto.S3ExistsResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ListResponseDTO;
+import com.lithespeed.hellojava06.dto.S3UploadResponseDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares three ways of turning an S3 result into a JSON response body: building a {@link HashMap} and writing
+ * it the way the generic Jackson converter does ({@code writer().forType(...)} per call), building a DTO and
+ * writing it the same way, and building a DTO and writing it with a writer built once as
+ * {@link S3ResponseHttpMessageConverter} does. Covers a small (exists), medium (upload) and large (list of 1000
+ * keys) body and prints ns and heap bytes per response, averaged over the measured rounds after warm-up rounds.
+ * Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+class S3ResponseSerializationBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Test
+    void benchmarkResponseWriting() throws Exception {
+        List<String> keys = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            keys.add("uploads/" + String.format("%08x", i * 2654435761L) + "/report-" + i + ".pdf");
+        }
+        ObjectWriter existsWriter = objectMapper.writerFor(S3ExistsResponseDTO.class);
+        ObjectWriter uploadWriter = objectMapper.writerFor(S3UploadResponseDTO.class);
+        ObjectWriter listWriter = objectMapper.writerFor(S3ListResponseDTO.class);
+
+        System.out.printf("%-8s %-24s %12s %12s %12s%n", "payload", "variant", "ns/op", "bytes/op", "json bytes");
+        run("exists", 200_000, new Variant[] {
+                new Variant("map, generic writer", o -> writeGeneric(o, existsMap("uploads/a/report.pdf"))),
+                new Variant("dto, generic writer", o -> writeGeneric(o, existsDto("uploads/a/report.pdf"))),
+                new Variant("dto, pre-built writer", o -> existsWriter.writeValue(o, existsDto("uploads/a/report.pdf")))
+        });
+        run("upload", 200_000, new Variant[] {
+                new Variant("map, generic writer", o -> writeGeneric(o, uploadMap("report.pdf"))),
+                new Variant("dto, generic writer", o -> writeGeneric(o, uploadDto("report.pdf"))),
+                new Variant("dto, pre-built writer", o -> uploadWriter.writeValue(o, uploadDto("report.pdf")))
+        });
+        run("list", 2_000, new Variant[] {
+                new Variant("map, generic writer", o -> writeGeneric(o, listMap(keys))),
+                new Variant("dto, generic writer", o -> writeGeneric(o, listDto(keys))),
+                new Variant("dto, pre-built writer", o -> listWriter.writeValue(o, listDto(keys)))
+        });
+    }
+
+    private void run(String payload, int opsPerRound, Variant[] variants) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] nanos = new long[variants.length];
+        long[] allocated = new long[variants.length];
+        int[] jsonBytes = new int[variants.length];
+
+        // Rounds alternate between variants so JIT and GC state does not favour whichever runs last
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            for (int v = 0; v < variants.length; v++) {
+                long allocatedStart = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                for (int i = 0; i < opsPerRound; i++) {
+                    out.reset();
+                    variants[v].body.write(out);
+                }
+                long elapsed = System.nanoTime() - start;
+                long allocatedBytes = threads.getThreadAllocatedBytes(threadId) - allocatedStart;
+                if (round >= WARMUP_ROUNDS) {
+                    nanos[v] += elapsed;
+                    allocated[v] += allocatedBytes;
+                }
+                jsonBytes[v] = out.size();
+            }
+        }
+
+        long ops = (long) opsPerRound * MEASURED_ROUNDS;
+        for (int v = 0; v < variants.length; v++) {
+            // Every variant has to produce the same document
+            assertEquals(objectMapper.readTree(variants[0].sample()), objectMapper.readTree(variants[v].sample()));
+            System.out.printf("%-8s %-24s %,12d %,12d %,12d%n", payload, variants[v].name,
+                    nanos[v] / ops, allocated[v] / ops, jsonBytes[v]);
+        }
+    }
+
+    // What MappingJackson2HttpMessageConverter does for every response
+    private void writeGeneric(OutputStream outputStream, Object value) throws IOException {
+        objectMapper.writer().forType(value.getClass()).writeValue(outputStream, value);
+    }
+
+    // S3Service before the typed responses
+    private static Map<String, Object> existsMap(String key) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("exists", true);
+        response.put("key", key);
+        return response;
+    }
+
+    private static Map<String, Object> uploadMap(String fileName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "File uploaded successfully");
+        response.put("fileName", fileName);
+        response.put("contentType", "application/pdf");
+        response.put("size", 48_213L);
+        response.put("etag", "\"9b2cf535f27731c974343645a3985328\"");
+        return response;
+    }
+
+    private static Map<String, Object> listMap(List<String> keys) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("files", keys);
+        response.put("count", keys.size());
+        response.put("commonPrefixes", List.of());
+        response.put("truncated", false);
+        return response;
+    }
+
+    private static S3ExistsResponseDTO existsDto(String key) {
+        return new S3ExistsResponseDTO(true, key);
+    }
+
+    private static S3UploadResponseDTO uploadDto(String fileName) {
+        return new S3UploadResponseDTO("File uploaded successfully", fileName, "application/pdf", 48_213L,
+                "\"9b2cf535f27731c974343645a3985328\"");
+    }
+
+    private static S3ListResponseDTO listDto(List<String> keys) {
+        return new S3ListResponseDTO(keys, List.of(), false, null);
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private static final class Variant {
+
+        private final String name;
+        private final BodyWriter body;
+
+        Variant(String name, BodyWriter body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        byte[] sample() throws IOException {
+            ByteArrayOutputStream sample = new ByteArrayOutputStream();
+            body.write(sample);
+            return sample.toByteArray();
+        }
+    }
+}
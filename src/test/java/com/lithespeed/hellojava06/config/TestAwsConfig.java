@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @TestConfiguration
 @Profile("test")
@@ -16,4 +17,10 @@ public class TestAwsConfig {
     public S3AsyncClient s3AsyncClient() {
         return Mockito.mock(S3AsyncClient.class);
     }
+
+    @Bean
+    @Primary
+    public S3Presigner s3Presigner() {
+        return Mockito.mock(S3Presigner.class);
+    }
 }
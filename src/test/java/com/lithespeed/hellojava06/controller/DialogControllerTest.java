@@ -248,4 +248,51 @@ class DialogControllerTest {
 
         verify(dialogService, times(1)).getDialogByIdAndRequest(1, "Hello");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchDialogsReturnsMatches() throws Exception {
+        // Given
+        when(dialogService.searchDialogsByRequest("how", 20)).thenReturn(testDialogs.subList(1, 2));
+
+        // When & Then
+        mockMvc.perform(post("/dialogs/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"request\":\"how\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].request").value("How are you?"))
+                .andExpect(jsonPath("$[0].response").value("I'm doing well!"));
+
+        verify(dialogService, times(1)).searchDialogsByRequest("how", 20);
+    }
+
+    @Test
+    void testSearchDialogsPassesLimit() throws Exception {
+        // Given
+        when(dialogService.searchDialogsByRequest("o", 2)).thenReturn(testDialogs.subList(0, 2));
+
+        // When & Then
+        mockMvc.perform(post("/dialogs/search")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"request\":\"o\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(dialogService, times(1)).searchDialogsByRequest("o", 2);
+    }
+
+    @Test
+    void testSearchDialogsWithBlankRequest() throws Exception {
+        // Given
+        when(dialogService.searchDialogsByRequest(" ", 20))
+                .thenThrow(new IllegalArgumentException("Search fragment is required"));
+
+        // When & Then
+        mockMvc.perform(post("/dialogs/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"request\":\" \"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,38 @@
+package com.lithespeed.hellojava06.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleRejectedExecutionException_ShouldReturnServiceUnavailableWithRetryAfter() {
+        // Act
+        ResponseEntity<Map<String, String>> response = handler.handleRejectedExecutionException(
+                new RejectedExecutionException("S3 callback queue is full (1000 tasks waiting)"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Service is busy, please retry", response.getBody().get("message"));
+    }
+
+    @Test
+    void handleRuntimeException_WithNotFoundMessage_ShouldReturnNotFound() {
+        // Act
+        ResponseEntity<Map<String, String>> response = handler.handleRuntimeException(
+                new RuntimeException("User not found with id: 1"));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -1,10 +1,15 @@
 package com.lithespeed.hellojava06.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
 import com.lithespeed.hellojava06.entity.User;
 
 
 import com.lithespeed.hellojava06.service.S3Service;
+import com.lithespeed.hellojava06.service.UserCountService;
+import com.lithespeed.hellojava06.service.UserExportService;
 import com.lithespeed.hellojava06.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +23,17 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -44,6 +54,12 @@ class MainControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserCountService userCountService;
+
     @MockBean
     private S3Service s3Service;
 
@@ -98,6 +114,31 @@ class MainControllerTest {
         verify(userService, times(1)).getAllUsers();
     }
 
+    @Test
+    void exportUsers_ShouldStreamNdjson() throws Exception {
+        // Given
+        when(userExportService.exportAsNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertEquals(600_000L, result.getRequest().getAsyncContext().getTimeout(),
+                "Export should carry its own async timeout instead of the MVC default");
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(userExportService, times(1)).exportAsNdjson(any(OutputStream.class));
+    }
+
     @Test
     void getAllUsersPaginated_ShouldReturnPagedUsers() throws Exception {
         // Given
@@ -116,6 +157,48 @@ class MainControllerTest {
         verify(userService, times(1)).getAllUsers(any());
     }
 
+    @Test
+    void getUsersByCursor_ShouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        when(userService.getUsersAfter("abc", 2)).thenReturn(new UserKeysetPageDTO(userList, "next", 2));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/keyset")
+                .param("cursor", "abc")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(userService, times(1)).getUsersAfter("abc", 2);
+    }
+
+    @Test
+    void getUsersByCursor_WithoutCursor_ShouldRequestFirstPage() throws Exception {
+        // Given
+        when(userService.getUsersAfter(null, 20)).thenReturn(new UserKeysetPageDTO(userList, null, 20));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/keyset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(userService, times(1)).getUsersAfter(null, 20);
+    }
+
+    @Test
+    void getUsersByCursor_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(userService.getUsersAfter("bogus", 20))
+                .thenThrow(new RuntimeException("Invalid pagination cursor: bogus"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/keyset").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getUserById_WithValidId_ShouldReturnUser() throws Exception {
         // Given
@@ -146,6 +229,36 @@ class MainControllerTest {
         verify(userService, times(1)).getUserById(999L);
     }
 
+    @Test
+    void searchUsersByName_ShouldPassPagingParameters() throws Exception {
+        // Given
+        when(userService.searchUsersByName("doe", 1, 5)).thenReturn(userList);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search")
+                .param("name", "doe")
+                .param("page", "1")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].username").value("johndoe"));
+
+        verify(userService, times(1)).searchUsersByName("doe", 1, 5);
+    }
+
+    @Test
+    void searchUsersByName_WithShortTerm_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(userService.searchUsersByName("jo", 0, 20))
+                .thenThrow(new RuntimeException("Search term must be at least 3 characters"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search")
+                .param("name", "jo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search term must be at least 3 characters"));
+    }
+
     @Test
     void createUser_WithValidUser_ShouldReturnCreatedUser() throws Exception {
         // Given
@@ -195,6 +308,69 @@ class MainControllerTest {
         verify(userService, times(1)).createUser(any(User.class));
     }
 
+    @Test
+    void createUsers_WithValidBatch_ShouldReturnCreatedIds() throws Exception {
+        // Given
+        UserBatchRequestDTO request = new UserBatchRequestDTO(Arrays.asList(
+                new User("newuser1", "new1@example.com", "New", "One"),
+                new User("newuser2", "new2@example.com", "New", "Two")));
+        when(userService.createUsers(anyList())).thenReturn(userList);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.ids[0]").value(1))
+                .andExpect(jsonPath("$.ids[1]").value(2));
+
+        verify(userService, times(1)).createUsers(anyList());
+    }
+
+    @Test
+    void createUsers_WithInvalidUserInBatch_ShouldReturnBadRequest() throws Exception {
+        // Given - second user has an invalid email
+        UserBatchRequestDTO request = new UserBatchRequestDTO(Arrays.asList(
+                new User("newuser1", "new1@example.com", "New", "One"),
+                new User("newuser2", "not-an-email", "New", "Two")));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).createUsers(anyList());
+    }
+
+    @Test
+    void createUsers_WithEmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"users\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).createUsers(anyList());
+    }
+
+    @Test
+    void createUsers_WithExistingUsername_ShouldReturnConflict() throws Exception {
+        // Given
+        UserBatchRequestDTO request = new UserBatchRequestDTO(Arrays.asList(
+                new User("johndoe", "new1@example.com", "New", "One")));
+        when(userService.createUsers(anyList()))
+                .thenThrow(new RuntimeException("Username or email already exists: username johndoe"));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Username or email already exists: username johndoe"));
+    }
+
     @Test
     void updateUser_WithValidData_ShouldReturnUpdatedUser() throws Exception {
         // Given
@@ -229,15 +405,36 @@ class MainControllerTest {
     @Test
     void getUserCount_ShouldReturnCount() throws Exception {
         // Given
-        when(userService.getUserCount()).thenReturn(10L);
+        when(userCountService.getCount()).thenReturn(new UserCountDTO(10L, "cached"));
 
         // When & Then
         mockMvc.perform(get("/api/users/count"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.count").value(10));
+                .andExpect(jsonPath("$.count").value(10))
+                .andExpect(jsonPath("$.mode").value("cached"));
 
-        verify(userService, times(1)).getUserCount();
+        verify(userCountService, times(1)).getCount();
+    }
+
+    @Test
+    void getUserCount_WithMode_ShouldUseRequestedMode() throws Exception {
+        // Given
+        when(userCountService.getCount(UserCountService.Mode.EXACT)).thenReturn(new UserCountDTO(12L, "exact"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/count").param("mode", "exact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(12))
+                .andExpect(jsonPath("$.mode").value("exact"));
+    }
+
+    @Test
+    void getUserCount_WithInvalidMode_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/count").param("mode", "guess"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid count mode: guess"));
     }
 
     @Test
@@ -0,0 +1,193 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.service.ReactiveUserService;
+import com.lithespeed.hellojava06.service.S3Service;
+import com.lithespeed.hellojava06.service.UserCountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveUserController.class, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class
+})
+@ActiveProfiles({ "test", "reactive" })
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveUserService userService;
+
+    @MockBean
+    private S3Service s3Service;
+
+    @MockBean
+    private software.amazon.awssdk.services.s3.S3AsyncClient s3AsyncClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User john;
+    private User jane;
+
+    @BeforeEach
+    void setUp() {
+        john = new User("johndoe", "john@example.com", "John", "Doe");
+        john.setId(1L);
+        jane = new User("janedoe", "jane@example.com", "Jane", "Doe");
+        jane.setId(2L);
+    }
+
+    @Test
+    void getAllUsers_AsNdjson_ShouldStreamOneUserPerLine() throws Exception {
+        // Given
+        when(userService.getAllUsers()).thenReturn(Flux.just(john, jane));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        // Then
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("username").asText()).isEqualTo("johndoe");
+        assertThat(objectMapper.readTree(lines[1]).get("username").asText()).isEqualTo("janedoe");
+    }
+
+    @Test
+    void getAllUsers_AsJson_ShouldReturnArray() throws Exception {
+        // Given
+        when(userService.getAllUsers()).thenReturn(Flux.just(john, jane));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].username").value("janedoe"));
+    }
+
+    @Test
+    void searchUsersByName_ShouldPassPagingThrough() throws Exception {
+        // Given
+        when(userService.searchUsersByName("doe", 1, 5)).thenReturn(Flux.just(jane));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/search")
+                        .param("name", "doe")
+                        .param("page", "1")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void getUserById_WhenMissing_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(userService.getUserById(99L)).thenReturn(Mono.error(new RuntimeException("User not found with id: 99")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createUser_ShouldReturnCreated() throws Exception {
+        // Given
+        when(userService.createUser(any(User.class))).thenReturn(Mono.just(john));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new User("johndoe", "john@example.com", "John", "Doe"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void createUser_WithInvalidBody_ShouldReturnBadRequestWithoutCallingService() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"x\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void deleteUser_ShouldReturnMessage() throws Exception {
+        // Given
+        when(userService.deleteUser(1L)).thenReturn(Mono.empty());
+
+        // When
+        MvcResult result = mockMvc.perform(delete("/api/users/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("User deleted successfully"));
+    }
+
+    @Test
+    void getUserCount_WithMode_ShouldParseIt() throws Exception {
+        // Given
+        when(userService.getCount(UserCountService.Mode.EXACT)).thenReturn(Mono.just(new UserCountDTO(7, "exact")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/count").param("mode", "exact"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(7))
+                .andExpect(jsonPath("$.mode").value("exact"));
+    }
+}
@@ -1,23 +1,51 @@
 package com.lithespeed.hellojava06.controller;
 
+import com.lithespeed.hellojava06.dto.S3BatchDeleteRequestDTO;
+import com.lithespeed.hellojava06.dto.S3BatchDeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3BatchUploadResponseDTO;
+import com.lithespeed.hellojava06.dto.S3DeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ExistsResponseDTO;
+import com.lithespeed.hellojava06.dto.S3FileUploadResultDTO;
+import com.lithespeed.hellojava06.dto.S3KeyDeleteResultDTO;
+import com.lithespeed.hellojava06.dto.S3ListResponseDTO;
+import com.lithespeed.hellojava06.dto.S3RequestErrorDTO;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
+import com.lithespeed.hellojava06.dto.S3UploadResponseDTO;
+import com.lithespeed.hellojava06.service.S3MetadataCache;
 import com.lithespeed.hellojava06.service.S3Service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
-
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,27 +76,24 @@ class S3ControllerTest {
                                 "text/plain",
                                 "test content".getBytes());
 
-                Map<String, Object> serviceResponse = new HashMap<>();
-                serviceResponse.put("success", true);
-                serviceResponse.put("message", "File uploaded successfully");
-                serviceResponse.put("fileName", "test.txt");
-                serviceResponse.put("etag", "uploads/some-uuid/test.txt");
+                S3ResponseDTO serviceResponse = new S3UploadResponseDTO("File uploaded successfully", "test.txt",
+                                "text/plain", 12L, "uploads/some-uuid/test.txt");
 
                 when(s3Service.processFileUpload(any()))
                                 .thenReturn(CompletableFuture.completedFuture(serviceResponse));
 
                 // Act
-                CompletableFuture<ResponseEntity<Map<String, Object>>> result = s3Controller.uploadMultipartFile(file);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.uploadMultipartFile(file);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Map<String, Object>> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.OK, response.getStatusCode());
 
-                Map<String, Object> body = response.getBody();
+                S3UploadResponseDTO body = (S3UploadResponseDTO) response.getBody();
                 assertNotNull(body);
-                assertEquals(true, body.get("success"));
-                assertEquals("File uploaded successfully", body.get("message"));
+                assertTrue(body.isSuccess());
+                assertEquals("File uploaded successfully", body.getMessage());
         }
 
         @Test
@@ -81,16 +106,16 @@ class S3ControllerTest {
                                 "".getBytes()); // Empty file
 
                 // Act
-                CompletableFuture<ResponseEntity<Map<String, Object>>> result = s3Controller.uploadMultipartFile(file);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.uploadMultipartFile(file);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Map<String, Object>> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode()); // Bad Request
 
-                Map<String, Object> body = response.getBody();
+                S3RequestErrorDTO body = (S3RequestErrorDTO) response.getBody();
                 assertNotNull(body);
-                assertEquals("File cannot be empty", body.get("error"));
+                assertEquals("File cannot be empty", body.getError());
         }
 
         @Test
@@ -102,78 +127,107 @@ class S3ControllerTest {
                                 "text/plain",
                                 "test content".getBytes());
 
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("message", "Upload failed");
+                S3ResponseDTO errorResponse = errorResponse("upload file to S3", "Upload failed");
 
                 when(s3Service.processFileUpload(any()))
                                 .thenReturn(CompletableFuture.completedFuture(errorResponse));
 
                 // Act
-                CompletableFuture<ResponseEntity<Map<String, Object>>> result = s3Controller.uploadMultipartFile(file);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.uploadMultipartFile(file);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Map<String, Object>> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode()); // Internal Server Error
 
                 // Just check that we got a response body - error handling details may vary
-                Map<String, Object> body = response.getBody();
+                S3ResponseDTO body = response.getBody();
                 assertNotNull(body);
-                assertEquals(false, body.get("success"));
+                assertFalse(body.isSuccess());
         }
 
         @Test
         void listFiles_Success() throws Exception {
                 // Arrange
                 List<String> files = Arrays.asList("file1.txt", "file2.txt", "file3.jpg");
-                Map<String, Object> serviceResponse = new HashMap<>();
-                serviceResponse.put("success", true);
-                serviceResponse.put("files", files);
-                serviceResponse.put("count", files.size());
+                S3ResponseDTO serviceResponse = new S3ListResponseDTO(files, List.of(), false, null);
 
-                when(s3Service.processFileList())
+                when(s3Service.processFileList(null, null, 1000, null))
                                 .thenReturn(CompletableFuture.completedFuture(serviceResponse));
 
                 // Act
-                CompletableFuture<ResponseEntity<Object>> result = s3Controller.listFiles();
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.listFiles(null, null, 1000, null);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Object> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.OK, response.getStatusCode());
 
                 // Check that we got a successful response
-                Object body = response.getBody();
+                S3ListResponseDTO body = (S3ListResponseDTO) response.getBody();
                 assertNotNull(body);
-                @SuppressWarnings("unchecked")
-                Map<String, Object> responseMap = (Map<String, Object>) body;
-                assertEquals(true, responseMap.get("success"));
+                assertTrue(body.isSuccess());
+                assertEquals(3, body.getCount());
         }
 
         @Test
         void listFiles_ServiceFailure() throws Exception {
                 // Arrange
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("message", "List failed");
+                S3ResponseDTO errorResponse = errorResponse("list files from S3", "List failed");
 
-                when(s3Service.processFileList()).thenReturn(CompletableFuture.completedFuture(errorResponse));
+                when(s3Service.processFileList(null, null, 1000, null)).thenReturn(CompletableFuture.completedFuture(errorResponse));
 
                 // Act
-                CompletableFuture<ResponseEntity<Object>> result = s3Controller.listFiles();
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.listFiles(null, null, 1000, null);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Object> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode()); // Internal Server Error
 
                 // Check that we got an error response
-                Object body = response.getBody();
+                S3ResponseDTO body = response.getBody();
+                assertNotNull(body);
+                assertFalse(body.isSuccess());
+        }
+
+        @Test
+        void listFiles_WithPaginationParameters_ShouldPassThemToService() throws Exception {
+                // Arrange
+                S3ResponseDTO serviceResponse = new S3ListResponseDTO(Arrays.asList("uploads/a.txt"), List.of(), true,
+                                "token-2");
+
+                when(s3Service.processFileList("uploads/", "/", 50, "token-1"))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller.listFiles("uploads/", "/", 50, "token-1").join();
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                S3ListResponseDTO body = (S3ListResponseDTO) response.getBody();
                 assertNotNull(body);
-                @SuppressWarnings("unchecked")
-                Map<String, Object> responseMap = (Map<String, Object>) body;
-                assertEquals(false, responseMap.get("success"));
+                assertEquals("token-2", body.getNextContinuationToken());
+        }
+
+        @Test
+        void streamFiles_ShouldWriteServiceOutput() throws Exception {
+                // Arrange
+                when(s3Service.writeKeysAsNdjson(eq("uploads/"), any())).thenAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(1);
+                        out.write("{\"key\":\"uploads/a.txt\"}\n".getBytes(StandardCharsets.UTF_8));
+                        return 1L;
+                });
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.streamFiles("uploads/");
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                response.getBody().writeTo(out);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+                assertEquals("{\"key\":\"uploads/a.txt\"}\n", out.toString(StandardCharsets.UTF_8));
         }
 
         @Test
@@ -192,73 +246,308 @@ class S3ControllerTest {
         void deleteFile_Success() throws Exception {
                 // Arrange
                 String key = "test-file.txt";
-                when(s3Service.deleteFileAsync(key))
-                                .thenReturn(CompletableFuture.completedFuture(key));
+                when(s3Service.processFileDelete(key)).thenReturn(CompletableFuture.completedFuture(
+                                new S3DeleteResponseDTO("File deleted successfully: " + key, key)));
 
                 // Act
-                CompletableFuture<ResponseEntity<String>> result = s3Controller.deleteFile(key);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.deleteFile(key);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<String> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.OK, response.getStatusCode());
-                assertEquals("File deleted successfully: " + key, response.getBody());
+                S3DeleteResponseDTO body = (S3DeleteResponseDTO) response.getBody();
+                assertEquals(key, body.getKey());
+                assertEquals("File deleted successfully: " + key, body.getMessage());
         }
 
         @Test
         void deleteFile_ServiceFailure() throws Exception {
                 // Arrange
                 String key = "test-file.txt";
-                CompletableFuture<String> failedFuture = new CompletableFuture<>();
-                failedFuture.completeExceptionally(new RuntimeException("Delete failed"));
-
-                when(s3Service.deleteFileAsync(key)).thenReturn(failedFuture);
+                when(s3Service.processFileDelete(key)).thenReturn(CompletableFuture.completedFuture(
+                                errorResponse("delete file from S3", "Delete failed")));
 
                 // Act
-                CompletableFuture<ResponseEntity<String>> result = s3Controller.deleteFile(key);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.deleteFile(key);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<String> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-                assertNotNull(response.getBody());
-                assertTrue(response.getBody().contains("Failed to delete file"));
+                assertInstanceOf(S3ErrorResponseDTO.class, response.getBody());
+        }
+
+        @Test
+        void downloadFile_ShouldStreamObjectBody() throws Exception {
+                // Arrange
+                GetObjectResponse object = GetObjectResponse.builder()
+                                .contentType("text/plain").contentLength(5L).eTag("\"etag\"").build();
+                when(s3Service.downloadAsync("a.txt", null))
+                                .thenReturn(CompletableFuture.completedFuture(responseStream(object, "hello")));
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("a.txt", false, null).join();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                response.getBody().writeTo(out);
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(MediaType.TEXT_PLAIN, response.getHeaders().getContentType());
+                assertEquals(5L, response.getHeaders().getContentLength());
+                assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+                assertEquals("hello", out.toString(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void downloadFile_WithRange_ShouldReturnPartialContent() {
+                // Arrange
+                GetObjectResponse object = GetObjectResponse.builder()
+                                .contentLength(2L).contentRange("bytes 0-1/5").build();
+                when(s3Service.downloadAsync("a.txt", "bytes=0-1"))
+                                .thenReturn(CompletableFuture.completedFuture(responseStream(object, "he")));
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("a.txt", false, "bytes=0-1").join();
+
+                // Assert
+                assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+                assertEquals("bytes 0-1/5", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+                assertEquals(MediaType.APPLICATION_OCTET_STREAM, response.getHeaders().getContentType());
+        }
+
+        @Test
+        void downloadFile_WithMultipleRanges_ShouldReturnWholeObject() {
+                // Arrange
+                GetObjectResponse object = GetObjectResponse.builder().contentLength(5L).build();
+                when(s3Service.downloadAsync("a.txt", null))
+                                .thenReturn(CompletableFuture.completedFuture(responseStream(object, "hello")));
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("a.txt", false, "bytes=0-1,3-4").join();
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        @Test
+        void downloadFile_MissingKey_ShouldReturnNotFound() {
+                // Arrange
+                when(s3Service.downloadAsync("missing.txt", null))
+                                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("missing").build()));
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("missing.txt", false, null).join();
+
+                // Assert
+                assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+
+        @Test
+        void downloadFile_Parallel_ShouldUseRangedWriterWithHeadersFromFirstRange() throws Exception {
+                // Arrange: the cached ETag is stale; the first range reflects the current object
+                when(s3Service.getMetadataAsync("big.bin")).thenReturn(CompletableFuture.completedFuture(
+                                S3MetadataCache.ObjectMetadata.of(3L, "\"stale\"", "application/octet-stream")));
+                ResponseBytes<GetObjectResponse> firstRange = ResponseBytes.fromByteArray(GetObjectResponse.builder()
+                                .eTag("\"etag\"")
+                                .contentType("application/octet-stream")
+                                .contentRange("bytes 0-2/5")
+                                .build(), "abc".getBytes(StandardCharsets.UTF_8));
+                when(s3Service.getFirstRangeAsync("big.bin")).thenReturn(CompletableFuture.completedFuture(firstRange));
+                when(s3Service.writeRangesInParallel(eq("big.bin"), eq(firstRange), any())).thenReturn(5L);
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("big.bin", true, null).join();
+                response.getBody().writeTo(new ByteArrayOutputStream());
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(5L, response.getHeaders().getContentLength());
+                assertEquals("\"etag\"", response.getHeaders().getETag());
+                verify(s3Service).writeRangesInParallel(eq("big.bin"), eq(firstRange), any());
+        }
+
+        @Test
+        void downloadFile_ParallelMissingKey_ShouldReturnNotFound() {
+                // Arrange
+                when(s3Service.getMetadataAsync("missing.txt"))
+                                .thenReturn(CompletableFuture.completedFuture(S3MetadataCache.ObjectMetadata.missing()));
+
+                // Act
+                ResponseEntity<StreamingResponseBody> response = s3Controller.downloadFile("missing.txt", true, null).join();
+
+                // Assert
+                assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+
+        private static ResponseInputStream<GetObjectResponse> responseStream(GetObjectResponse object, String content) {
+                return new ResponseInputStream<>(object, AbortableInputStream.create(
+                                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))));
+        }
+
+        @Test
+        void deleteFiles_WithKeys_AllDeleted_ShouldReturnOk() {
+                // Arrange
+                List<String> keys = Arrays.asList("a.txt", "b.txt");
+                S3ResponseDTO serviceResponse = new S3BatchDeleteResponseDTO(2L,
+                                List.of(S3KeyDeleteResultDTO.deleted("a.txt"), S3KeyDeleteResultDTO.deleted("b.txt")));
+
+                when(s3Service.processFileBatchDelete(keys, null))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller
+                                .deleteFiles(new S3BatchDeleteRequestDTO(keys, null)).join();
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(2L, ((S3BatchDeleteResponseDTO) response.getBody()).getDeleted());
+        }
+
+        @Test
+        void deleteFiles_PartialFailure_ShouldReturnMultiStatus() {
+                // Arrange
+                S3ResponseDTO serviceResponse = new S3BatchDeleteResponseDTO(1L,
+                                List.of(S3KeyDeleteResultDTO.deleted("tmp/a.txt"),
+                                                S3KeyDeleteResultDTO.failed("tmp/b.txt", "AccessDenied: Access Denied")));
+
+                when(s3Service.processFileBatchDelete(null, "tmp/"))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller
+                                .deleteFiles(new S3BatchDeleteRequestDTO(null, "tmp/")).join();
+
+                // Assert
+                assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        }
+
+        @Test
+        void deleteFiles_WithPrefixUnderPacks_ShouldReturnBadRequest() {
+                // Arrange
+                when(s3Service.isPackStorageKey("packs/")).thenReturn(true);
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller
+                                .deleteFiles(new S3BatchDeleteRequestDTO(null, "packs/")).join();
+
+                // Assert
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                verify(s3Service, never()).processFileBatchDelete(any(), any());
+        }
+
+        @Test
+        void deleteFiles_WithBothKeysAndPrefix_ShouldReturnBadRequest() {
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller
+                                .deleteFiles(new S3BatchDeleteRequestDTO(List.of("a.txt"), "tmp/")).join();
+
+                // Assert
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                assertEquals("Provide either keys or a non-empty prefix",
+                                ((S3RequestErrorDTO) response.getBody()).getError());
+        }
+
+        @Test
+        void deleteFiles_WithBlankPrefix_ShouldReturnBadRequest() {
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller
+                                .deleteFiles(new S3BatchDeleteRequestDTO(null, " ")).join();
+
+                // Assert
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        }
+
+        @Test
+        void uploadMultipartFiles_AllUploaded_ShouldReturnOk() {
+                // Arrange
+                List<MultipartFile> files = Arrays.asList(
+                                new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes()),
+                                new MockMultipartFile("files", "b.txt", "text/plain", "b".getBytes()));
+                S3ResponseDTO serviceResponse = new S3BatchUploadResponseDTO(2L,
+                                List.of(S3FileUploadResultDTO.uploaded("a.txt", 1L, "uploads/x/a.txt"),
+                                                S3FileUploadResultDTO.uploaded("b.txt", 1L, "uploads/y/b.txt")));
+
+                when(s3Service.processFileBatchUpload(files))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller.uploadMultipartFiles(files).join();
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(2L, ((S3BatchUploadResponseDTO) response.getBody()).getUploaded());
+        }
+
+        @Test
+        void uploadMultipartFiles_PartialFailure_ShouldReturnMultiStatus() {
+                // Arrange
+                List<MultipartFile> files = List.of(new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes()));
+                S3ResponseDTO serviceResponse = new S3BatchUploadResponseDTO(0L,
+                                List.of(S3FileUploadResultDTO.failed("a.txt", 1L, "Slow down")));
+
+                when(s3Service.processFileBatchUpload(files))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller.uploadMultipartFiles(files).join();
+
+                // Assert
+                assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        }
+
+        @Test
+        void uploadMultipartFiles_WithoutFiles_ShouldReturnBadRequest() {
+                // Act
+                ResponseEntity<S3ResponseDTO> response = s3Controller.uploadMultipartFiles(List.of()).join();
+
+                // Assert
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                assertEquals("Provide between 1 and " + S3Service.MAX_UPLOAD_FILES + " files",
+                                ((S3RequestErrorDTO) response.getBody()).getError());
         }
 
         @Test
         void fileExists_FileExists() throws Exception {
                 // Arrange
                 String key = "existing-file.txt";
-                when(s3Service.fileExistsAsync(key))
-                                .thenReturn(CompletableFuture.completedFuture(true));
+                when(s3Service.processFileExists(key))
+                                .thenReturn(CompletableFuture.completedFuture(new S3ExistsResponseDTO(true, key)));
 
                 // Act
-                CompletableFuture<ResponseEntity<Boolean>> result = s3Controller.fileExists(key);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.fileExists(key);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Boolean> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.OK, response.getStatusCode());
-                assertNotNull(response.getBody());
-                assertEquals(Boolean.TRUE, response.getBody());
+                S3ExistsResponseDTO body = (S3ExistsResponseDTO) response.getBody();
+                assertEquals(true, body.isExists());
+                assertEquals(key, body.getKey());
         }
 
         @Test
         void fileExists_FileDoesNotExist() throws Exception {
                 // Arrange
                 String key = "nonexistent-file.txt";
-                when(s3Service.fileExistsAsync(key))
-                                .thenReturn(CompletableFuture.completedFuture(false));
+                when(s3Service.processFileExists(key))
+                                .thenReturn(CompletableFuture.completedFuture(new S3ExistsResponseDTO(false, key)));
 
                 // Act
-                CompletableFuture<ResponseEntity<Boolean>> result = s3Controller.fileExists(key);
+                CompletableFuture<ResponseEntity<S3ResponseDTO>> result = s3Controller.fileExists(key);
 
                 // Assert
                 assertNotNull(result);
-                ResponseEntity<Boolean> response = result.join();
+                ResponseEntity<S3ResponseDTO> response = result.join();
                 assertEquals(HttpStatus.OK, response.getStatusCode());
-                assertNotNull(response.getBody());
-                assertEquals(Boolean.FALSE, response.getBody());
+                S3ExistsResponseDTO body = (S3ExistsResponseDTO) response.getBody();
+                assertEquals(false, body.isExists());
+                assertEquals(key, body.getKey());
+        }
+
+        private static S3ErrorResponseDTO errorResponse(String operation, String message) {
+                return new S3ErrorResponseDTO("INTERNAL", false, operation, message, "RuntimeException", null,
+                                "2024-01-01T00:00:00", null, null, null);
         }
 
-}
\ No newline at end of file
+}
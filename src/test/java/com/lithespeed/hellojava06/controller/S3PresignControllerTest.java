@@ -0,0 +1,94 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.lithespeed.hellojava06.dto.S3MultipartCompleteRequestDTO;
+import com.lithespeed.hellojava06.service.S3PresignService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3PresignControllerTest {
+
+        @Mock
+        private S3PresignService s3PresignService;
+
+        private S3PresignController s3PresignController;
+
+        @BeforeEach
+        void setUp() {
+                s3PresignController = new S3PresignController(s3PresignService);
+        }
+
+        @Test
+        void presignUpload_ShouldReturnServiceResponse() {
+                // Arrange
+                Map<String, Object> serviceResponse = new HashMap<>();
+                serviceResponse.put("key", "uploads/id/file.txt");
+                serviceResponse.put("url", "https://test-bucket.s3.amazonaws.com/uploads/id/file.txt?X-Amz-Signature=abc");
+                when(s3PresignService.presignUpload("file.txt", "text/plain")).thenReturn(serviceResponse);
+
+                // Act
+                ResponseEntity<Map<String, Object>> response = s3PresignController.presignUpload("file.txt", "text/plain");
+
+                // Assert
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals("uploads/id/file.txt", response.getBody().get("key"));
+        }
+
+        @Test
+        void presignMultipartUpload_WithInvalidPartCount_ShouldReturnBadRequest() {
+                // Act
+                ResponseEntity<Map<String, Object>> response = s3PresignController
+                                .presignMultipartUpload("big.bin", "application/octet-stream", 0).join();
+
+                // Assert
+                assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+                verifyNoInteractions(s3PresignService);
+        }
+
+        @Test
+        void completeMultipartUpload_WhenS3Fails_ShouldReturnServerError() {
+                // Arrange
+                when(s3PresignService.completeMultipartUpload(any()))
+                                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("NoSuchUpload")));
+
+                // Act
+                ResponseEntity<Map<String, Object>> response = s3PresignController.completeMultipartUpload(
+                                new S3MultipartCompleteRequestDTO("k", "u", List.of(new S3MultipartCompleteRequestDTO.Part(1, "e"))))
+                                .join();
+
+                // Assert
+                assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+                assertEquals("NoSuchUpload", response.getBody().get("message"));
+        }
+
+        @Test
+        void completeUpload_WhenObjectMissing_ShouldReturnNotFound() {
+                // Arrange
+                Map<String, Object> serviceResponse = new HashMap<>();
+                serviceResponse.put("key", "uploads/id/file.txt");
+                serviceResponse.put("exists", false);
+                when(s3PresignService.completeUpload("uploads/id/file.txt"))
+                                .thenReturn(CompletableFuture.completedFuture(serviceResponse));
+
+                // Act
+                ResponseEntity<Map<String, Object>> response = s3PresignController.completeUpload("uploads/id/file.txt").join();
+
+                // Assert
+                assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        }
+}
@@ -0,0 +1,140 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.lithespeed.hellojava06.config.TestAwsConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the JPA user API ({@link JpaTest}) with the R2DBC one from the {@code reactive} profile
+ * ({@link ReactiveTest}) over HTTP on the embedded database: point lookups and ranked search under concurrent
+ * clients, plus full listings as a JSON array and as an NDJSON stream. The user cache is off so every JPA lookup
+ * reaches the database too. Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.autoconfigure.exclude=io.awspring.cloud.autoconfigure.core.AwsAutoConfiguration,io.awspring.cloud.autoconfigure.s3.S3AutoConfiguration",
+                "users.cache.maximum-size=0",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.lithespeed=WARN"
+        })
+@Import(TestAwsConfig.class)
+abstract class UserApiReactiveBenchmarkTest {
+
+    private static final int USERS = 5000;
+    private static final int CLIENTS = 32;
+    private static final int LOOKUPS = 20_000;
+    private static final int LISTINGS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @ActiveProfiles("test")
+    static class JpaTest extends UserApiReactiveBenchmarkTest {
+    }
+
+    @ActiveProfiles({ "test", "reactive" })
+    static class ReactiveTest extends UserApiReactiveBenchmarkTest {
+    }
+
+    @Test
+    void compareUserEndpoints() throws Exception {
+        seedUsers();
+
+        measure("GET /api/users/username/{username}", CLIENTS, LOOKUPS,
+                i -> "/api/users/username/bench" + (i % USERS), "application/json");
+        measure("GET /api/users/search?name=...", CLIENTS, LOOKUPS,
+                i -> "/api/users/search?name=bench" + (i % 500), "application/json");
+        measure("GET /api/users (JSON array)", 4, LISTINGS, i -> "/api/users", "application/json");
+        measure("GET /api/users/export (NDJSON)", 4, LISTINGS, i -> "/api/users/export", "application/x-ndjson");
+    }
+
+    private void seedUsers() throws Exception {
+        StringBuilder body = new StringBuilder("{\"users\":[");
+        for (int i = 0; i < USERS; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"username\":\"bench").append(i)
+                    .append("\",\"email\":\"bench").append(i).append("@example.com\"")
+                    .append(",\"firstName\":\"Bench").append(i)
+                    .append("\",\"lastName\":\"User").append(i % 100).append("\"}");
+        }
+        body.append("]}");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/users/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(201);
+    }
+
+    private void measure(String label, int clients, int requests, IntFunction<String> path, String accept)
+            throws Exception {
+        // The warm-up pass lets the JIT and both connection pools settle before timing
+        run(clients, requests / 4, path, accept);
+        long start = System.nanoTime();
+        long[] latencies = run(clients, requests, path, accept);
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-10s %-36s %,9.0f req/s  p50 %6.2f ms  p99 %6.2f ms%n",
+                getClass().getSimpleName().replace("Test", ""), label, requests / (elapsedNanos / 1e9),
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6);
+    }
+
+    private long[] run(int clients, int requests, IntFunction<String> path, String accept) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                futures.add(pool.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(uri(path.apply(i))).header("Accept", accept).GET().build();
+                        long start = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        latencies[i] = System.nanoTime() - start;
+                        assertThat(response.statusCode()).isEqualTo(200);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return latencies;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
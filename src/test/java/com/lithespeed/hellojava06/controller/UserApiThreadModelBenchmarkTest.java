@@ -0,0 +1,179 @@
+package com.lithespeed.hellojava06.controller;
+
+import com.lithespeed.hellojava06.config.TestAwsConfig;
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of {@code GET /api/users/{id}} with Tomcat on platform threads ({@link PlatformThreadsTest}) versus
+ * the {@code virtual-threads} profile ({@link VirtualThreadsTest}). Each request is held for
+ * {@link #DOWNSTREAM_LATENCY_MS} by an interceptor standing in for a remote database round trip, and the user cache
+ * is off so every request goes through JPA; with more clients than Tomcat threads, the thread model rather than the
+ * embedded database decides throughput.
+ * Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}, which also sets
+ * {@code jdk.tracePinnedThreads} to report carrier pinning. The virtual-thread run needs Java 21
+ * ({@code -PjavaVersion=21}) and is skipped on older runtimes.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.autoconfigure.exclude=io.awspring.cloud.autoconfigure.core.AwsAutoConfiguration,io.awspring.cloud.autoconfigure.s3.S3AutoConfiguration",
+                "server.tomcat.threads.max=200",
+                "users.cache.maximum-size=0",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.lithespeed=WARN"
+        })
+@Import({ TestAwsConfig.class, UserApiThreadModelBenchmarkTest.DownstreamLatencyConfig.class })
+abstract class UserApiThreadModelBenchmarkTest {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final long DOWNSTREAM_LATENCY_MS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @ActiveProfiles("test")
+    static class PlatformThreadsTest extends UserApiThreadModelBenchmarkTest {
+    }
+
+    @ActiveProfiles({ "test", "virtual-threads" })
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    static class VirtualThreadsTest extends UserApiThreadModelBenchmarkTest {
+    }
+
+    @Test
+    void getUserByIdUnderLoad() throws Exception {
+        User user = userRepository.findByUsername("loadtest")
+                .orElseGet(() -> userRepository.save(new User("loadtest", "loadtest@example.com", "Load", "Test")));
+        URI uri = URI.create("http://localhost:" + port + "/api/users/" + user.getId());
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            // Warm up connections, JIT and the connection pool before measuring
+            drive(client, clients, uri, CLIENTS, 5);
+            long start = System.nanoTime();
+            LoadResult result = drive(client, clients, uri, CLIENTS, REQUESTS_PER_CLIENT);
+            long elapsedNanos = System.nanoTime() - start;
+
+            System.out.printf("%s, %d clients x %d requests, %d ms downstream latency: "
+                            + "%,.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors%n",
+                    getClass().getSimpleName(), CLIENTS, REQUESTS_PER_CLIENT, DOWNSTREAM_LATENCY_MS,
+                    result.requests / (elapsedNanos / 1e9), result.percentileMillis(50),
+                    result.percentileMillis(99), result.percentileMillis(100), result.errors);
+
+            assertThat(result.errors).isZero();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static LoadResult drive(HttpClient client, ExecutorService clients, URI uri, int clientCount,
+                                    int requestsPerClient) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        List<Future<long[]>> futures = new ArrayList<>(clientCount);
+        for (int c = 0; c < clientCount; c++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    // A failed request is recorded as a negative latency
+                    latencies[i] = response.statusCode() == 200 ? System.nanoTime() - start : -1;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[clientCount * requestsPerClient];
+        int errors = 0;
+        int index = 0;
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get(5, TimeUnit.MINUTES)) {
+                if (latency < 0) {
+                    errors++;
+                } else {
+                    all[index++] = latency;
+                }
+            }
+        }
+        long[] latencies = Arrays.copyOf(all, index);
+        Arrays.sort(latencies);
+        return new LoadResult(all.length, errors, latencies);
+    }
+
+    private static final class LoadResult {
+
+        private final int requests;
+        private final int errors;
+        private final long[] sortedLatencies;
+
+        private LoadResult(int requests, int errors, long[] sortedLatencies) {
+            this.requests = requests;
+            this.errors = errors;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        private double percentileMillis(int percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * Holds each user lookup for the simulated downstream latency. {@link Thread#sleep} parks a platform thread
+     * but unmounts a virtual one, just like a blocking socket read.
+     */
+    @TestConfiguration
+    static class DownstreamLatencyConfig implements WebMvcConfigurer {
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                        throws Exception {
+                    Thread.sleep(DOWNSTREAM_LATENCY_MS);
+                    return true;
+                }
+            }).addPathPatterns("/api/users/*");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lithespeed.hellojava06.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DialogCatalogReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadParsesLinesAndSkipsCommentsAndBlanks() throws IOException {
+        // Given
+        Path catalog = write("# id\trequest\tresponse\n"
+                + "1\tHello\tHi there\r\n"
+                + "\n"
+                + "-2\tCaf\u00e9?\tOui, caf\u00e9\n"
+                + "3\tNo trailing newline\tDone");
+
+        // When
+        MappedDialogCatalog dialogs = new DialogCatalogReader().read(catalog);
+
+        // Then
+        assertEquals(3, dialogs.size(), "Should read every non-comment line");
+        assertEquals(1, dialogs.id(0), "Should parse the id");
+        assertEquals("Hi there", dialogs.dialog(0).getResponse(), "Should strip the carriage return");
+        assertEquals(-2, dialogs.id(1), "Should parse negative ids");
+        assertEquals("Caf\u00e9?", dialogs.dialog(1).getRequest(), "Should decode UTF-8 text");
+        assertEquals("caf\u00e9?", dialogs.normalizedRequest(1), "Should lowercase decoded text");
+        assertEquals("Done", dialogs.dialog(2).getResponse(), "Should read a final line without newline");
+    }
+
+    @Test
+    void testReadHandlesLinesSpanningSegments() throws IOException {
+        // Given
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append(i).append("\tRequest number ").append(i).append("\tResponse ").append(i).append('\n');
+        }
+        Path catalog = write(content.toString());
+
+        // When - segments far smaller than the file force remapping mid-line
+        MappedDialogCatalog dialogs = new DialogCatalogReader(64).read(catalog);
+
+        // Then
+        assertEquals(200, dialogs.size(), "Should read every line across segment boundaries");
+        assertEquals("Request number 137", dialogs.dialog(137).getRequest(), "Lines should survive remapping");
+        assertEquals(199, dialogs.id(199), "Ids should survive remapping");
+    }
+
+    @Test
+    void testRequestContainsMatchesBytesAndDecodedText() throws IOException {
+        // Given
+        MappedDialogCatalog dialogs = new DialogCatalogReader().read(write("1\tHow Are You?\tFine\n"
+                + "2\t\u00c9T\u00c9 Plans\tSoon\n"));
+
+        // Then
+        assertTrue(dialogs.requestContains(0, "ARE you"), "ASCII text should match ignoring case");
+        assertTrue(dialogs.requestContains(0, ""), "Empty query should always match");
+        assertFalse(dialogs.requestContains(0, "you?!"), "Should not match past the request field");
+        assertFalse(dialogs.requestContains(0, "fine"), "Should not match the response");
+        assertTrue(dialogs.requestContains(1, "\u00e9t\u00e9 pl"), "Non-ASCII text should match ignoring case");
+        assertTrue(dialogs.requestContains(1, "PLANS"), "ASCII query should match non-ASCII text");
+    }
+
+    @Test
+    void testReadRejectsMalformedLines() throws IOException {
+        // Given
+        Path missingField = write("1\tOnly request\n");
+        Path badId = write("x1\tRequest\tResponse\n");
+        Path longLine = write("1\t" + "a".repeat(100) + "\tResponse\n2\tb\tc\n");
+
+        // Then
+        assertThrows(IOException.class, () -> new DialogCatalogReader().read(missingField));
+        assertThrows(IOException.class, () -> new DialogCatalogReader().read(badId));
+        assertThrows(IOException.class, () -> new DialogCatalogReader(32).read(longLine),
+                "A line longer than a segment cannot be mapped");
+    }
+
+    @Test
+    void testReadEmptyFile() throws IOException {
+        assertEquals(0, new DialogCatalogReader().read(write("")).size(), "Empty catalog should yield no dialogs");
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "dialogs", ".tsv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,94 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.Dialog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DialogIndexTest {
+
+    @Test
+    void testFindLocatesEveryIdInLargeIndex() {
+        // Given - enough ids to force probing across colliding slots
+        List<Dialog> dialogs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            dialogs.add(new Dialog(i * 16, "Request " + i, "Response " + i));
+        }
+        DialogIndex index = new DialogIndex(dialogs);
+
+        // Then
+        assertEquals(5000, index.size(), "Index should contain every dialog");
+        for (int i = 0; i < 5000; i++) {
+            Dialog found = index.find(i * 16, null);
+            assertNotNull(found, "Should find dialog with ID " + (i * 16));
+            assertEquals("Response " + i, found.getResponse(), "Should resolve to the matching dialog");
+        }
+        assertNull(index.find(17, null), "Should not find an ID that was never indexed");
+    }
+
+    @Test
+    void testFindKeepsFirstDialogForDuplicateId() {
+        // Given
+        DialogIndex index = new DialogIndex(Arrays.asList(
+                new Dialog(1, "First", "First response"),
+                new Dialog(1, "Second", "Second response")));
+
+        // When
+        Dialog found = index.find(1, null);
+
+        // Then
+        assertEquals("First response", found.getResponse(), "First loaded dialog should win for a duplicate ID");
+    }
+
+    @Test
+    void testFindHandlesEmptyIndexAndNegativeIds() {
+        // Given
+        DialogIndex empty = new DialogIndex(Collections.emptyList());
+        DialogIndex negative = new DialogIndex(Collections.singletonList(new Dialog(-5, "Negative", "Yes")));
+
+        // Then
+        assertNull(empty.find(1, null), "Empty index should never match");
+        assertTrue(empty.all().isEmpty(), "Empty index should expose an empty snapshot");
+        assertNotNull(negative.find(-5, "neg"), "Negative IDs should be indexed like any other");
+    }
+
+    @Test
+    void testContainsIgnoreCase() {
+        assertTrue(DialogIndex.containsIgnoreCase("how are you?", "ARE"), "Should match ignoring query case");
+        assertTrue(DialogIndex.containsIgnoreCase("hello", ""), "Empty query should always match");
+        assertFalse(DialogIndex.containsIgnoreCase("hello", "world"), "Should not match absent text");
+        assertFalse(DialogIndex.containsIgnoreCase(null, "hello"), "Null text should never match");
+    }
+
+    @Test
+    void testSearchVerifiesTrigramOrder() {
+        // Given - both requests contain the trigrams "abc" and "bcd", only one contains "abcd"
+        DialogIndex index = new DialogIndex(Arrays.asList(
+                new Dialog(1, "bcd abc", "Out of order"),
+                new Dialog(2, "xabcdx", "In order")));
+
+        // When
+        List<Dialog> result = index.search("ABCD", 10);
+
+        // Then
+        assertEquals(1, result.size(), "Should only return requests containing the whole fragment");
+        assertEquals(2, result.get(0).getId(), "Should return the in-order match");
+    }
+
+    @Test
+    void testSearchWithMissingTrigramAndNullRequest() {
+        // Given
+        DialogIndex index = new DialogIndex(Arrays.asList(
+                new Dialog(1, null, "No request"),
+                new Dialog(2, "Hello", "Hello")));
+
+        // Then
+        assertTrue(index.search("xyz", 10).isEmpty(), "Unknown trigram should short-circuit to no results");
+        assertEquals(1, index.search("he", 10).size(), "Short fragments should skip null requests");
+    }
+}
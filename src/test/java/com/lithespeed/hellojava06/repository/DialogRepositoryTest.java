@@ -3,7 +3,15 @@ package com.lithespeed.hellojava06.repository;
 import com.lithespeed.hellojava06.entity.Dialog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,14 +52,17 @@ class DialogRepositoryTest {
     }
 
     @Test
-    void testFindAllReturnsNewListInstance() {
+    void testFindAllReturnsImmutableSnapshot() {
         // When
         List<Dialog> dialogs1 = dialogRepository.findAll();
         List<Dialog> dialogs2 = dialogRepository.findAll();
 
         // Then
-        assertNotSame(dialogs1, dialogs2, "Should return new list instances to prevent external modification");
-        assertEquals(dialogs1.size(), dialogs2.size(), "Both lists should have same size");
+        assertSame(dialogs1, dialogs2, "Should share the same snapshot instead of copying on every call");
+        assertThrows(UnsupportedOperationException.class, () -> dialogs1.add(new Dialog(8, "New", "New")),
+                "Snapshot should reject external modification");
+        assertThrows(UnsupportedOperationException.class, () -> dialogs1.remove(0),
+                "Snapshot should reject external removal");
     }
 
     @Test
@@ -151,6 +162,25 @@ class DialogRepositoryTest {
         assertEquals(5, result2.get().getId(), "Second result should have ID 5");
     }
 
+    @Test
+    void testFindByIdAndRequestWithMixedCaseQuery() {
+        // When
+        Optional<Dialog> result = dialogRepository.findByIdAndRequest(3, "YOUR Name");
+
+        // Then
+        assertTrue(result.isPresent(), "Should match request text regardless of query casing");
+        assertEquals(3, result.get().getId(), "Found dialog should have ID 3");
+    }
+
+    @Test
+    void testFindByIdAndRequestWithQueryLongerThanRequest() {
+        // When
+        Optional<Dialog> result = dialogRepository.findByIdAndRequest(1, "Hello there, friend");
+
+        // Then
+        assertFalse(result.isPresent(), "Should not match when query is longer than the request text");
+    }
+
     @Test
     void testRepositoryContainsExpectedDialogs() {
         // When
@@ -167,4 +197,84 @@ class DialogRepositoryTest {
         assertTrue(dialogs.stream().anyMatch(d -> d.getId() == 7 && "Thank you".equals(d.getRequest())),
                 "Should contain Thank you dialog");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchByRequestFindsAllMatchingDialogs() {
+        // When - "how" appears in dialogs 2 and 5
+        List<Dialog> result = dialogRepository.searchByRequest("HOW", 10);
+
+        // Then
+        assertEquals(2, result.size(), "Should find both dialogs containing 'how'");
+        assertEquals(2, result.get(0).getId(), "Results should follow load order");
+        assertEquals(5, result.get(1).getId(), "Results should follow load order");
+    }
+
+    @Test
+    void testSearchByRequestWithShortFragmentAndLimit() {
+        // When - single characters bypass the trigram index
+        List<Dialog> result = dialogRepository.searchByRequest("o", 3);
+
+        // Then
+        assertEquals(3, result.size(), "Should stop at the requested limit");
+    }
+
+    @Test
+    void testSearchByRequestWithNoMatch() {
+        // When
+        List<Dialog> result = dialogRepository.searchByRequest("weather", 10);
+
+        // Then
+        assertTrue(result.isEmpty(), "Should return no dialogs for an unknown fragment");
+    }
+
+    @Test
+    void testCatalogFileIsLoadedAndHotReloaded(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path catalog = tempDir.resolve("dialogs.tsv");
+        Files.write(catalog, "1\tPing\tPong\n".getBytes(StandardCharsets.UTF_8));
+        DialogRepository repository = new DialogRepository(catalog.toString());
+        List<Dialog> before = repository.findAll();
+
+        // When
+        replace(catalog, "1\tPing\tPong again\n2\tMarco\tPolo\n");
+        repository.reloadCatalog();
+
+        // Then
+        assertEquals(1, before.size(), "Snapshot taken before the reload should be unchanged");
+        assertEquals("Pong", before.get(0).getResponse(), "Snapshot should keep reading the replaced file");
+        assertEquals(2, repository.findAll().size(), "Reload should publish the new catalog");
+        assertEquals("Pong again", repository.findByIdAndRequest(1, "ping").get().getResponse(),
+                "Lookups should use the reloaded catalog");
+    }
+
+    @Test
+    void testFailedReloadKeepsPreviousCatalog(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path catalog = tempDir.resolve("dialogs.tsv");
+        Files.write(catalog, "1\tPing\tPong\n".getBytes(StandardCharsets.UTF_8));
+        DialogRepository repository = new DialogRepository(catalog.toString());
+
+        // When
+        replace(catalog, "broken line\n");
+        repository.reloadCatalog();
+
+        // Then
+        assertEquals(1, repository.findAll().size(), "Previous catalog should stay in service");
+        assertEquals("Pong", repository.findByIdAndRequest(1, null).get().getResponse(),
+                "Previous dialogs should still resolve");
+    }
+
+    @Test
+    void testMissingCatalogFailsAtStartup(@TempDir Path tempDir) {
+        assertThrows(UncheckedIOException.class,
+                () -> new DialogRepository(tempDir.resolve("missing.tsv").toString()));
+    }
+
+    // Publishes a new version the way the catalog has to be updated: a separate file renamed over the old one
+    private static void replace(Path catalog, String content) throws IOException {
+        Path next = catalog.resolveSibling(catalog.getFileName() + ".next");
+        Files.write(next, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(next, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        Files.move(next, catalog, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.Dialog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures trigram search latency over one million generated dialogs.
+ * Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+class DialogSearchBenchmarkTest {
+
+    private static final int DIALOG_COUNT = 1_000_000;
+    private static final int WARMUP_QUERIES = 20_000;
+    private static final int MEASURED_QUERIES = 20_000;
+
+    private static final String[] WORDS = {
+            "order", "invoice", "shipping", "refund", "account", "password", "delivery", "warranty",
+            "payment", "address", "upgrade", "cancel", "subscription", "receipt", "tracking", "return"
+    };
+
+    @Test
+    void benchmarkSearchAtOneMillionDialogs() {
+        Random random = new Random(42);
+        List<Dialog> dialogs = new ArrayList<>(DIALOG_COUNT);
+        for (int i = 0; i < DIALOG_COUNT; i++) {
+            String request = "How do I " + WORDS[random.nextInt(WORDS.length)] + " my "
+                    + WORDS[random.nextInt(WORDS.length)] + " ref " + Integer.toString(i, 36);
+            dialogs.add(new Dialog(i, request, "Response " + i));
+        }
+
+        long buildStart = System.nanoTime();
+        DialogIndex index = new DialogIndex(dialogs);
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(queryFor(random), 20);
+        }
+
+        long[] samples = new long[MEASURED_QUERIES];
+        int found = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String query = queryFor(random);
+            long start = System.nanoTime();
+            found += index.search(query, 20).size();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        long median = samples[MEASURED_QUERIES / 2];
+        long p99 = samples[(int) (MEASURED_QUERIES * 0.99)];
+        System.out.printf("DialogIndex: %,d dialogs, %,d trigrams, built in %d ms%n",
+                DIALOG_COUNT, index.trigramCount(), buildMillis);
+        System.out.printf("search: median %.3f ms, p99 %.3f ms, %,d results%n",
+                median / 1e6, p99 / 1e6, found);
+
+        assertTrue(found > 0, "Benchmark queries should produce matches");
+        assertTrue(median < 1_000_000, "Median search latency should stay under one millisecond");
+    }
+
+    // Queries target the unique reference suffix, so each selects a handful of dialogs out of the million
+    private static String queryFor(Random random) {
+        return "ref " + Integer.toString(random.nextInt(DIALOG_COUNT), 36);
+    }
+}
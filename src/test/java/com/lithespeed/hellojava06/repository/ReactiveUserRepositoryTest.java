@@ -0,0 +1,192 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.User;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveUserRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ReactiveUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // JDBC creates the schema; R2DBC opens the same named in-memory database
+        String name = "reactive_" + UUID.randomUUID().toString().replace("-", "");
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .addScript("db/migration/V1__Create_users_table.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE SEQUENCE users_seq START WITH 50 INCREMENT BY "
+                + ReactiveUserRepository.ID_ALLOCATION_SIZE);
+
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder
+                .withUrl("r2dbc:h2:mem:///" + name + "?options=DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        repository = new ReactiveUserRepository(DatabaseClient.create(connectionFactory), connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void insertAll_ShouldTakeIdsFromOneSequenceBlock() {
+        // When
+        List<User> created = repository.insertAll(users("new", 3)).collectList().block();
+
+        // Then
+        assertThat(created).extracting(User::getId).containsExactly(1L, 2L, 3L);
+        assertThat(created).allSatisfy(user -> assertThat(user.getCreatedAt()).isNotNull());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isEqualTo(3L);
+        // Only one sequence value was consumed for the three ids
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class)).isEqualTo(100L);
+    }
+
+    @Test
+    void insert_ShouldContinueInTheReservedBlock() {
+        // Given
+        repository.insert(new User("first", "first@example.com", "First", "User")).block();
+
+        // When
+        User second = repository.insert(new User("second", "second@example.com", "Second", "User")).block();
+
+        // Then
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(repository.findById(2L).block().getUsername()).isEqualTo("second");
+    }
+
+    @Test
+    void findAll_ShouldStreamUsersOrderedByIdAndStopWhenCancelled() {
+        // Given
+        repository.insertAll(users("stream", 10)).blockLast();
+
+        // When
+        List<User> firstThree = repository.findAll().take(3).collectList().block();
+
+        // Then
+        assertThat(firstThree).extracting(User::getUsername).containsExactly("stream0", "stream1", "stream2");
+        assertThat(repository.findAll().count().block()).isEqualTo(10L);
+    }
+
+    @Test
+    void findPage_ShouldApplySortAndOffset() {
+        // Given
+        repository.insertAll(List.of(
+                new User("u1", "u1@example.com", "Ann", "Carter"),
+                new User("u2", "u2@example.com", "Bob", "Adams"),
+                new User("u3", "u3@example.com", "Cid", "Brown"))).blockLast();
+
+        // When
+        List<User> page = repository.findPage(1, 2, Sort.by("lastName")).collectList().block();
+
+        // Then
+        assertThat(page).extracting(User::getLastName).containsExactly("Brown", "Carter");
+    }
+
+    @Test
+    void orderBy_ShouldMapPropertiesAndRejectUnknownOnes() {
+        // Act & Assert
+        assertThat(ReactiveUserRepository.orderBy(Sort.unsorted())).isEqualTo("id");
+        assertThat(ReactiveUserRepository.orderBy(Sort.by(Sort.Direction.DESC, "firstName")))
+                .isEqualTo("first_name DESC, id");
+        assertThatThrownBy(() -> ReactiveUserRepository.orderBy(Sort.by("password; DROP TABLE users")))
+                .hasMessageContaining("Cannot sort users by");
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldSeekPastTheId() {
+        // Given
+        repository.insertAll(users("seek", 5)).blockLast();
+
+        // When
+        List<User> after = repository.findByIdGreaterThan(2L, 2).collectList().block();
+
+        // Then
+        assertThat(after).extracting(User::getId).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void searchByName_ShouldRankExactThenPrefixThenSubstring() {
+        // Given
+        repository.insertAll(List.of(
+                new User("joanne", "joanne@example.com", "Joanne", "Brown"),
+                new User("annabel", "annabel@example.com", "Annabel", "Jones"),
+                new User("ann", "ann@example.com", "Ann", "Smith"),
+                new User("other", "other@example.com", "Zed", "Zulu"))).blockLast();
+
+        // When
+        List<User> results = repository.searchByName("ann", "%ann%", "ann%", 0, 10).collectList().block();
+
+        // Then
+        assertThat(results).extracting(User::getUsername).containsExactly("ann", "annabel", "joanne");
+    }
+
+    @Test
+    void existsAndFindByUsernameInOrEmailIn_ShouldMatchExistingRows() {
+        // Given
+        repository.insertAll(users("dup", 2)).blockLast();
+
+        // When / Then
+        assertThat(repository.existsByUsername("dup0").block()).isTrue();
+        assertThat(repository.existsByEmail("nobody@example.com").block()).isFalse();
+        assertThat(repository.findByUsernameInOrEmailIn(Set.of("dup0", "fresh"), Set.of("dup1@example.com"))
+                .map(User::getUsername).collectList().block())
+                .containsExactlyInAnyOrder("dup0", "dup1");
+    }
+
+    @Test
+    void updateAndDeleteById_ShouldReportAffectedRows() {
+        // Given
+        User user = repository.insert(new User("before", "before@example.com", "Before", "Update")).block();
+        user.setUsername("after");
+
+        // When
+        Long updated = repository.update(user).block();
+        Long deleted = repository.deleteById(user.getId()).block();
+        Long deletedAgain = repository.deleteById(user.getId()).block();
+
+        // Then
+        assertThat(updated).isEqualTo(1L);
+        assertThat(deleted).isEqualTo(1L);
+        assertThat(deletedAgain).isZero();
+        assertThat(repository.count().block()).isZero();
+    }
+
+    @Test
+    void estimateCount_OnH2_ShouldBeEmpty() {
+        // Act & Assert
+        assertThat(repository.estimateCount().blockOptional()).isEmpty();
+    }
+
+    private static List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(prefix + i, prefix + i + "@example.com", "First" + i, "Last" + i));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,62 @@
+package com.lithespeed.hellojava06.repository;
+
+import com.lithespeed.hellojava06.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("ann.dean", "ann.dean@example.com", "Ann", "Dean"));
+        userRepository.save(new User("dan.brown", "dan.brown@example.com", "Dan", "Brown"));
+        userRepository.save(new User("jo.jordan", "jo.jordan@example.com", "Jo", "Jordan"));
+        userRepository.save(new User("pct.user", "pct.user@example.com", "100%", "Sure"));
+    }
+
+    @Test
+    void searchByName_ShouldRankExactThenPrefixThenSubstring() {
+        // When - "dan" is Dan's exact first name, Jordan contains it, Dean does not
+        List<User> users = userRepository.searchByName("dan", "%dan%", "dan%", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(users.stream().map(User::getUsername).collect(Collectors.toList()))
+                .containsExactly("dan.brown", "jo.jordan");
+    }
+
+    @Test
+    void searchByName_ShouldApplyPageBounds() {
+        // When
+        List<User> firstPage = userRepository.searchByName("dan", "%dan%", "dan%", PageRequest.of(0, 1));
+        List<User> secondPage = userRepository.searchByName("dan", "%dan%", "dan%", PageRequest.of(1, 1));
+
+        // Then
+        assertThat(firstPage).extracting(User::getUsername).containsExactly("dan.brown");
+        assertThat(secondPage).extracting(User::getUsername).containsExactly("jo.jordan");
+    }
+
+    @Test
+    void searchByName_ShouldTreatEscapedWildcardsLiterally() {
+        // When
+        List<User> literal = userRepository.searchByName("0%", "%0!%%", "0!%%", PageRequest.of(0, 10));
+        List<User> none = userRepository.searchByName("n%n", "%n!%n%", "n!%n%", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(literal).extracting(User::getUsername).containsExactly("pct.user");
+        assertThat(none).isEmpty();
+    }
+}
@@ -184,4 +184,40 @@ class DialogServiceTest {
         verify(dialogRepository, times(1)).findByIdAndRequest(1, "Test1");
         verify(dialogRepository, times(1)).findByIdAndRequest(2, "Test2");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchDialogsByRequestDelegatesToRepository() {
+        // Given
+        when(dialogRepository.searchByRequest("how", 10)).thenReturn(testDialogs.subList(1, 2));
+
+        // When
+        List<Dialog> result = dialogService.searchDialogsByRequest("how", 10);
+
+        // Then
+        assertEquals(1, result.size(), "Should return repository matches");
+        assertEquals(2, result.get(0).getId(), "Should return the matching dialog");
+        verify(dialogRepository, times(1)).searchByRequest("how", 10);
+    }
+
+    @Test
+    void testSearchDialogsByRequestClampsLimit() {
+        // Given
+        when(dialogRepository.searchByRequest(anyString(), anyInt())).thenReturn(Arrays.asList());
+
+        // When
+        dialogService.searchDialogsByRequest("hello", 0);
+        dialogService.searchDialogsByRequest("hello", 10_000);
+
+        // Then
+        verify(dialogRepository, times(1)).searchByRequest("hello", 1);
+        verify(dialogRepository, times(1)).searchByRequest("hello", DialogService.MAX_SEARCH_RESULTS);
+    }
+
+    @Test
+    void testSearchDialogsByRequestRejectsBlankFragment() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> dialogService.searchDialogsByRequest(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> dialogService.searchDialogsByRequest("  ", 10));
+        verify(dialogRepository, never()).searchByRequest(anyString(), anyInt());
+    }
+}
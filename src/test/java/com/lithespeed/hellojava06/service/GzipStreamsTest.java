@@ -0,0 +1,81 @@
+package com.lithespeed.hellojava06.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipStreamsTest {
+
+    @Test
+    void compressing_ShouldProduceStandardGzip() throws IOException {
+        // Given
+        byte[] content = text(2_000_000);
+
+        // When
+        byte[] compressed = GzipStreams.compressing(new ByteArrayInputStream(content), 6).readAllBytes();
+
+        // Then
+        assertThat(compressed.length).isLessThan(content.length / 2);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(content);
+    }
+
+    @Test
+    void compressing_EmptyInput_ShouldProduceValidGzip() throws IOException {
+        // When
+        byte[] compressed = GzipStreams.compressing(new ByteArrayInputStream(new byte[0]), 6).readAllBytes();
+
+        // Then
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEmpty();
+    }
+
+    @Test
+    void decompressing_ShouldSkipAndLimitDecodedBytes() throws IOException {
+        // Given
+        byte[] content = text(100_000);
+        byte[] compressed = GzipStreams.compressing(new ByteArrayInputStream(content), 1).readAllBytes();
+
+        // When
+        byte[] slice = GzipStreams.decompressing(new ByteArrayInputStream(compressed), 1_000, 5_000).readAllBytes();
+        byte[] all = GzipStreams.decompressing(new ByteArrayInputStream(compressed), 0, -1).readAllBytes();
+
+        // Then
+        assertThat(slice).isEqualTo(Arrays.copyOfRange(content, 1_000, 6_000));
+        assertThat(all).isEqualTo(content);
+    }
+
+    @Test
+    void decompressing_ShouldNotReadSourceBeforeFirstRead() throws IOException {
+        // Given
+        int[] reads = { 0 };
+        InputStream source = new InputStream() {
+            @Override
+            public int read() {
+                reads[0]++;
+                return -1;
+            }
+        };
+
+        // When
+        InputStream decoded = GzipStreams.decompressing(source, 0, -1);
+        decoded.close();
+
+        // Then
+        assertThat(reads[0]).isZero();
+    }
+
+    private static byte[] text(int length) {
+        Random random = new Random(42);
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return content;
+    }
+}
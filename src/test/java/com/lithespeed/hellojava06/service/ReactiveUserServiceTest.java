@@ -0,0 +1,197 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private ReactiveUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new ReactiveUserService(userRepository, transactionalOperator, "cached");
+    }
+
+    @Test
+    void getUserById_WhenMissing_ShouldFailWithNotFound() {
+        // Given
+        when(userRepository.findById(42L)).thenReturn(Mono.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> userService.getUserById(42L).block())
+                .hasMessage("User not found with id: 42");
+    }
+
+    @Test
+    void getUsersAfter_ShouldReadOneExtraRowToBuildTheNextCursor() {
+        // Given
+        when(userRepository.findByIdGreaterThan(0L, 3)).thenReturn(Flux.just(user(1), user(2), user(3)));
+
+        // When
+        UserKeysetPageDTO page = userService.getUsersAfter(null, 2).block();
+
+        // Then
+        assertThat(page.getContent()).extracting(User::getId).containsExactly(1L, 2L);
+        assertThat(UserService.decodeCursor(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void getUsersAfter_WithInvalidCursor_ShouldFailWithoutQuerying() {
+        // When / Then
+        assertThatThrownBy(() -> userService.getUsersAfter("not-a-cursor", 20).block())
+                .hasMessageContaining("Invalid pagination cursor");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsersByName_ShouldEscapeAndClampLikeTheJpaService() {
+        // Given
+        when(userRepository.searchByName("50%_off", "%50!%!_off%", "50!%!_off%", 50L, 50))
+                .thenReturn(Flux.just(user(1)));
+
+        // When
+        List<User> results = userService.searchUsersByName(" 50%_Off ", 1, 500).collectList().block();
+
+        // Then
+        assertThat(results).hasSize(1);
+    }
+
+    @Test
+    void searchUsersByName_WithShortTerm_ShouldFailWithoutQuerying() {
+        // When / Then
+        assertThatThrownBy(() -> userService.searchUsersByName(" an ", 0, 20).collectList().block())
+                .hasMessageContaining("at least 3 characters");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsersByName_PastMaxResults_ShouldReturnNothing() {
+        // When
+        List<User> results = userService.searchUsersByName("ann", 100, 10).collectList().block();
+
+        // Then
+        assertThat(results).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void createUser_WhenUsernameTaken_ShouldFailWithoutInsert() {
+        // Given
+        stubTransactionalMono();
+        User user = new User("taken", "new@example.com", "New", "User");
+        when(userRepository.existsByUsername("taken")).thenReturn(Mono.just(true));
+
+        // When / Then
+        assertThatThrownBy(() -> userService.createUser(user).block())
+                .hasMessage("Username already exists: taken");
+        verify(userRepository, never()).insert(any());
+    }
+
+    @Test
+    void createUser_ShouldInsertAndCountTheUser() {
+        // Given
+        stubTransactionalMono();
+        User user = new User("fresh", "fresh@example.com", "Fresh", "User");
+        when(userRepository.existsByUsername("fresh")).thenReturn(Mono.just(false));
+        when(userRepository.existsByEmail("fresh@example.com")).thenReturn(Mono.just(false));
+        when(userRepository.insert(user)).thenReturn(Mono.just(user));
+        when(userRepository.count()).thenReturn(Mono.just(0L));
+        userService.reconcileCount().block();
+
+        // When
+        User created = userService.createUser(user).block();
+
+        // Then
+        assertThat(created).isSameAs(user);
+        assertThat(userService.getCount().block().getCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void createUsers_WithDuplicateInBatch_ShouldFailBeforeQuerying() {
+        // Given
+        List<User> users = List.of(new User("same", "a@example.com", "A", "A"), new User("same", "b@example.com", "B", "B"));
+
+        // When / Then
+        assertThatThrownBy(() -> userService.createUsers(users).block())
+                .hasMessage("Duplicate username in batch: same");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void createUsers_WhenEmailExists_ShouldReportConflicts() {
+        // Given
+        stubTransactionalMono();
+        List<User> users = List.of(new User("one", "one@example.com", "One", "User"));
+        when(userRepository.findByUsernameInOrEmailIn(any(), any()))
+                .thenReturn(Flux.just(new User("someone", "one@example.com", "Some", "One")));
+
+        // When / Then
+        assertThatThrownBy(() -> userService.createUsers(users).block())
+                .hasMessage("Username or email already exists: email one@example.com");
+        verify(userRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void deleteUser_WhenNothingDeleted_ShouldFailWithNotFound() {
+        // Given
+        stubTransactionalMono();
+        when(userRepository.deleteById(7L)).thenReturn(Mono.just(0L));
+
+        // When / Then
+        assertThatThrownBy(() -> userService.deleteUser(7L).block())
+                .hasMessage("User not found with id: 7");
+    }
+
+    @Test
+    void getCount_Estimated_WithoutEstimate_ShouldFallBackToCachedCounter() {
+        // Given
+        when(userRepository.estimateCount()).thenReturn(Mono.empty());
+        when(userRepository.count()).thenReturn(Mono.just(12L));
+
+        // When
+        UserCountDTO count = userService.getCount(UserCountService.Mode.ESTIMATED).block();
+        UserCountDTO again = userService.getCount(UserCountService.Mode.CACHED).block();
+
+        // Then
+        assertThat(count.getCount()).isEqualTo(12L);
+        assertThat(count.getMode()).isEqualTo("cached");
+        assertThat(again.getCount()).isEqualTo(12L);
+        // The counter was initialized once and then served from memory
+        verify(userRepository, times(1)).count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactionalMono() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@example.com", "First", "Last");
+        user.setId(id);
+        return user;
+    }
+}
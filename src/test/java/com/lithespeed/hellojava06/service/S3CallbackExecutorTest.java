@@ -0,0 +1,94 @@
+package com.lithespeed.hellojava06.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3CallbackExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private S3CallbackExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new S3CallbackExecutor(1, 1, 2, Duration.ofSeconds(60), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldRunContinuationsOnCallbackThreads() {
+        // Act
+        String threadName = CompletableFuture.completedFuture("value")
+                .thenApplyAsync(value -> Thread.currentThread().getName(), executor)
+                .join();
+
+        // Assert
+        assertTrue(threadName.startsWith("s3-callback-"), threadName);
+    }
+
+    @Test
+    void execute_WhenQueueIsFull_ShouldRejectAndReportSaturation() throws InterruptedException {
+        // Arrange: the only thread is busy and both queue slots are taken
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(2, executor.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("s3.callbacks.saturation").gauge().value());
+        assertEquals(1.0, meterRegistry.get("s3.callbacks.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("executor.queued").tag("name", "s3.callbacks").gauge().value());
+    }
+
+    @Test
+    void thenApplyAsync_WhenRejected_ShouldFailTheDependentFuture() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        // Act
+        CompletableFuture<String> dependent = CompletableFuture.completedFuture("value")
+                .thenApplyAsync(value -> value, executor);
+
+        // Assert: the completing thread is not blocked, the future carries the rejection instead
+        assertTrue(dependent.isCompletedExceptionally());
+        Throwable cause = assertThrows(CompletionException.class, dependent::join).getCause();
+        assertInstanceOf(RejectedExecutionException.class, cause);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
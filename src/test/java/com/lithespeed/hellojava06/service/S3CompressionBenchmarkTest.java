@@ -0,0 +1,112 @@
+package com.lithespeed.hellojava06.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures what upload compression costs and saves: CPU time per MB against the bytes left to send, for typical
+ * payloads at the gzip levels worth configuring. Decoding is measured too, since every download of a compressed
+ * object pays it. Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+class S3CompressionBenchmarkTest {
+
+    private static final int PAYLOAD_SIZE = 32 * 1024 * 1024;
+    private static final int[] LEVELS = { 1, 6, 9 };
+    private static final int ROUNDS = 3;
+
+    @Test
+    void benchmarkCompressionLevels() throws IOException {
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        payloads.put("json", json());
+        payloads.put("log text", logText());
+        payloads.put("random", random());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        double megabytes = PAYLOAD_SIZE / (1024.0 * 1024.0);
+        System.out.printf("gzip over %.0f MB payloads, best of %d rounds%n", megabytes, ROUNDS);
+        System.out.printf("%-10s %5s %8s %14s %14s %14s%n",
+                "payload", "level", "ratio", "MB saved", "encode ms CPU", "decode ms CPU");
+        for (Map.Entry<String, byte[]> payload : payloads.entrySet()) {
+            for (int level : LEVELS) {
+                long encodeCpu = Long.MAX_VALUE;
+                long decodeCpu = Long.MAX_VALUE;
+                byte[] compressed = null;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = threads.getCurrentThreadCpuTime();
+                    try (InputStream in = GzipStreams.compressing(new ByteArrayInputStream(payload.getValue()), level)) {
+                        compressed = in.readAllBytes();
+                    }
+                    encodeCpu = Math.min(encodeCpu, threads.getCurrentThreadCpuTime() - start);
+
+                    start = threads.getCurrentThreadCpuTime();
+                    long decoded;
+                    try (InputStream in = GzipStreams.decompressing(new ByteArrayInputStream(compressed), 0, -1)) {
+                        decoded = in.transferTo(OutputStream.nullOutputStream());
+                    }
+                    decodeCpu = Math.min(decodeCpu, threads.getCurrentThreadCpuTime() - start);
+                    assertEquals(PAYLOAD_SIZE, decoded);
+                }
+
+                double ratio = (double) compressed.length / PAYLOAD_SIZE;
+                System.out.printf("%-10s %5d %8.3f %14.1f %14.1f %14.1f%n", payload.getKey(), level, ratio,
+                        megabytes * (1 - ratio), encodeCpu / 1e6, decodeCpu / 1e6);
+                if (payload.getKey().equals("json")) {
+                    assertTrue(ratio < 0.5, "JSON should at least halve");
+                }
+            }
+        }
+    }
+
+    private static byte[] json() {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder(PAYLOAD_SIZE + 256);
+        for (int i = 0; json.length() < PAYLOAD_SIZE; i++) {
+            json.append("{\"id\":").append(i)
+                    .append(",\"username\":\"user").append(random.nextInt(1_000_000))
+                    .append("\",\"email\":\"user").append(random.nextInt(1_000_000)).append("@example.com\"")
+                    .append(",\"active\":").append(random.nextBoolean()).append("}\n");
+        }
+        return truncate(json.toString());
+    }
+
+    private static byte[] logText() {
+        Random random = new Random(42);
+        String[] levels = { "INFO", "DEBUG", "WARN", "ERROR" };
+        StringBuilder log = new StringBuilder(PAYLOAD_SIZE + 256);
+        while (log.length() < PAYLOAD_SIZE) {
+            log.append("2024-05-01T12:").append(random.nextInt(60)).append(':').append(random.nextInt(60))
+                    .append(' ').append(levels[random.nextInt(levels.length)])
+                    .append(" [http-nio-8080-exec-").append(random.nextInt(200)).append("] ")
+                    .append("c.l.h.service.S3Service - Uploaded file ").append(Long.toHexString(random.nextLong()))
+                    .append('\n');
+        }
+        return truncate(log.toString());
+    }
+
+    private static byte[] random() {
+        byte[] bytes = new byte[PAYLOAD_SIZE];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] truncate(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] exact = new byte[PAYLOAD_SIZE];
+        System.arraycopy(bytes, 0, exact, 0, PAYLOAD_SIZE);
+        return exact;
+    }
+}
@@ -0,0 +1,159 @@
+package com.lithespeed.hellojava06.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3ContentHashIndexTest {
+
+    private static final String HASH_OF_ABC = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private S3ContentHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/V5__Create_s3_content_hashes_table.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        index = new S3ContentHashIndex(jdbcTemplate, true, 1000, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void sha256Hex_ShouldMatchKnownDigest() throws IOException {
+        // When
+        String hash = S3ContentHashIndex.sha256Hex(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(hash).isEqualTo(HASH_OF_ABC);
+    }
+
+    @Test
+    void findKey_ShouldReturnRegisteredKeyOnlyWithinItsScope() {
+        // Given
+        index.register(HASH_OF_ABC, "uploads/a", "uploads/a/abc.txt", 3);
+
+        // When / Then
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/a")).contains("uploads/a/abc.txt");
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/b")).isEmpty();
+        assertThat(index.findKey(hashOf(1), "uploads/a")).isEmpty();
+    }
+
+    @Test
+    void register_WhenHashAlreadyRegisteredInScope_ShouldKeepFirstKey() {
+        // Given
+        index.register(HASH_OF_ABC, "uploads/a", "uploads/a/first.txt", 3);
+
+        // When
+        index.register(HASH_OF_ABC, "uploads/a", "uploads/a/second.txt", 3);
+        index.register(HASH_OF_ABC, "uploads/b", "uploads/b/other.txt", 3);
+
+        // Then
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/a")).contains("uploads/a/first.txt");
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/b")).contains("uploads/b/other.txt");
+    }
+
+    @Test
+    void findKey_ShouldSeeRowsWrittenBeforeFirstUse() {
+        // Given
+        jdbcTemplate.update("INSERT INTO s3_content_hashes (sha256, scope, object_key, size) VALUES (?, ?, ?, ?)",
+                HASH_OF_ABC, "uploads/earlier", "uploads/earlier/abc.txt", 3);
+
+        // When / Then
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/earlier")).contains("uploads/earlier/abc.txt");
+    }
+
+    @Test
+    void forget_ShouldRemoveOnlyMatchingMapping() {
+        // Given
+        index.register(HASH_OF_ABC, "uploads/a", "uploads/a/abc.txt", 3);
+
+        // When
+        index.forget(HASH_OF_ABC, "uploads/other/abc.txt");
+        String stillThere = index.findKey(HASH_OF_ABC, "uploads/a").orElse(null);
+        index.forget(HASH_OF_ABC, "uploads/a/abc.txt");
+
+        // Then
+        assertThat(stillThere).isEqualTo("uploads/a/abc.txt");
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/a")).isEmpty();
+    }
+
+    @Test
+    void forgetKeys_ShouldRemoveMappingsOfDeletedKeys() {
+        // Given
+        index.register(HASH_OF_ABC, "uploads/a", "uploads/a/abc.txt", 3);
+        index.register(hashOf(1), "uploads/a", "uploads/a/other.bin", 32);
+
+        // When
+        index.forgetKeys(List.of("uploads/a/abc.txt", "uploads/a/missing.txt"));
+
+        // Then
+        assertThat(index.findKey(HASH_OF_ABC, "uploads/a")).isEmpty();
+        assertThat(index.findKey(hashOf(1), "uploads/a")).contains("uploads/a/other.bin");
+    }
+
+    @Test
+    void isEnabled_ShouldReflectConfiguration() {
+        // When
+        S3ContentHashIndex disabled = new S3ContentHashIndex(jdbcTemplate, false, 1000, 0.01);
+
+        // Then
+        assertThat(index.isEnabled()).isTrue();
+        assertThat(disabled.isEnabled()).isFalse();
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegativesAndFewFalsePositives() {
+        // Given
+        S3ContentHashIndex.BloomFilter filter = new S3ContentHashIndex.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hashOf(i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain(hashOf(i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(hashOf(i))).isTrue();
+        }
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    private static String hashOf(int seed) {
+        byte[] content = new byte[32];
+        new Random(seed).nextBytes(content);
+        try {
+            return S3ContentHashIndex.sha256Hex(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.lithespeed.hellojava06.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3ErrorReporterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Logger reporterLogger = (Logger) LoggerFactory.getLogger(S3ErrorReporter.class);
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        logged.start();
+        reporterLogger.addAppender(logged);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reporterLogger.detachAppender(logged);
+    }
+
+    @Test
+    void report_ShouldUnwrapCompletionExceptionAndClassifyIt() {
+        // Arrange
+        S3ErrorReporter reporter = new S3ErrorReporter(false, Duration.ofSeconds(10), meterRegistry);
+        S3Exception slowDown = (S3Exception) S3Exception.builder().statusCode(503).message("Please reduce your request rate.").build();
+
+        // Act
+        S3ErrorResponseDTO response = reporter.report("list files from S3", new CompletionException(slowDown), "prefix: a/");
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("THROTTLED", response.getCode());
+        assertTrue(response.isRetryable());
+        assertEquals("S3Exception", response.getExceptionType());
+        assertEquals("prefix: a/", response.getContext());
+        assertNull(response.getStackTrace());
+    }
+
+    @Test
+    void report_WithStackTraceEnabled_ShouldIncludeIt() {
+        // Arrange
+        S3ErrorReporter reporter = new S3ErrorReporter(true, Duration.ofSeconds(10), meterRegistry);
+
+        // Act
+        S3ErrorResponseDTO response = reporter.report("delete file from S3", new IllegalStateException(), null);
+
+        // Assert: null message and context stay null so the JSON leaves them out
+        assertTrue(response.getStackTrace().startsWith("java.lang.IllegalStateException"));
+        assertNull(response.getMessage());
+        assertNull(response.getContext());
+    }
+
+    @Test
+    void report_DuringFailureStorm_ShouldLogOncePerIntervalButCountEveryFailure() {
+        // Arrange
+        S3ErrorReporter reporter = new S3ErrorReporter(false, Duration.ofHours(1), meterRegistry);
+        RuntimeException failure = new RuntimeException("S3 list failed");
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            reporter.report("list files from S3", failure, "context");
+        }
+        reporter.report("delete file from S3", failure, "context");
+
+        // Assert: one line per operation and code
+        assertEquals(2, logged.list.size());
+        assertEquals(1000.0, meterRegistry.get("s3.errors")
+                .tag("operation", "list files from S3").tag("code", "INTERNAL").counter().count());
+    }
+
+    @Test
+    void report_AfterInterval_ShouldMentionSuppressedFailures() throws InterruptedException {
+        // Arrange: the first failure is logged, the second falls inside the interval
+        S3ErrorReporter reporter = new S3ErrorReporter(false, Duration.ofMillis(500), meterRegistry);
+        RuntimeException failure = new RuntimeException("S3 list failed");
+        reporter.report("list files from S3", failure, "context");
+        reporter.report("list files from S3", failure, "context");
+        Thread.sleep(600);
+
+        // Act
+        reporter.report("list files from S3", failure, "context");
+
+        // Assert
+        assertEquals(2, logged.list.size());
+        assertTrue(logged.list.get(1).getFormattedMessage().endsWith("1 similar failures not logged"));
+    }
+
+    @Test
+    void of_ShouldMapSdkFailuresToCodes() {
+        // Act & Assert
+        assertEquals(S3ErrorCode.NOT_FOUND, S3ErrorCode.of(NoSuchKeyException.builder().message("missing").build()));
+        assertEquals(S3ErrorCode.ACCESS_DENIED, S3ErrorCode.of(S3Exception.builder().statusCode(403).build()));
+        assertEquals(S3ErrorCode.UNAVAILABLE, S3ErrorCode.of(S3Exception.builder().statusCode(500).build()));
+        assertEquals(S3ErrorCode.INVALID_REQUEST, S3ErrorCode.of(S3Exception.builder().statusCode(400).build()));
+        assertEquals(S3ErrorCode.TIMEOUT, S3ErrorCode.of(ApiCallTimeoutException.create(1000)));
+        assertEquals(S3ErrorCode.CLIENT_ERROR,
+                S3ErrorCode.of(new RuntimeException(SdkClientException.create("Unable to connect"))));
+        assertEquals(S3ErrorCode.INTERNAL, S3ErrorCode.of(new RuntimeException("Failed to read file content")));
+    }
+}
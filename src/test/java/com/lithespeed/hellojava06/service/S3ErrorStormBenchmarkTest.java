@@ -0,0 +1,162 @@
+package com.lithespeed.hellojava06.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates an S3 brownout in which every call fails with {@code 503 SlowDown}: concurrent threads turn failures
+ * into error responses, once the way {@code S3Service} used to (stack trace rendered into a {@link HashMap},
+ * logged twice) and once through {@link S3ErrorReporter}. Prints throughput, CPU time and heap allocated per
+ * failure. Log output goes through a real pattern layout into a null stream, so formatting is paid but not printed.
+ * Tagged {@code benchmark} so it only runs through {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+class S3ErrorStormBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int FAILURES_PER_THREAD = 50_000;
+
+    private static final org.slf4j.Logger legacyLogger = LoggerFactory.getLogger("benchmark.legacy-s3-errors");
+
+    @Test
+    void benchmarkFailureStorm() throws Exception {
+        OutputStreamAppender<ILoggingEvent> nullAppender = nullAppender();
+        List<Logger> loggers = List.of(logger(legacyLogger.getName()), logger(S3ErrorReporter.class.getName()));
+        loggers.forEach(logger -> {
+            logger.setAdditive(false);
+            logger.addAppender(nullAppender);
+        });
+        try {
+            S3ErrorReporter reporter = new S3ErrorReporter(false, Duration.ofSeconds(10), new SimpleMeterRegistry());
+            S3ErrorReporter debugReporter = new S3ErrorReporter(true, Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+            System.out.printf("%d threads x %,d failures (503 SlowDown)%n", THREADS, FAILURES_PER_THREAD);
+            System.out.printf("%-28s %14s %16s %16s%n", "variant", "failures/s", "CPU us/failure", "bytes/failure");
+            // Warm-up passes let the JIT settle before timing
+            for (boolean timed : new boolean[] { false, true }) {
+                run("legacy map + stack trace", timed, e -> Boolean.FALSE.equals(
+                        legacyErrorResponse("list files from S3", e, "context").get("success")));
+                run("reporter, debug flag on", timed, e -> !debugReporter.report("list files from S3", e, "context").isSuccess());
+                run("reporter", timed, e -> !reporter.report("list files from S3", e, "context").isSuccess());
+            }
+        } finally {
+            loggers.forEach(logger -> {
+                logger.detachAppender(nullAppender);
+                logger.setAdditive(true);
+            });
+            nullAppender.stop();
+        }
+    }
+
+    private static void run(String label, boolean print, Function<Throwable, Boolean> failed)
+            throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicLong cpuNanos = new AtomicLong();
+        AtomicLong allocatedBytes = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    long threadId = Thread.currentThread().getId();
+                    long cpuStart = threads.getCurrentThreadCpuTime();
+                    long allocatedStart = threads.getThreadAllocatedBytes(threadId);
+                    for (int i = 0; i < FAILURES_PER_THREAD; i++) {
+                        // The SDK creates a new exception for every failed call, so the benchmark does too
+                        Throwable failure = new CompletionException(S3Exception.builder()
+                                .statusCode(503)
+                                .message("Please reduce your request rate.")
+                                .build());
+                        assertTrue(failed.apply(failure));
+                    }
+                    cpuNanos.addAndGet(threads.getCurrentThreadCpuTime() - cpuStart);
+                    allocatedBytes.addAndGet(threads.getThreadAllocatedBytes(threadId) - allocatedStart);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (print) {
+            long failures = (long) THREADS * FAILURES_PER_THREAD;
+            System.out.printf("%-28s %,14.0f %16.2f %,16d%n", label, failures / (elapsedNanos / 1e9),
+                    cpuNanos.get() / 1e3 / failures, allocatedBytes.get() / failures);
+        }
+    }
+
+    // S3Service.createErrorResponse and the exceptionally blocks before S3ErrorReporter
+    private static Map<String, Object> legacyErrorResponse(String operation, Throwable e, String context) {
+        legacyLogger.error("Failed to {}", operation, e);
+        Exception exception = (e instanceof Exception) ? (Exception) e : new RuntimeException(e);
+        legacyLogger.error("Error during {}: {}", operation, exception.getMessage(), exception);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("operation", operation);
+        errorResponse.put("exceptionType", exception.getClass().getSimpleName());
+        errorResponse.put("message", exception.getMessage());
+        errorResponse.put("context", context);
+        StringWriter sw = new StringWriter();
+        exception.printStackTrace(new PrintWriter(sw));
+        errorResponse.put("stackTrace", sw.toString());
+        if (exception.getCause() != null) {
+            errorResponse.put("causeType", exception.getCause().getClass().getSimpleName());
+            errorResponse.put("causeMessage", exception.getCause().getMessage());
+        }
+        return errorResponse;
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> nullAppender() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%thread] %logger - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static Logger logger(String name) {
+        return (Logger) LoggerFactory.getLogger(name);
+    }
+}
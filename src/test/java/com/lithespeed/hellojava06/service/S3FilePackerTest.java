@@ -0,0 +1,309 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.service.S3MetadataCache.ObjectMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3FilePackerTest {
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    private S3FilePacker packer;
+
+    @BeforeEach
+    void setUp() {
+        packer = new S3FilePacker(s3AsyncClient);
+        ReflectionTestUtils.setField(packer, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(packer, "enabled", true);
+    }
+
+    @Test
+    void accepts_ShouldOnlyTakeNonEmptySmallFilesWhenEnabled() {
+        // Act & Assert
+        assertTrue(packer.accepts(1));
+        assertTrue(packer.accepts(64 * 1024));
+        assertFalse(packer.accepts(0));
+        assertFalse(packer.accepts(64 * 1024 + 1));
+
+        ReflectionTestUtils.setField(packer, "enabled", false);
+        assertFalse(packer.accepts(1));
+    }
+
+    @Test
+    void isPackedKey_ShouldMatchOnlyLogicalPackKeys() {
+        // Act & Assert
+        assertTrue(packer.isPackedKey("packs/p1/file.txt"));
+        assertFalse(packer.isPackedKey("packs/p1.pack"));
+        assertFalse(packer.isPackedKey("packs/p1/"));
+        assertFalse(packer.isPackedKey("packs/p1/nested/file.txt"));
+        assertFalse(packer.isPackedKey("uploads/p1/file.txt"));
+        assertFalse(packer.isPackedKey(null));
+    }
+
+    @Test
+    void isPackedKey_WhenPackingDisabled_ShouldTreatPackLikeKeysAsOrdinary() {
+        // Arrange
+        ReflectionTestUtils.setField(packer, "enabled", false);
+
+        // Act & Assert
+        assertFalse(packer.isPackedKey("packs/p1/file.txt"));
+        assertTrue(packer.isPackStorageKey("packs/p1.pack"));
+        assertFalse(packer.isPackStorageKey("uploads/packs/p1.pack"));
+    }
+
+    @Test
+    void flush_ShouldWritePackThenIndexAndCompleteKeys() {
+        // Arrange
+        stubPutObject();
+
+        // Act
+        CompletableFuture<String> first = packer.add(bytes("hello"), "text/plain", "a.txt");
+        CompletableFuture<String> second = packer.add(bytes("abc"), "application/json", "b.json");
+        assertFalse(first.isDone());
+        packer.flush();
+
+        // Assert
+        String firstKey = first.join();
+        String secondKey = second.join();
+        assertTrue(firstKey.matches("packs/[^/]+/[^/]+\\.txt"));
+        assertTrue(secondKey.endsWith(".json"));
+        String packId = firstKey.split("/")[1];
+        assertEquals(packId, secondKey.split("/")[1]);
+
+        ArgumentCaptor<PutObjectRequest> requests = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3AsyncClient, times(2)).putObject(requests.capture(), any(AsyncRequestBody.class));
+        assertEquals("packs/" + packId + ".pack", requests.getAllValues().get(0).key());
+        assertEquals(8L, requests.getAllValues().get(0).contentLength());
+        assertEquals("packs/" + packId + ".idx", requests.getAllValues().get(1).key());
+    }
+
+    @Test
+    void add_WhenPackIsFull_ShouldWriteWithoutWaitingForWindow() {
+        // Arrange
+        stubPutObject();
+        ReflectionTestUtils.setField(packer, "maxFiles", 2);
+
+        // Act
+        packer.add(bytes("one"), "text/plain", "one.txt");
+        CompletableFuture<String> second = packer.add(bytes("two"), "text/plain", "two.txt");
+
+        // Assert
+        assertTrue(second.isDone());
+        verify(s3AsyncClient, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void flushIfDue_BeforeWindowElapsed_ShouldKeepBuffering() {
+        // Arrange
+        ReflectionTestUtils.setField(packer, "windowMs", 60_000L);
+
+        // Act
+        CompletableFuture<String> key = packer.add(bytes("one"), "text/plain", "one.txt");
+        packer.flushIfDue();
+
+        // Assert
+        assertFalse(key.isDone());
+        verifyNoInteractions(s3AsyncClient);
+    }
+
+    @Test
+    void flush_WhenPackWriteFails_ShouldFailEveryFile() {
+        // Arrange
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("Slow down").statusCode(503).build()));
+
+        // Act
+        CompletableFuture<String> first = packer.add(bytes("one"), "text/plain", "one.txt");
+        CompletableFuture<String> second = packer.add(bytes("two"), "text/plain", "two.txt");
+        packer.flush();
+
+        // Assert
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+        verify(s3AsyncClient, times(1)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void shutdown_ShouldWriteBufferedFilesAndRejectNewOnes() {
+        // Arrange
+        stubPutObject();
+        CompletableFuture<String> buffered = packer.add(bytes("hello"), "text/plain", "a.txt");
+
+        // Act
+        packer.shutdown();
+        CompletableFuture<String> late = packer.add(bytes("late"), "text/plain", "b.txt");
+
+        // Assert
+        assertTrue(buffered.join().startsWith("packs/"));
+        CompletionException exception = assertThrows(CompletionException.class, late::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        verify(s3AsyncClient, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void shutdown_WhenPackIsNotStoredInTime_ShouldFailBufferedFiles() {
+        // Arrange
+        ReflectionTestUtils.setField(packer, "shutdownWait", Duration.ofMillis(10));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(new CompletableFuture<>());
+        CompletableFuture<String> buffered = packer.add(bytes("hello"), "text/plain", "a.txt");
+
+        // Act
+        packer.shutdown();
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, buffered::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void openAsync_ShouldFetchOnlyTheFilesBytesFromThePack() throws IOException {
+        // Arrange
+        stubPutObject();
+        packer.add(bytes("hello"), "text/plain", "a.txt");
+        CompletableFuture<String> second = packer.add(bytes("abc"), "application/json", "b.json");
+        packer.flush();
+        String key = second.join();
+        stubGetObjectStream("abc");
+
+        // Act
+        ResponseInputStream<GetObjectResponse> stream = packer.openAsync(key, null).join();
+
+        // Assert
+        assertEquals("abc", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(3L, stream.response().contentLength());
+        assertEquals("application/json", stream.response().contentType());
+        assertNull(stream.response().contentRange());
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) ->
+                        request.key().endsWith(".pack") && "bytes=5-7".equals(request.range())),
+                any(AsyncResponseTransformer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void openAsync_WithClientRange_ShouldTranslateItIntoThePack() {
+        // Arrange
+        stubPutObject();
+        packer.add(bytes("hello"), "text/plain", "a.txt");
+        CompletableFuture<String> second = packer.add(bytes("abc"), "application/json", "b.json");
+        packer.flush();
+        String key = second.join();
+        stubGetObjectStream("bc");
+
+        // Act
+        ResponseInputStream<GetObjectResponse> stream = packer.openAsync(key, "bytes=1-").join();
+
+        // Assert
+        assertEquals(2L, stream.response().contentLength());
+        assertEquals("bytes 1-2/3", stream.response().contentRange());
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) -> "bytes=6-7".equals(request.range())),
+                any(AsyncResponseTransformer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void openAsync_WithUncachedIndex_ShouldLoadItFromS3() {
+        // Arrange
+        byte[] index = bytes("f1.txt\t0\t5\ttext/plain\nf2.txt\t5\t3\t\n");
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenAnswer(invocation -> {
+                    GetObjectRequest request = invocation.getArgument(0);
+                    if (request.key().equals("packs/p1.idx")) {
+                        return CompletableFuture.completedFuture(
+                                ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), index));
+                    }
+                    return CompletableFuture.completedFuture(responseStream("abc"));
+                });
+
+        // Act
+        ResponseInputStream<GetObjectResponse> stream = packer.openAsync("packs/p1/f2.txt", null).join();
+        CompletableFuture<ResponseInputStream<GetObjectResponse>> missing = packer.openAsync("packs/p1/nope.txt", null);
+
+        // Assert
+        assertEquals(3L, stream.response().contentLength());
+        assertNull(stream.response().contentType());
+        CompletionException exception = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(NoSuchKeyException.class, exception.getCause());
+        // The second lookup was answered from the cached index
+        verify(s3AsyncClient, times(1)).getObject(argThat((GetObjectRequest request) -> request.key().endsWith(".idx")),
+                any(AsyncResponseTransformer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void metadataAsync_WhenPackIndexIsMissing_ShouldReportMissing() {
+        // Arrange
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("missing").build()));
+
+        // Act
+        ObjectMetadata metadata = packer.metadataAsync("packs/unknown/file.txt").join();
+
+        // Assert
+        assertFalse(metadata.isExists());
+    }
+
+    @Test
+    void parseIndex_ShouldReadOffsetsAndOptionalContentType() {
+        // Act
+        Map<String, S3FilePacker.PackEntry> index = S3FilePacker.parseIndex("a.txt\t0\t5\ttext/plain\nb\t5\t3\t\n");
+
+        // Assert
+        assertEquals(2, index.size());
+        assertEquals(5, index.get("b").offset);
+        assertEquals(3, index.get("b").length);
+        assertEquals("text/plain", index.get("a.txt").contentType);
+        assertNull(index.get("b").contentType);
+        assertThrows(IllegalStateException.class, () -> S3FilePacker.parseIndex("broken line\n"));
+    }
+
+    private void stubPutObject() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubGetObjectStream(String content) {
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.completedFuture(responseStream(content)));
+    }
+
+    private static ResponseInputStream<GetObjectResponse> responseStream(String content) {
+        byte[] body = bytes(content);
+        return new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength((long) body.length).contentRange("bytes 0-0/0").eTag("pack").build(),
+                AbortableInputStream.create(new ByteArrayInputStream(body)));
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
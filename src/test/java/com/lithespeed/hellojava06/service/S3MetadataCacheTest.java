@@ -0,0 +1,114 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.service.S3MetadataCache.ObjectMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3MetadataCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private S3MetadataCache metadataCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metadataCache = new S3MetadataCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), meterRegistry);
+    }
+
+    @Test
+    void get_ShouldRecordHitsAndMissesAsMetrics() {
+        // When
+        metadataCache.get("a.txt", key -> CompletableFuture.completedFuture(ObjectMetadata.of(1L, "e", "text/plain"))).join();
+        metadataCache.get("a.txt", key -> CompletableFuture.completedFuture(ObjectMetadata.missing())).join();
+
+        // Then
+        assertThat(cacheGets("hit")).isEqualTo(1.0);
+        assertThat(cacheGets("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_ConcurrentLookups_ShouldShareOneLoad() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<ObjectMetadata> pending = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<ObjectMetadata> first = metadataCache.get("a.txt", key -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<ObjectMetadata> second = metadataCache.get("a.txt", key -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        pending.complete(ObjectMetadata.of(1L, "e", null));
+
+        // Then
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.join().isExists()).isTrue();
+        assertThat(second.join().isExists()).isTrue();
+    }
+
+    @Test
+    void get_FailedLoad_ShouldNotBeCached() {
+        // Given
+        CompletableFuture<ObjectMetadata> failed = CompletableFuture.failedFuture(new RuntimeException("Access denied"));
+
+        // When
+        assertThatThrownBy(() -> metadataCache.get("a.txt", key -> failed).join())
+                .hasRootCauseMessage("Access denied");
+        ObjectMetadata retried = metadataCache.get("a.txt",
+                key -> CompletableFuture.completedFuture(ObjectMetadata.missing())).join();
+
+        // Then
+        assertThat(retried.isExists()).isFalse();
+    }
+
+    @Test
+    void invalidate_ShouldForceNextLookupToLoad() {
+        // Given
+        metadataCache.put("a.txt", ObjectMetadata.of(1L, "e", null));
+
+        // When
+        metadataCache.invalidate("a.txt");
+        ObjectMetadata reloaded = metadataCache.get("a.txt",
+                key -> CompletableFuture.completedFuture(ObjectMetadata.missing())).join();
+
+        // Then
+        assertThat(reloaded.isExists()).isFalse();
+    }
+
+    @Test
+    void nullKey_ShouldBypassCache() {
+        // When & Then - no exception, loader runs every time
+        AtomicInteger loads = new AtomicInteger();
+        metadataCache.get(null, key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(ObjectMetadata.missing());
+        }).join();
+        metadataCache.get(null, key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(ObjectMetadata.missing());
+        }).join();
+        metadataCache.put(null, ObjectMetadata.missing());
+        metadataCache.invalidate(null);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "s3.metadata")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
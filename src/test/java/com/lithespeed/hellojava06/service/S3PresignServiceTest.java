@@ -0,0 +1,169 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.S3MultipartCompleteRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3PresignServiceTest {
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    @Mock
+    private S3ContentHashIndex contentHashIndex;
+
+    private S3Presigner s3Presigner;
+    private S3PresignService s3PresignService;
+
+    @BeforeEach
+    void setUp() {
+        // Presigning is offline, so a real presigner with dummy credentials produces real URLs
+        s3Presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret")))
+                .build();
+        S3Service s3Service = new S3Service(s3AsyncClient,
+                new S3MetadataCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new S3FilePacker(s3AsyncClient), contentHashIndex,
+                new S3CallbackExecutor(1, 1, 10, Duration.ofSeconds(60), new SimpleMeterRegistry()),
+                new S3BlockingExecutor(1, 1, 10, Duration.ofSeconds(60), new SimpleMeterRegistry()),
+                new S3ErrorReporter(false, Duration.ofSeconds(10), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(s3Service, "bucketName", "test-bucket");
+        s3PresignService = new S3PresignService(s3Presigner, s3AsyncClient, s3Service, "test-bucket",
+                Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Presigner.close();
+    }
+
+    @Test
+    void presignUpload_ShouldReturnSignedPutUrlForNewKey() {
+        // Act
+        Map<String, Object> response = s3PresignService.presignUpload("report.pdf", "application/pdf");
+
+        // Assert
+        String key = (String) response.get("key");
+        String url = (String) response.get("url");
+        assertTrue(key.startsWith("uploads/"));
+        assertTrue(key.endsWith(".pdf"));
+        assertEquals("PUT", response.get("method"));
+        assertTrue(url.contains("test-bucket"));
+        assertTrue(url.contains(key));
+        assertTrue(url.contains("X-Amz-Signature="));
+        assertTrue(url.contains("X-Amz-Expires=900"));
+        @SuppressWarnings("unchecked")
+        Map<String, String> headers = (Map<String, String>) response.get("headers");
+        assertTrue(headers.entrySet().stream().anyMatch(header ->
+                "content-type".equalsIgnoreCase(header.getKey()) && "application/pdf".equals(header.getValue())));
+        assertTrue(headers.keySet().stream().noneMatch("host"::equalsIgnoreCase));
+        verifyNoInteractions(s3AsyncClient);
+    }
+
+    @Test
+    void presignDownload_ShouldReturnSignedGetUrl() {
+        // Act
+        Map<String, Object> response = s3PresignService.presignDownload("uploads/a/b.txt");
+
+        // Assert
+        assertEquals("GET", response.get("method"));
+        assertTrue(((String) response.get("url")).contains("uploads/a/b.txt"));
+        assertNotNull(response.get("expiresAt"));
+    }
+
+    @Test
+    void presignMultipartUpload_ShouldSignOneUrlPerPart() {
+        // Arrange
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId("upload-1").build()));
+
+        // Act
+        Map<String, Object> response = s3PresignService.presignMultipartUpload("big.bin", "application/octet-stream", 3).join();
+
+        // Assert
+        assertEquals("upload-1", response.get("uploadId"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> parts = (List<Map<String, Object>>) response.get("parts");
+        assertEquals(3, parts.size());
+        assertEquals(3, parts.get(2).get("partNumber"));
+        assertTrue(((String) parts.get(2).get("url")).contains("partNumber=3"));
+        assertTrue(((String) parts.get(2).get("url")).contains("uploadId=upload-1"));
+    }
+
+    @Test
+    void presignMultipartUpload_WithTooManyParts_ShouldFail() {
+        // Act & Assert
+        CompletableFuture<Map<String, Object>> result =
+                s3PresignService.presignMultipartUpload("big.bin", "application/octet-stream", S3PresignService.MAX_PARTS + 1);
+
+        assertThrows(RuntimeException.class, result::join);
+        verifyNoInteractions(s3AsyncClient);
+    }
+
+    @Test
+    void completeMultipartUpload_ShouldSortPartsAndRegisterObject() {
+        // Arrange
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        HeadObjectResponse.builder().contentLength(42L).eTag("\"etag\"").build()));
+        S3MultipartCompleteRequestDTO request = new S3MultipartCompleteRequestDTO("uploads/a/b.bin", "upload-1",
+                Arrays.asList(new S3MultipartCompleteRequestDTO.Part(2, "e2"), new S3MultipartCompleteRequestDTO.Part(1, "e1")));
+
+        // Act
+        Map<String, Object> response = s3PresignService.completeMultipartUpload(request).join();
+
+        // Assert
+        assertEquals(true, response.get("exists"));
+        assertEquals(42L, response.get("size"));
+        verify(s3AsyncClient).completeMultipartUpload(argThat((CompleteMultipartUploadRequest completed) ->
+                "upload-1".equals(completed.uploadId())
+                        && completed.multipartUpload().parts().get(0).partNumber() == 1
+                        && "e2".equals(completed.multipartUpload().parts().get(1).eTag())));
+    }
+
+    @Test
+    void completeUpload_ShouldReadFreshMetadataEvenIfCached() {
+        // Arrange
+        CompletableFuture<HeadObjectResponse> notFound = new CompletableFuture<>();
+        notFound.completeExceptionally(NoSuchKeyException.builder().message("missing").build());
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(notFound)
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().contentLength(5L).build()));
+
+        // Act
+        Map<String, Object> before = s3PresignService.completeUpload("uploads/a/b.txt").join();
+        Map<String, Object> after = s3PresignService.completeUpload("uploads/a/b.txt").join();
+
+        // Assert
+        assertEquals(false, before.get("exists"));
+        assertEquals(true, after.get("exists"));
+        assertEquals(5L, after.get("size"));
+    }
+}
@@ -1,22 +1,56 @@
 package com.lithespeed.hellojava06.service;
 
+import com.lithespeed.hellojava06.dto.S3BatchDeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3BatchUploadResponseDTO;
+import com.lithespeed.hellojava06.dto.S3DeleteResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ErrorResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ExistsResponseDTO;
+import com.lithespeed.hellojava06.dto.S3FileUploadResultDTO;
+import com.lithespeed.hellojava06.dto.S3KeyDeleteResultDTO;
+import com.lithespeed.hellojava06.dto.S3ListResponseDTO;
+import com.lithespeed.hellojava06.dto.S3ResponseDTO;
+import com.lithespeed.hellojava06.dto.S3UploadResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Publisher;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,21 +63,39 @@ class S3ServiceTest {
     @Mock
     private S3AsyncClient s3AsyncClient;
 
+    @Mock
+    private S3ContentHashIndex contentHashIndex;
+
     @Mock
     private MultipartFile multipartFile;
 
     private S3Service s3Service;
+    private S3CallbackExecutor callbackExecutor;
+    private S3BlockingExecutor blockingExecutor;
+    private final S3ErrorReporter errorReporter =
+            new S3ErrorReporter(false, Duration.ofSeconds(10), new SimpleMeterRegistry());
     private final String bucketName = "test-bucket";
 
     @BeforeEach
     void setUp() throws Exception {
-        s3Service = new S3Service(s3AsyncClient);
+        callbackExecutor = new S3CallbackExecutor(2, 4, 100, Duration.ofSeconds(60), new SimpleMeterRegistry());
+        blockingExecutor = new S3BlockingExecutor(2, 4, 100, Duration.ofSeconds(60), new SimpleMeterRegistry());
+        s3Service = new S3Service(s3AsyncClient,
+                new S3MetadataCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new S3FilePacker(s3AsyncClient), contentHashIndex, callbackExecutor, blockingExecutor,
+                errorReporter);
         // Use reflection to set the bucket name since we removed the test constructor
         java.lang.reflect.Field bucketField = S3Service.class.getDeclaredField("bucketName");
         bucketField.setAccessible(true);
         bucketField.set(s3Service, bucketName);
     }
 
+    @AfterEach
+    void tearDown() {
+        callbackExecutor.shutdown();
+        blockingExecutor.shutdown();
+    }
+
     @Test
     void constructor_ShouldCreateService() {
         // Act & Assert
@@ -61,7 +113,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn("test.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(multipartFile.getSize()).thenReturn((long) content.length);
-        when(multipartFile.getBytes()).thenReturn(content);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(content));
 
         PutObjectResponse response = PutObjectResponse.builder()
                 .eTag("test-etag-12345")
@@ -95,7 +147,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn("empty.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(multipartFile.getSize()).thenReturn(0L);
-        when(multipartFile.getBytes()).thenReturn(emptyContent);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(emptyContent));
 
         PutObjectResponse response = PutObjectResponse.builder()
                 .eTag("empty-file-etag")
@@ -127,7 +179,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn("testfile"); // No extension
         when(multipartFile.getContentType()).thenReturn("application/octet-stream");
         when(multipartFile.getSize()).thenReturn((long) content.length);
-        when(multipartFile.getBytes()).thenReturn(content);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(content));
 
         PutObjectResponse response = PutObjectResponse.builder()
                 .eTag("test-etag-12345")
@@ -161,7 +213,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn(null);
         when(multipartFile.getContentType()).thenReturn("application/octet-stream");
         when(multipartFile.getSize()).thenReturn((long) content.length);
-        when(multipartFile.getBytes()).thenReturn(content);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(content));
 
         PutObjectResponse response = PutObjectResponse.builder()
                 .eTag("test-etag-12345")
@@ -184,7 +236,7 @@ class S3ServiceTest {
     }
 
     @Test
-    void uploadFileAsync_IOExceptionOnGetBytes() throws IOException {
+    void uploadFileAsync_IOExceptionOnGetInputStream() throws IOException {
         // Arrange
         String entityType = "uploads";
         String entityId = "user123";
@@ -192,7 +244,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn("test.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(multipartFile.getSize()).thenReturn(100L);
-        when(multipartFile.getBytes()).thenThrow(new IOException("Cannot read file"));
+        when(multipartFile.getInputStream()).thenThrow(new IOException("Cannot read file"));
 
         // Act & Assert
         CompletableFuture<String> result = s3Service.uploadFileAsync(entityType, entityId, multipartFile);
@@ -211,7 +263,7 @@ class S3ServiceTest {
         when(multipartFile.getOriginalFilename()).thenReturn("test.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(multipartFile.getSize()).thenReturn((long) content.length);
-        when(multipartFile.getBytes()).thenReturn(content);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(content));
 
         CompletableFuture<PutObjectResponse> failedFuture = new CompletableFuture<>();
         failedFuture.completeExceptionally(S3Exception.builder()
@@ -229,6 +281,124 @@ class S3ServiceTest {
         verify(s3AsyncClient).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
+    @Test
+    void uploadFileAsync_AboveThreshold_ShouldUseMultipartUpload() {
+        // Arrange
+        useFiveMegabyteParts();
+        byte[] content = new byte[(int) (2 * S3Service.MIN_PART_SIZE + 1024)];
+        MockMultipartFile file = new MockMultipartFile("file", "big.bin", "application/octet-stream", content);
+
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId("upload-1").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    return CompletableFuture.completedFuture(
+                            UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build());
+                });
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "user123", file).join();
+
+        // Assert
+        assertTrue(key.startsWith("uploads/user123/"));
+        assertTrue(key.endsWith(".bin"));
+        verify(s3AsyncClient, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(s3AsyncClient, times(2)).uploadPart(
+                argThat((UploadPartRequest request) -> request.contentLength() == S3Service.MIN_PART_SIZE),
+                any(AsyncRequestBody.class));
+        verify(s3AsyncClient).uploadPart(
+                argThat((UploadPartRequest request) -> request.partNumber() == 3 && request.contentLength() == 1024L),
+                any(AsyncRequestBody.class));
+        verify(s3AsyncClient).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                "upload-1".equals(request.uploadId())
+                        && request.multipartUpload().parts().size() == 3
+                        && "etag-3".equals(request.multipartUpload().parts().get(2).eTag())));
+        verify(s3AsyncClient, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileAsync_MultipartPartFailure_ShouldAbortUpload() {
+        // Arrange
+        useFiveMegabyteParts();
+        byte[] content = new byte[(int) (S3Service.MIN_PART_SIZE + 1024)];
+        MockMultipartFile file = new MockMultipartFile("file", "big.bin", "application/octet-stream", content);
+
+        CompletableFuture<UploadPartResponse> failedPart = new CompletableFuture<>();
+        failedPart.completeExceptionally(S3Exception.builder().message("Slow down").statusCode(503).build());
+
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId("upload-2").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(failedPart);
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+
+        // Act & Assert
+        CompletableFuture<String> result = s3Service.uploadFileAsync("uploads", "user123", file);
+
+        assertThrows(RuntimeException.class, result::join);
+        verify(s3AsyncClient).abortMultipartUpload(
+                argThat((AbortMultipartUploadRequest request) -> "upload-2".equals(request.uploadId())));
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileAsync_Multipart_ShouldNotBlockCallerAndReadPartsOnBlockingPool() {
+        // Arrange
+        useFiveMegabyteParts();
+        byte[] content = new byte[(int) (2 * S3Service.MIN_PART_SIZE)];
+        List<String> readThreads = Collections.synchronizedList(new ArrayList<>());
+        MockMultipartFile file = new MockMultipartFile("file", "big.bin", "application/octet-stream", content) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        readThreads.add(Thread.currentThread().getName());
+                        return super.read(buffer, offset, length);
+                    }
+                };
+            }
+        };
+
+        CompletableFuture<CreateMultipartUploadResponse> created = new CompletableFuture<>();
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class))).thenReturn(created);
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    return CompletableFuture.completedFuture(
+                            UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build());
+                });
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        // Act: the call returns while S3 has not created the upload yet
+        CompletableFuture<String> result = s3Service.uploadFileAsync("uploads", "user123", file);
+        assertFalse(result.isDone());
+        verify(s3AsyncClient, never()).uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class));
+        created.complete(CreateMultipartUploadResponse.builder().uploadId("upload-3").build());
+
+        // Assert
+        assertTrue(result.join().startsWith("uploads/user123/"));
+        assertFalse(readThreads.isEmpty());
+        assertTrue(readThreads.stream().allMatch(name -> name.startsWith("s3-blocking-")), readThreads.toString());
+        verify(s3AsyncClient).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                request.multipartUpload().parts().size() == 2
+                        && request.multipartUpload().parts().get(0).partNumber() == 1
+                        && request.multipartUpload().parts().get(1).partNumber() == 2));
+    }
+
+    private void useFiveMegabyteParts() {
+        ReflectionTestUtils.setField(s3Service, "multipartThreshold", DataSize.ofBytes(S3Service.MIN_PART_SIZE));
+        ReflectionTestUtils.setField(s3Service, "partSize", DataSize.ofBytes(S3Service.MIN_PART_SIZE));
+        ReflectionTestUtils.setField(s3Service, "maxConcurrentParts", 2);
+    }
+
     // List Files Tests
     @Test
     void listFilesAsync_Success() {
@@ -244,6 +414,8 @@ class S3ServiceTest {
         when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
                 .thenReturn(CompletableFuture.completedFuture(response));
 
+        stubListPaginator();
+
         // Act
         CompletableFuture<List<String>> result = s3Service.listFilesAsync();
 
@@ -270,6 +442,8 @@ class S3ServiceTest {
         when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
                 .thenReturn(CompletableFuture.completedFuture(response));
 
+        stubListPaginator();
+
         // Act
         CompletableFuture<List<String>> result = s3Service.listFilesAsync();
 
@@ -295,6 +469,8 @@ class S3ServiceTest {
         when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
                 .thenReturn(failedFuture);
 
+        stubListPaginator();
+
         // Act & Assert
         CompletableFuture<List<String>> result = s3Service.listFilesAsync();
         
@@ -312,6 +488,8 @@ class S3ServiceTest {
         when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
                 .thenReturn(CompletableFuture.completedFuture(response));
 
+        stubListPaginator();
+
         // Act
         s3Service.listFilesAsync().join();
 
@@ -321,6 +499,93 @@ class S3ServiceTest {
         ));
     }
 
+    @Test
+    void listFilesAsync_MultiplePages_ShouldFollowContinuationTokens() {
+        // Arrange
+        ListObjectsV2Response firstPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("uploads/a.txt").build())
+                .isTruncated(true)
+                .nextContinuationToken("token-2")
+                .build();
+        ListObjectsV2Response secondPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("uploads/b.txt").build())
+                .isTruncated(false)
+                .build();
+
+        when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(CompletableFuture.completedFuture(firstPage))
+                .thenReturn(CompletableFuture.completedFuture(secondPage));
+        stubListPaginator();
+
+        // Act
+        List<String> files = s3Service.listFilesAsync("uploads/").join();
+
+        // Assert
+        assertEquals(Arrays.asList("uploads/a.txt", "uploads/b.txt"), files);
+        verify(s3AsyncClient).listObjectsV2(argThat((ListObjectsV2Request request) ->
+                "token-2".equals(request.continuationToken()) && "uploads/".equals(request.prefix())));
+    }
+
+    @Test
+    void processFileList_WithPagination_ShouldReturnTokenAndCommonPrefixes() {
+        // Arrange
+        ListObjectsV2Response page = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("uploads/readme.txt").build())
+                .commonPrefixes(CommonPrefix.builder().prefix("uploads/2024/").build())
+                .isTruncated(true)
+                .nextContinuationToken("token-2")
+                .build();
+        when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(CompletableFuture.completedFuture(page));
+
+        // Act
+        S3ListResponseDTO response = (S3ListResponseDTO) s3Service
+                .processFileList("uploads/", "/", 5000, "token-1").join();
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertTrue(response.isTruncated());
+        assertEquals("token-2", response.getNextContinuationToken());
+        assertEquals(Arrays.asList("uploads/2024/"), response.getCommonPrefixes());
+        verify(s3AsyncClient).listObjectsV2(argThat((ListObjectsV2Request request) ->
+                request.maxKeys() == S3Service.MAX_LIST_PAGE_SIZE
+                        && "/".equals(request.delimiter())
+                        && "token-1".equals(request.continuationToken())));
+    }
+
+    @Test
+    void writeKeysAsNdjson_ShouldWriteOneLinePerObjectAcrossPages() throws IOException {
+        // Arrange
+        ListObjectsV2Response firstPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("a.txt").size(3L).build())
+                .isTruncated(true)
+                .nextContinuationToken("token-2")
+                .build();
+        ListObjectsV2Response secondPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("b.txt").size(5L).build())
+                .isTruncated(false)
+                .build();
+        when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(CompletableFuture.completedFuture(firstPage))
+                .thenReturn(CompletableFuture.completedFuture(secondPage));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = s3Service.writeKeysAsNdjson(null, out);
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals("{\"key\":\"a.txt\",\"size\":3}\n{\"key\":\"b.txt\",\"size\":5}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(s3AsyncClient, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+    }
+
+    // The paginator is a default interface method, so the mock needs a real publisher over the mocked client
+    private void stubListPaginator() {
+        when(s3AsyncClient.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenAnswer(invocation -> new ListObjectsV2Publisher(s3AsyncClient, invocation.getArgument(0)));
+    }
+
     // Business Logic Tests
     @Test
     void processFileUpload_Success() throws Exception {
@@ -336,18 +601,18 @@ class S3ServiceTest {
                 .thenReturn(CompletableFuture.completedFuture(putResponse));
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileUpload(file);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileUpload(file);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
-        
-        assertEquals(true, response.get("success"));
-        assertEquals("File uploaded successfully", response.get("message"));
-        assertEquals("test.txt", response.get("fileName"));
-        assertEquals("text/plain", response.get("contentType"));
-        assertEquals(12L, response.get("size")); // "test content".getBytes().length
-        assertNotNull(response.get("etag"));
+        S3UploadResponseDTO response = (S3UploadResponseDTO) result.join();
+        
+        assertTrue(response.isSuccess());
+        assertEquals("File uploaded successfully", response.getMessage());
+        assertEquals("test.txt", response.getFileName());
+        assertEquals("text/plain", response.getContentType());
+        assertEquals(12L, response.getSize()); // "test content".getBytes().length
+        assertNotNull(response.getEtag());
     }
 
     @Test
@@ -366,16 +631,16 @@ class S3ServiceTest {
                 .thenReturn(failedFuture);
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileUpload(file);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileUpload(file);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ErrorResponseDTO response = (S3ErrorResponseDTO) result.join();
         
-        assertEquals(false, response.get("success"));
-        assertEquals("upload file to S3", response.get("operation"));
-        assertNotNull(response.get("message"));
-        assertNotNull(response.get("timestamp"));
+        assertFalse(response.isSuccess());
+        assertEquals("upload file to S3", response.getOperation());
+        assertNotNull(response.getMessage());
+        assertNotNull(response.getTimestamp());
     }
 
     @Test
@@ -395,17 +660,16 @@ class S3ServiceTest {
                 .thenReturn(CompletableFuture.completedFuture(listResponse));
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileList();
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileList();
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ListResponseDTO response = (S3ListResponseDTO) result.join();
         
-        assertEquals(true, response.get("success"));
-        assertEquals(3, response.get("count"));
+        assertTrue(response.isSuccess());
+        assertEquals(3, response.getCount());
         
-        @SuppressWarnings("unchecked")
-        List<String> files = (List<String>) response.get("files");
+        List<String> files = response.getFiles();
         assertEquals(3, files.size());
         assertTrue(files.contains("file1.txt"));
         assertTrue(files.contains("file2.txt"));
@@ -422,16 +686,46 @@ class S3ServiceTest {
                 .thenReturn(failedFuture);
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileList();
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileList();
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ErrorResponseDTO response = (S3ErrorResponseDTO) result.join();
         
-        assertEquals(false, response.get("success"));
-        assertEquals("list files from S3", response.get("operation"));
-        assertNotNull(response.get("message"));
-        assertNotNull(response.get("timestamp"));
+        assertFalse(response.isSuccess());
+        assertEquals("list files from S3", response.getOperation());
+        assertNotNull(response.getMessage());
+        assertNotNull(response.getTimestamp());
+    }
+
+    @Test
+    void processFileList_WhenCallbackPoolIsFull_ShouldFailWithRejectionInsteadOfErrorResponse() throws Exception {
+        // Arrange: one busy thread and a full queue
+        S3CallbackExecutor saturated = new S3CallbackExecutor(1, 1, 1, Duration.ofSeconds(60), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(s3Service, "callbackExecutor", saturated);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturated.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            saturated.execute(() -> { });
+            when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                    .thenReturn(CompletableFuture.completedFuture(ListObjectsV2Response.builder().build()));
+
+            // Act
+            CompletableFuture<S3ResponseDTO> result = s3Service.processFileList();
+
+            // Assert
+            CompletionException thrown = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(RejectedExecutionException.class, thrown.getCause());
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
     }
 
     @Test
@@ -454,17 +748,20 @@ class S3ServiceTest {
         Exception testException = new RuntimeException("Test error message");
         
         // Act
-        Map<String, Object> response = s3Service.createErrorResponse("test operation", testException, "test context");
+        S3ErrorResponseDTO response = s3Service.createErrorResponse("test operation", testException, "test context");
 
         // Assert
         assertNotNull(response);
-        assertEquals(false, response.get("success"));
-        assertEquals("test operation", response.get("operation"));
-        assertEquals("RuntimeException", response.get("exceptionType"));
-        assertEquals("Test error message", response.get("message"));
-        assertEquals("test context", response.get("context"));
-        assertNotNull(response.get("timestamp"));
-        assertNotNull(response.get("stackTrace"));
+        assertFalse(response.isSuccess());
+        assertEquals("test operation", response.getOperation());
+        assertEquals("RuntimeException", response.getExceptionType());
+        assertEquals("Test error message", response.getMessage());
+        assertEquals("test context", response.getContext());
+        assertEquals("INTERNAL", response.getCode());
+        assertFalse(response.isRetryable());
+        assertNotNull(response.getTimestamp());
+        // Stack traces are only rendered with aws.s3.errors.include-stack-trace
+        assertNull(response.getStackTrace());
     }
 
     // Delete File Tests
@@ -508,6 +805,601 @@ class S3ServiceTest {
         verify(s3AsyncClient).deleteObject(any(DeleteObjectRequest.class));
     }
 
+    @Test
+    void deleteFilesAsync_ShouldSplitIntoBatchesOfOneThousand() {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            keys.add("tmp/file-" + i);
+        }
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        // Act
+        List<S3KeyDeleteResultDTO> results = s3Service.deleteFilesAsync(keys).join();
+
+        // Assert
+        assertEquals(2500, results.size());
+        assertEquals("tmp/file-0", results.get(0).getKey());
+        assertEquals("tmp/file-2499", results.get(2499).getKey());
+        assertTrue(results.stream().allMatch(S3KeyDeleteResultDTO::isDeleted));
+        verify(s3AsyncClient, times(2)).deleteObjects(argThat((DeleteObjectsRequest request) ->
+                request.delete().objects().size() == 1000 && Boolean.TRUE.equals(request.delete().quiet())));
+        verify(s3AsyncClient).deleteObjects(argThat((DeleteObjectsRequest request) ->
+                request.delete().objects().size() == 500));
+    }
+
+    @Test
+    void processFileBatchDelete_ShouldReportPerKeyErrors() {
+        // Arrange
+        DeleteObjectsResponse response = DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("locked.txt").code("AccessDenied").message("Access Denied").build())
+                .build();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) s3Service
+                .processFileBatchDelete(Arrays.asList("a.txt", "locked.txt"), null).join();
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(1L, result.getDeleted());
+        assertEquals(1L, result.getFailed());
+        List<S3KeyDeleteResultDTO> results = result.getResults();
+        assertTrue(results.get(0).isDeleted());
+        assertFalse(results.get(1).isDeleted());
+        assertEquals("AccessDenied: Access Denied", results.get(1).getError());
+    }
+
+    @Test
+    void processFileBatchDelete_WhenBatchCallFails_ShouldMarkItsKeysFailed() {
+        // Arrange
+        CompletableFuture<DeleteObjectsResponse> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(S3Exception.builder().message("Slow down").statusCode(503).build());
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(failedFuture);
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) s3Service
+                .processFileBatchDelete(Arrays.asList("a.txt", "b.txt"), null).join();
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(2L, result.getFailed());
+    }
+
+    @Test
+    void processFileBatchDelete_WithPrefix_ShouldDeleteListedKeys() {
+        // Arrange
+        ListObjectsV2Response page = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("tmp/a.txt").build(), S3Object.builder().key("tmp/b.txt").build())
+                .build();
+        when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(CompletableFuture.completedFuture(page));
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) s3Service.processFileBatchDelete(null, "tmp/").join();
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(2L, result.getRequested());
+        assertTrue(result.getResults().isEmpty());
+        verify(s3AsyncClient).listObjectsV2(argThat((ListObjectsV2Request request) -> "tmp/".equals(request.prefix())));
+    }
+
+    @Test
+    void processFileBatchDelete_WithPrefix_ShouldDeleteEachPageAndReportOnlyFailures() {
+        // Arrange
+        ListObjectsV2Response firstPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("tmp/a.txt").build(), S3Object.builder().key("tmp/b.txt").build())
+                .isTruncated(true)
+                .nextContinuationToken("page-2")
+                .build();
+        ListObjectsV2Response secondPage = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("tmp/c.txt").build())
+                .build();
+        when(s3AsyncClient.listObjectsV2(argThat((ListObjectsV2Request request) -> request != null && request.continuationToken() == null)))
+                .thenReturn(CompletableFuture.completedFuture(firstPage));
+        when(s3AsyncClient.listObjectsV2(argThat((ListObjectsV2Request request) -> request != null && "page-2".equals(request.continuationToken()))))
+                .thenReturn(CompletableFuture.completedFuture(secondPage));
+        DeleteObjectsResponse partialFailure = DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("tmp/b.txt").code("AccessDenied").message("Access Denied").build())
+                .build();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(partialFailure))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) s3Service.processFileBatchDelete(null, "tmp/").join();
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(3L, result.getRequested());
+        assertEquals(2L, result.getDeleted());
+        assertEquals(1L, result.getFailed());
+        assertEquals(1, result.getResults().size());
+        assertEquals("tmp/b.txt", result.getResults().get(0).getKey());
+        verify(s3AsyncClient).deleteObjects(argThat((DeleteObjectsRequest request) -> request.delete().objects().size() == 2));
+        verify(s3AsyncClient).deleteObjects(argThat((DeleteObjectsRequest request) -> request.delete().objects().size() == 1));
+        verify(s3AsyncClient, never()).listObjectsV2Paginator(any(ListObjectsV2Request.class));
+    }
+
+    @Test
+    void processFileBatchDelete_WithPackedKey_ShouldFailItWithoutSendingIt() {
+        // Arrange
+        S3FilePacker packer = new S3FilePacker(s3AsyncClient);
+        ReflectionTestUtils.setField(packer, "enabled", true);
+        S3Service packingService = new S3Service(s3AsyncClient,
+                new S3MetadataCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                packer, contentHashIndex, callbackExecutor, blockingExecutor,
+                errorReporter);
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) packingService
+                .processFileBatchDelete(Arrays.asList("a.txt", "packs/p1/file.txt", "b.txt"), null).join();
+
+        // Assert
+        assertEquals(3L, result.getRequested());
+        assertEquals(2L, result.getDeleted());
+        List<S3KeyDeleteResultDTO> results = result.getResults();
+        assertTrue(results.get(0).isDeleted());
+        assertEquals("packs/p1/file.txt", results.get(1).getKey());
+        assertFalse(results.get(1).isDeleted());
+        assertTrue(results.get(2).isDeleted());
+        verify(s3AsyncClient).deleteObjects(argThat((DeleteObjectsRequest request) ->
+                request.delete().objects().stream().map(ObjectIdentifier::key).noneMatch(key -> key.startsWith("packs/"))));
+    }
+
+    @Test
+    void processFileBatchDelete_WithPrefixCoveringPacks_ShouldSkipPackObjects() {
+        // Arrange
+        ListObjectsV2Response page = ListObjectsV2Response.builder()
+                .contents(S3Object.builder().key("packs/p1.idx").build(),
+                        S3Object.builder().key("packs/p1.pack").build(),
+                        S3Object.builder().key("photo.png").build())
+                .build();
+        when(s3AsyncClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(CompletableFuture.completedFuture(page));
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        // Act
+        S3BatchDeleteResponseDTO result = (S3BatchDeleteResponseDTO) s3Service.processFileBatchDelete(null, "p").join();
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(1L, result.getRequested());
+        verify(s3AsyncClient).deleteObjects(argThat((DeleteObjectsRequest request) ->
+                request.delete().objects().size() == 1 && "photo.png".equals(request.delete().objects().get(0).key())));
+    }
+
+    @Test
+    void uploadFileAsync_WithPackingEnabled_ShouldStoreSmallFileInPack() {
+        // Arrange
+        S3FilePacker packer = new S3FilePacker(s3AsyncClient);
+        ReflectionTestUtils.setField(packer, "enabled", true);
+        S3Service packingService = new S3Service(s3AsyncClient,
+                new S3MetadataCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                packer, contentHashIndex, callbackExecutor, blockingExecutor,
+                errorReporter);
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        CompletableFuture<String> upload = packingService.uploadFileAsync("uploads", "id",
+                new MockMultipartFile("file", "small.txt", "text/plain", "tiny".getBytes()));
+        packer.flush();
+        String key = upload.join();
+
+        // Assert
+        assertTrue(key.startsWith("packs/"));
+        assertTrue(packingService.isPackedKey(key));
+        assertTrue(packingService.fileExistsAsync(key).join());
+        assertThrows(CompletionException.class, () -> packingService.deleteFileAsync(key).join());
+        verify(s3AsyncClient, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void uploadFileAsync_WithDuplicateContent_ShouldReturnExistingKeyAfterFreshHead() {
+        // Arrange
+        byte[] content = "same bytes".getBytes();
+        String sha256 = sha256Of(content);
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(contentHashIndex.findKey(sha256, "uploads/id")).thenReturn(Optional.of("uploads/id/original.txt"));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                HeadObjectResponse.builder().contentLength((long) content.length).eTag("etag").build()));
+        s3Service.getMetadataAsync("uploads/id/original.txt").join();
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "id",
+                new MockMultipartFile("file", "copy.txt", "text/plain", content)).join();
+
+        // Assert: the cached metadata was not trusted
+        assertEquals("uploads/id/original.txt", key);
+        verify(s3AsyncClient, times(2)).headObject(any(HeadObjectRequest.class));
+        verify(s3AsyncClient, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(contentHashIndex, never()).register(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void uploadFileAsync_WithContentStoredForAnotherEntity_ShouldUploadOwnCopy() {
+        // Arrange
+        byte[] content = "same bytes".getBytes();
+        String sha256 = sha256Of(content);
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(contentHashIndex.findKey(sha256, "uploads/second")).thenReturn(Optional.empty());
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "second",
+                new MockMultipartFile("file", "copy.txt", "text/plain", content)).join();
+
+        // Assert
+        assertTrue(key.startsWith("uploads/second/"));
+        verify(contentHashIndex).register(sha256, "uploads/second", key, content.length);
+    }
+
+    @Test
+    void uploadFileAsync_WithNewContent_ShouldUploadAndRegisterHash() {
+        // Arrange
+        byte[] content = "new bytes".getBytes();
+        String sha256 = sha256Of(content);
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(contentHashIndex.findKey(sha256, "uploads/id")).thenReturn(Optional.empty());
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "id",
+                new MockMultipartFile("file", "new.txt", "text/plain", content)).join();
+
+        // Assert
+        assertTrue(key.startsWith("uploads/id/"));
+        verify(contentHashIndex).register(sha256, "uploads/id", key, content.length);
+    }
+
+    @Test
+    void uploadFileAsync_WithDedup_ShouldRunIndexWritesOnBlockingPool() {
+        // Arrange
+        byte[] content = "stale bytes".getBytes();
+        String sha256 = sha256Of(content);
+        List<String> indexThreads = Collections.synchronizedList(new ArrayList<>());
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(contentHashIndex.findKey(sha256, "uploads/id")).thenReturn(Optional.of("uploads/id/deleted.txt"));
+        doAnswer(invocation -> indexThreads.add(Thread.currentThread().getName()))
+                .when(contentHashIndex).forget(anyString(), anyString());
+        doAnswer(invocation -> indexThreads.add(Thread.currentThread().getName()))
+                .when(contentHashIndex).register(anyString(), anyString(), anyString(), anyLong());
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                NoSuchKeyException.builder().message("Not found").build()));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        s3Service.uploadFileAsync("uploads", "id", new MockMultipartFile("file", "again.txt", "text/plain", content)).join();
+
+        // Assert
+        assertEquals(2, indexThreads.size());
+        assertTrue(indexThreads.stream().allMatch(name -> name.startsWith("s3-blocking-")), indexThreads.toString());
+    }
+
+    @Test
+    void uploadFileAsync_WhenRegisteredObjectIsGone_ShouldForgetItAndUploadAgain() {
+        // Arrange
+        byte[] content = "stale bytes".getBytes();
+        String sha256 = sha256Of(content);
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(contentHashIndex.findKey(sha256, "uploads/id")).thenReturn(Optional.of("uploads/id/deleted.txt"));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                NoSuchKeyException.builder().message("Not found").build()));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "id",
+                new MockMultipartFile("file", "again.txt", "text/plain", content)).join();
+
+        // Assert
+        assertNotEquals("uploads/id/deleted.txt", key);
+        verify(contentHashIndex).forget(sha256, "uploads/id/deleted.txt");
+        verify(contentHashIndex).register(sha256, "uploads/id", key, content.length);
+    }
+
+    @Test
+    void deleteFileAsync_WithDedupEnabled_ShouldForgetDeletedKey() {
+        // Arrange
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        when(s3AsyncClient.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
+
+        // Act
+        s3Service.deleteFileAsync("uploads/id/a.txt").join();
+
+        // Assert
+        verify(contentHashIndex).forgetKeys(Collections.singletonList("uploads/id/a.txt"));
+    }
+
+    @Test
+    void processFileBatchDelete_WithDedupEnabled_ShouldForgetOnlyDeletedKeys() {
+        // Arrange
+        when(contentHashIndex.isEnabled()).thenReturn(true);
+        DeleteObjectsResponse response = DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("locked.txt").code("AccessDenied").message("Access Denied").build())
+                .build();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        // Act
+        s3Service.processFileBatchDelete(Arrays.asList("a.txt", "locked.txt"), null).join();
+
+        // Assert
+        verify(contentHashIndex).forgetKeys(List.of("a.txt"));
+    }
+
+    private static String sha256Of(byte[] content) {
+        try {
+            return S3ContentHashIndex.sha256Hex(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void uploadFilesAsync_ShouldUploadEachFileAndKeepOrder() {
+        // Arrange
+        List<MultipartFile> files = Arrays.asList(
+                new MockMultipartFile("files", "a.txt", "text/plain", "aaa".getBytes()),
+                new MockMultipartFile("files", "empty.txt", "text/plain", new byte[0]),
+                new MockMultipartFile("files", "b.json", "application/json", "{}".getBytes()));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        List<S3FileUploadResultDTO> results = s3Service.uploadFilesAsync(files).join();
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("a.txt", results.get(0).getFileName());
+        assertTrue(results.get(0).isUploaded());
+        assertTrue(results.get(0).getKey().matches("uploads/[^/]+/[^/]+\\.txt"));
+        assertFalse(results.get(1).isUploaded());
+        assertEquals("File cannot be empty", results.get(1).getError());
+        assertEquals("b.json", results.get(2).getFileName());
+        assertTrue(results.get(2).getKey().endsWith(".json"));
+        verify(s3AsyncClient, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void uploadFilesAsync_ShouldReadFilesOnBlockingPool() {
+        // Arrange
+        List<String> putThreads = Collections.synchronizedList(new ArrayList<>());
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    putThreads.add(Thread.currentThread().getName());
+                    return CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build());
+                });
+
+        // Act
+        s3Service.uploadFilesAsync(List.of(
+                new MockMultipartFile("files", "a.txt", "text/plain", "aaa".getBytes()),
+                new MockMultipartFile("files", "b.txt", "text/plain", "bbb".getBytes()))).join();
+
+        // Assert: the file is read right before the put, on the same thread
+        assertEquals(2, putThreads.size());
+        assertTrue(putThreads.stream().allMatch(name -> name.startsWith("s3-blocking-")), putThreads.toString());
+    }
+
+    @Test
+    void processFileBatchUpload_ShouldReportPerFileErrors() {
+        // Arrange
+        List<MultipartFile> files = Arrays.asList(
+                new MockMultipartFile("files", "ok.txt", "text/plain", "ok".getBytes()),
+                new MockMultipartFile("files", "bad.bin", "application/octet-stream", "bad".getBytes()));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    PutObjectRequest request = invocation.getArgument(0);
+                    if (request.key().endsWith(".bin")) {
+                        return CompletableFuture.failedFuture(
+                                S3Exception.builder().message("Slow down").statusCode(503).build());
+                    }
+                    return CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build());
+                });
+
+        // Act
+        S3BatchUploadResponseDTO result = (S3BatchUploadResponseDTO) s3Service.processFileBatchUpload(files).join();
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.getRequested());
+        assertEquals(1L, result.getUploaded());
+        assertEquals(1L, result.getFailed());
+        List<S3FileUploadResultDTO> results = result.getResults();
+        assertTrue(results.get(0).isUploaded());
+        assertFalse(results.get(1).isUploaded());
+        assertEquals("Slow down", results.get(1).getError());
+    }
+
+    @Test
+    void runBounded_ShouldNeverExceedConcurrencyAndKeepOrder() {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+
+        // Act
+        CompletableFuture<List<Integer>> result = S3Service.runBounded(items, 3, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            pending.add(future);
+            return future.thenApply(value -> {
+                running.decrementAndGet();
+                return value * 10;
+            });
+        });
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).complete(items.get(i));
+        }
+
+        // Assert
+        assertEquals(Arrays.asList(10, 20, 30, 40, 50, 60, 70), result.join());
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    void downloadAsync_ShouldPassRangeToGetObject() {
+        // Arrange
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), anyStreamTransformer()))
+                .thenReturn(new CompletableFuture<>());
+
+        // Act
+        s3Service.downloadAsync("a.txt", "bytes=0-99");
+
+        // Assert
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) ->
+                        bucketName.equals(request.bucket()) && "a.txt".equals(request.key())
+                                && "bytes=0-99".equals(request.range())),
+                anyStreamTransformer());
+    }
+
+    @Test
+    void uploadFileAsync_WithCompressionEnabled_ShouldGzipCompressibleContent() {
+        // Arrange
+        ReflectionTestUtils.setField(s3Service, "compressionEnabled", true);
+        byte[] content = "{\"name\":\"value\"},".repeat(500).getBytes(StandardCharsets.UTF_8);
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "id",
+                new MockMultipartFile("file", "data.json", "application/json; charset=utf-8", content)).join();
+
+        // Assert
+        verify(s3AsyncClient).putObject(argThat((PutObjectRequest request) ->
+                        "gzip".equals(request.contentEncoding())
+                                && String.valueOf(content.length).equals(request.metadata().get("original-size"))
+                                && request.contentLength() < content.length / 10),
+                any(AsyncRequestBody.class));
+        S3MetadataCache.ObjectMetadata metadata = s3Service.getMetadataAsync(key).join();
+        assertEquals(content.length, metadata.getSize());
+        assertEquals("gzip", metadata.getContentEncoding());
+    }
+
+    @Test
+    void uploadFileAsync_WithCompressionEnabled_ShouldStoreOtherContentTypesAsIs() {
+        // Arrange
+        ReflectionTestUtils.setField(s3Service, "compressionEnabled", true);
+        byte[] content = new byte[4096];
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("etag").build()));
+
+        // Act
+        s3Service.uploadFileAsync("uploads", "id", new MockMultipartFile("file", "photo.png", "image/png", content)).join();
+
+        // Assert
+        verify(s3AsyncClient).putObject(argThat((PutObjectRequest request) ->
+                request.contentEncoding() == null && request.contentLength() == content.length),
+                any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void downloadAsync_WithGzipObject_ShouldDecodeTransparently() throws IOException {
+        // Arrange
+        String text = "hello compressed world";
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), anyStreamTransformer()))
+                .thenReturn(CompletableFuture.completedFuture(gzipObject(text)));
+
+        // Act
+        ResponseInputStream<GetObjectResponse> stream = s3Service.downloadAsync("a.txt", null).join();
+
+        // Assert
+        assertEquals(text, new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(stream.response().contentEncoding());
+        assertEquals((long) text.length(), stream.response().contentLength());
+    }
+
+    @Test
+    void downloadAsync_WithRangeOnGzipObject_ShouldCutRangeFromDecodedBody() throws IOException {
+        // Arrange
+        String text = "0123456789";
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), anyStreamTransformer()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(gzipObject(text)));
+
+        // Act
+        ResponseInputStream<GetObjectResponse> stream = s3Service.downloadAsync("a.txt", "bytes=2-5").join();
+
+        // Assert
+        assertEquals("2345", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals("bytes 2-5/10", stream.response().contentRange());
+        assertEquals(4L, stream.response().contentLength());
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) -> request.range() == null),
+                anyStreamTransformer());
+    }
+
+    private static AsyncResponseTransformer<GetObjectResponse, ResponseInputStream<GetObjectResponse>> anyStreamTransformer() {
+        return any();
+    }
+
+    private static AsyncResponseTransformer<GetObjectResponse, ResponseBytes<GetObjectResponse>> anyBytesTransformer() {
+        return any();
+    }
+
+    private static ResponseInputStream<GetObjectResponse> gzipObject(String text) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentEncoding("gzip")
+                .contentLength((long) compressed.size())
+                .metadata(Map.of("original-size", String.valueOf(text.length())))
+                .build();
+        return new ResponseInputStream<>(response,
+                AbortableInputStream.create(new ByteArrayInputStream(compressed.toByteArray())));
+    }
+
+    @Test
+    void writeRangesInParallel_ShouldWritePartsInOrderPinnedToFirstRangeETag() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(s3Service, "downloadPartSize", DataSize.ofBytes(4));
+        ReflectionTestUtils.setField(s3Service, "maxConcurrentDownloadParts", 2);
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), anyBytesTransformer()))
+                .thenAnswer(invocation -> {
+                    GetObjectRequest request = invocation.getArgument(0);
+                    String[] bounds = request.range().substring("bytes=".length()).split("-");
+                    int start = Integer.parseInt(bounds[0]);
+                    int end = Integer.parseInt(bounds[1]);
+                    GetObjectResponse response = GetObjectResponse.builder()
+                            .eTag("\"etag\"")
+                            .contentRange("bytes " + start + "-" + end + "/" + content.length)
+                            .build();
+                    return CompletableFuture.completedFuture(
+                            ResponseBytes.fromByteArray(response, Arrays.copyOfRange(content, start, end + 1)));
+                });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        ResponseBytes<GetObjectResponse> firstRange = s3Service.getFirstRangeAsync("a.txt").join();
+        long written = s3Service.writeRangesInParallel("a.txt", firstRange, out);
+
+        // Assert
+        assertEquals(10, S3Service.totalSize(firstRange.response()));
+        assertEquals(10, written);
+        assertEquals("0123456789", out.toString(StandardCharsets.UTF_8));
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) ->
+                "bytes=0-3".equals(request.range()) && request.ifMatch() == null), anyBytesTransformer());
+        verify(s3AsyncClient, times(2)).getObject(argThat((GetObjectRequest request) ->
+                "\"etag\"".equals(request.ifMatch())), anyBytesTransformer());
+        verify(s3AsyncClient).getObject(argThat((GetObjectRequest request) ->
+                "bytes=8-9".equals(request.range())), anyBytesTransformer());
+    }
+
     @Test
     void processFileDelete_Success() {
         // Arrange
@@ -518,15 +1410,15 @@ class S3ServiceTest {
                 .thenReturn(CompletableFuture.completedFuture(deleteResponse));
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileDelete(key);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileDelete(key);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3DeleteResponseDTO response = (S3DeleteResponseDTO) result.join();
         
-        assertEquals(true, response.get("success"));
-        assertEquals("File deleted successfully: " + key, response.get("message"));
-        assertEquals(key, response.get("key"));
+        assertTrue(response.isSuccess());
+        assertEquals("File deleted successfully: " + key, response.getMessage());
+        assertEquals(key, response.getKey());
         
         verify(s3AsyncClient).deleteObject(any(DeleteObjectRequest.class));
     }
@@ -542,16 +1434,16 @@ class S3ServiceTest {
                 .thenReturn(failedFuture);
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileDelete(key);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileDelete(key);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ErrorResponseDTO response = (S3ErrorResponseDTO) result.join();
         
-        assertEquals(false, response.get("success"));
-        assertEquals("delete file from S3", response.get("operation"));
-        assertNotNull(response.get("message"));
-        assertEquals("key: " + key, response.get("context"));
+        assertFalse(response.isSuccess());
+        assertEquals("delete file from S3", response.getOperation());
+        assertNotNull(response.getMessage());
+        assertEquals("key: " + key, response.getContext());
         
         verify(s3AsyncClient).deleteObject(any(DeleteObjectRequest.class));
     }
@@ -620,6 +1512,71 @@ class S3ServiceTest {
         verify(s3AsyncClient).headObject(any(HeadObjectRequest.class));
     }
 
+    @Test
+    void fileExistsAsync_RepeatedChecks_ShouldSendOneHeadRequest() {
+        // Arrange
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().contentLength(12L).build()));
+
+        // Act
+        assertTrue(s3Service.fileExistsAsync("cached.txt").join());
+        assertTrue(s3Service.fileExistsAsync("cached.txt").join());
+
+        // Assert
+        verify(s3AsyncClient, times(1)).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void fileExistsAsync_MissingKey_ShouldCacheNegativeResult() {
+        // Arrange
+        CompletableFuture<HeadObjectResponse> notFound = new CompletableFuture<>();
+        notFound.completeExceptionally(S3Exception.builder().message("Not Found").statusCode(404).build());
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(notFound);
+
+        // Act
+        assertFalse(s3Service.fileExistsAsync("missing.txt").join());
+        assertFalse(s3Service.fileExistsAsync("missing.txt").join());
+
+        // Assert
+        verify(s3AsyncClient, times(1)).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void fileExistsAsync_AfterUpload_ShouldNotSendHeadRequest() throws IOException {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", "test content".getBytes());
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("\"etag\"").build()));
+
+        // Act
+        String key = s3Service.uploadFileAsync("uploads", "user123", file).join();
+        S3MetadataCache.ObjectMetadata metadata = s3Service.getMetadataAsync(key).join();
+
+        // Assert
+        assertTrue(metadata.isExists());
+        assertEquals(12L, metadata.getSize());
+        assertEquals("\"etag\"", metadata.getETag());
+        assertEquals("text/plain", metadata.getContentType());
+        verify(s3AsyncClient, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void fileExistsAsync_AfterDelete_ShouldCheckS3Again() {
+        // Arrange
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+        when(s3AsyncClient.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
+
+        // Act
+        s3Service.fileExistsAsync("doomed.txt").join();
+        s3Service.deleteFileAsync("doomed.txt").join();
+        s3Service.fileExistsAsync("doomed.txt").join();
+
+        // Assert
+        verify(s3AsyncClient, times(2)).headObject(any(HeadObjectRequest.class));
+    }
+
     @Test
     void processFileExists_Success_FileExists() {
         // Arrange
@@ -630,15 +1587,15 @@ class S3ServiceTest {
                 .thenReturn(CompletableFuture.completedFuture(headResponse));
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileExists(key);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileExists(key);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ExistsResponseDTO response = (S3ExistsResponseDTO) result.join();
         
-        assertEquals(true, response.get("success"));
-        assertEquals(true, response.get("exists"));
-        assertEquals(key, response.get("key"));
+        assertTrue(response.isSuccess());
+        assertTrue(response.isExists());
+        assertEquals(key, response.getKey());
         
         verify(s3AsyncClient).headObject(any(HeadObjectRequest.class));
     }
@@ -656,15 +1613,15 @@ class S3ServiceTest {
                 .thenReturn(failedFuture);
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileExists(key);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileExists(key);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ExistsResponseDTO response = (S3ExistsResponseDTO) result.join();
         
-        assertEquals(true, response.get("success"));
-        assertEquals(false, response.get("exists"));
-        assertEquals(key, response.get("key"));
+        assertTrue(response.isSuccess());
+        assertFalse(response.isExists());
+        assertEquals(key, response.getKey());
         
         verify(s3AsyncClient).headObject(any(HeadObjectRequest.class));
     }
@@ -680,16 +1637,16 @@ class S3ServiceTest {
                 .thenReturn(failedFuture);
 
         // Act
-        CompletableFuture<Map<String, Object>> result = s3Service.processFileExists(key);
+        CompletableFuture<S3ResponseDTO> result = s3Service.processFileExists(key);
 
         // Assert
         assertNotNull(result);
-        Map<String, Object> response = result.join();
+        S3ErrorResponseDTO response = (S3ErrorResponseDTO) result.join();
         
-        assertEquals(false, response.get("success"));
-        assertEquals("check file existence in S3", response.get("operation"));
-        assertNotNull(response.get("message"));
-        assertEquals("key: " + key, response.get("context"));
+        assertFalse(response.isSuccess());
+        assertEquals("check file existence in S3", response.getOperation());
+        assertNotNull(response.getMessage());
+        assertEquals("key: " + key, response.getContext());
         
         verify(s3AsyncClient).headObject(any(HeadObjectRequest.class));
     }
@@ -782,19 +1739,19 @@ class S3ServiceTest {
         Exception testException = new RuntimeException("Test error message", cause);
         
         // Act
-        Map<String, Object> response = s3Service.createErrorResponse("test operation", testException, "test context");
+        S3ErrorResponseDTO response = s3Service.createErrorResponse("test operation", testException, "test context");
 
         // Assert
         assertNotNull(response);
-        assertEquals(false, response.get("success"));
-        assertEquals("test operation", response.get("operation"));
-        assertEquals("RuntimeException", response.get("exceptionType"));
-        assertEquals("Test error message", response.get("message"));
-        assertEquals("test context", response.get("context"));
-        assertEquals("RuntimeException", response.get("causeType"));
-        assertEquals("Root cause message", response.get("causeMessage"));
-        assertNotNull(response.get("timestamp"));
-        assertNotNull(response.get("stackTrace"));
+        assertFalse(response.isSuccess());
+        assertEquals("test operation", response.getOperation());
+        assertEquals("RuntimeException", response.getExceptionType());
+        assertEquals("Test error message", response.getMessage());
+        assertEquals("test context", response.getContext());
+        assertEquals("RuntimeException", response.getCauseType());
+        assertEquals("Root cause message", response.getCauseMessage());
+        assertNotNull(response.getTimestamp());
+        assertNull(response.getStackTrace());
     }
 
     @Test
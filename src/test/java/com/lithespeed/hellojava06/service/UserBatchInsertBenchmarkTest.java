@@ -0,0 +1,110 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.entity.User;
+import com.lithespeed.hellojava06.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares one-at-a-time {@link UserService#createUser} against batched {@link UserService#createUsers}
+ * on the H2 database of the test profile. Tagged {@code benchmark} so it only runs through
+ * {@code gradle benchmarkTest}; point it at PostgreSQL with e.g.
+ * {@code -Pusers.benchmark.jdbc-url=jdbc:postgresql://localhost:5432/bench?reWriteBatchedInserts=true}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ UserService.class, UserCache.class, UserCountService.class, UserBatchInsertBenchmarkTest.MetricsConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserBatchInsertBenchmarkTest {
+
+    private static final int USER_COUNT = 5000;
+
+    @DynamicPropertySource
+    static void benchmarkDatabase(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("users.benchmark.jdbc-url");
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> System.getProperty("users.benchmark.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("users.benchmark.password", ""));
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${spring.datasource.url}")
+    private String databaseUrl;
+
+    @Test
+    void compareSingleInsertsWithBatchInsert() {
+        List<User> warmup = users("warmup", 500);
+        userService.createUsers(warmup);
+        userRepository.deleteAllInBatch();
+
+        long singleStart = System.nanoTime();
+        for (User user : users("single", USER_COUNT)) {
+            userService.createUser(user);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        List<User> created = userService.createUsers(users("batch", USER_COUNT));
+        long batchNanos = System.nanoTime() - batchStart;
+
+        System.out.printf("database: %s%n", databaseUrl);
+        System.out.printf("createUser x %,d: %d ms (%,.0f users/s)%n",
+                USER_COUNT, singleNanos / 1_000_000, USER_COUNT / (singleNanos / 1e9));
+        System.out.printf("createUsers(%,d): %d ms (%,.0f users/s)%n",
+                USER_COUNT, batchNanos / 1_000_000, USER_COUNT / (batchNanos / 1e9));
+
+        assertThat(created).hasSize(USER_COUNT);
+        assertThat(userRepository.count()).isEqualTo(2L * USER_COUNT);
+    }
+
+    private static List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(prefix + i, prefix + i + "@example.com", "Bench", prefix + i));
+        }
+        return users;
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(100, Duration.ofMinutes(10), meterRegistry);
+
+        user = new User("johndoe", "john@example.com", "John", "Doe");
+        user.setId(1L);
+    }
+
+    @Test
+    void getById_ShouldRecordHitsAndMissesAsMetrics() {
+        // When
+        userCache.getById(1L, id -> user);
+        userCache.getById(1L, id -> user);
+
+        // Then
+        assertThat(cacheGets("users.byId", "hit")).isEqualTo(1.0);
+        assertThat(cacheGets("users.byId", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void invalidate_ShouldEvictAllKeysOfUser() {
+        // Given
+        userCache.getById(1L, id -> user);
+        userCache.getByUsername("johndoe", name -> user);
+        userCache.getByEmail("john@example.com", email -> user);
+
+        // When
+        userCache.invalidate(user);
+
+        // Then - every lookup goes back to its loader
+        assertThat(userCache.getById(1L, id -> null)).isNull();
+        assertThat(userCache.getByUsername("johndoe", name -> null)).isNull();
+        assertThat(userCache.getByEmail("john@example.com", email -> null)).isNull();
+    }
+
+    @Test
+    void invalidate_ShouldIgnoreNullAndUnsavedUsers() {
+        // When & Then - no exception for users without id
+        userCache.invalidate(null);
+        userCache.invalidate(new User("newuser", "new@example.com", "New", "User"));
+    }
+
+    private double cacheGets(String cacheName, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
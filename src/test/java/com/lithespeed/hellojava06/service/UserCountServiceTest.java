@@ -0,0 +1,220 @@
+package com.lithespeed.hellojava06.service;
+
+import com.lithespeed.hellojava06.dto.UserCountDTO;
+import com.lithespeed.hellojava06.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCountServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getCount_Cached_ShouldQueryDatabaseOnlyOnce() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "cached");
+        when(userRepository.count()).thenReturn(7L);
+
+        // When
+        UserCountDTO first = service.getCount();
+        UserCountDTO second = service.getCount();
+
+        // Then
+        assertThat(first.getCount()).isEqualTo(7L);
+        assertThat(second.getCount()).isEqualTo(7L);
+        assertThat(second.getMode()).isEqualTo("cached");
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    void getCount_Cached_ConcurrentFirstRequests_ShouldReconcileOnce() throws Exception {
+        // Given - the first count query blocks until every request has arrived
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "cached");
+        int requests = 8;
+        CountDownLatch started = new CountDownLatch(requests);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.count()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 7L;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+
+        // When
+        try {
+            List<Future<UserCountDTO>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return service.getCount();
+                }));
+            }
+            started.await(5, TimeUnit.SECONDS);
+            release.countDown();
+
+            // Then
+            for (Future<UserCountDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getCount()).isEqualTo(7L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    void adjustAfterCommit_OutsideTransaction_ShouldApplyImmediately() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "cached");
+        when(userRepository.count()).thenReturn(3L);
+        service.getCount();
+
+        // When
+        service.adjustAfterCommit(2);
+        service.adjustAfterCommit(-1);
+
+        // Then
+        assertThat(service.getCount().getCount()).isEqualTo(4L);
+    }
+
+    @Test
+    void adjustAfterCommit_InsideTransaction_ShouldWaitForCommit() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "cached");
+        when(userRepository.count()).thenReturn(3L);
+        service.getCount();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        service.adjustAfterCommit(1);
+
+        // Then
+        assertThat(service.getCount().getCount()).isEqualTo(3L);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertThat(service.getCount().getCount()).isEqualTo(4L);
+    }
+
+    @Test
+    void reconcile_ShouldResetDriftedCounter() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "cached");
+        when(userRepository.count()).thenReturn(3L, 10L);
+        service.getCount();
+        service.adjustAfterCommit(1);
+
+        // When
+        service.reconcile();
+
+        // Then
+        assertThat(service.getCount().getCount()).isEqualTo(10L);
+    }
+
+    @Test
+    void getCount_Exact_ShouldAlwaysQueryDatabase() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "exact");
+        when(userRepository.count()).thenReturn(5L);
+
+        // When
+        service.getCount();
+        UserCountDTO result = service.getCount();
+
+        // Then
+        assertThat(result.getCount()).isEqualTo(5L);
+        assertThat(result.getMode()).isEqualTo("exact");
+        verify(userRepository, times(2)).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCount_Estimated_OnPostgres_ShouldUsePlannerEstimate() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "estimated");
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(120_000L);
+
+        // When
+        UserCountDTO result = service.getCount();
+
+        // Then
+        assertThat(result.getCount()).isEqualTo(120_000L);
+        assertThat(result.getMode()).isEqualTo("estimated");
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCount_Estimated_BeforeAnalyze_ShouldFallBackToCached() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "estimated");
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(-1L);
+        when(userRepository.count()).thenReturn(4L);
+
+        // When
+        UserCountDTO result = service.getCount();
+
+        // Then
+        assertThat(result.getCount()).isEqualTo(4L);
+        assertThat(result.getMode()).isEqualTo("cached");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCount_Estimated_OnH2_ShouldFallBackToCached() {
+        // Given
+        UserCountService service = new UserCountService(userRepository, jdbcTemplate, "estimated");
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(userRepository.count()).thenReturn(2L);
+
+        // When
+        UserCountDTO result = service.getCount();
+
+        // Then
+        assertThat(result.getMode()).isEqualTo("cached");
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void mode_Parse_ShouldRejectUnknownMode() {
+        assertThat(UserCountService.Mode.parse(" Exact ")).isEqualTo(UserCountService.Mode.EXACT);
+        assertThatThrownBy(() -> UserCountService.Mode.parse("guess"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid count mode: guess");
+    }
+}
@@ -0,0 +1,116 @@
+package com.lithespeed.hellojava06.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserExportServiceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/V1__Create_users_table.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportService(jdbcTemplate, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void exportAsNdjson_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        // Given
+        insertUsers(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = userExportService.exportAsNdjson(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("username").asText()).isEqualTo("user0");
+        assertThat(first.get("firstName").asText()).isEqualTo("First0");
+        assertThat(first.get("createdAt").isTextual()).isTrue();
+        assertThat(objectMapper.readTree(lines[2]).get("email").asText()).isEqualTo("user2@example.com");
+    }
+
+    @Test
+    void exportAsNdjson_WithEmptyTable_ShouldWriteNothing() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = userExportService.exportAsNdjson(out);
+
+        // Then
+        assertThat(written).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void exportAsNdjson_ShouldSpanMultipleFetches() throws IOException {
+        // Given
+        insertUsers(UserExportService.FETCH_SIZE * 2 + 7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = userExportService.exportAsNdjson(out);
+
+        // Then
+        assertThat(written).isEqualTo(UserExportService.FETCH_SIZE * 2 + 7);
+    }
+
+    @Test
+    void exportAsNdjson_ShouldPropagateClientDisconnect() {
+        // Given - enough rows to overflow the generator buffer into the broken stream
+        insertUsers(2000);
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> userExportService.exportAsNdjson(broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    private void insertUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO users (username, email, first_name, last_name) VALUES (?, ?, ?, ?)",
+                    "user" + i, "user" + i + "@example.com", "First" + i, "Last" + i);
+        }
+    }
+}
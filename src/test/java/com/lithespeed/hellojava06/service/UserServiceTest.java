@@ -1,25 +1,35 @@
 package com.lithespeed.hellojava06.service;
 
+import com.lithespeed.hellojava06.dto.UserBatchRequestDTO;
+import com.lithespeed.hellojava06.dto.UserKeysetPageDTO;
 import com.lithespeed.hellojava06.entity.User;
 import com.lithespeed.hellojava06.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -29,7 +39,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private UserCountService userCountService;
+
     private UserService userService;
 
     private User testUser;
@@ -37,6 +49,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        userService = new UserService(userRepository,
+                new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry()), userCountService);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("johndoe");
@@ -163,15 +178,57 @@ class UserServiceTest {
     void searchUsersByName_ShouldReturnMatchingUsers() {
         // Given
         List<User> expectedUsers = Arrays.asList(testUser);
-        when(userRepository.findByNameContaining("John")).thenReturn(expectedUsers);
+        when(userRepository.searchByName("john", "%john%", "john%", PageRequest.of(0, 20)))
+                .thenReturn(expectedUsers);
 
         // When
-        List<User> actualUsers = userService.searchUsersByName("John");
+        List<User> actualUsers = userService.searchUsersByName("John", 0, 20);
 
         // Then
         assertThat(actualUsers).hasSize(1);
         assertThat(actualUsers).contains(testUser);
-        verify(userRepository, times(1)).findByNameContaining("John");
+        verify(userRepository, times(1)).searchByName("john", "%john%", "john%", PageRequest.of(0, 20));
+    }
+
+    @Test
+    void searchUsersByName_WithShortTerm_ShouldRejectWithoutQuerying() {
+        // When & Then
+        assertThatThrownBy(() -> userService.searchUsersByName("  jo ", 0, 20))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("at least 3 characters");
+        assertThatThrownBy(() -> userService.searchUsersByName("   ", 0, 20))
+                .isInstanceOf(RuntimeException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsersByName_ShouldEscapeLikeWildcards() {
+        // Given
+        when(userRepository.searchByName(anyString(), anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        userService.searchUsersByName(" 50%_off! ", 0, 10);
+
+        // Then
+        verify(userRepository).searchByName("50%_off!", "%50!%!_off!!%", "50!%!_off!!%", PageRequest.of(0, 10));
+    }
+
+    @Test
+    void searchUsersByName_ShouldClampPageSizeAndCapResults() {
+        // Given
+        when(userRepository.searchByName(anyString(), anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        userService.searchUsersByName("doe", -1, 500);
+        List<User> beyondCap = userService.searchUsersByName("doe",
+                UserService.MAX_SEARCH_RESULTS / UserService.MAX_SEARCH_PAGE_SIZE, UserService.MAX_SEARCH_PAGE_SIZE);
+
+        // Then
+        assertThat(beyondCap).isEmpty();
+        verify(userRepository, times(1)).searchByName(anyString(), anyString(), anyString(), any(Pageable.class));
+        verify(userRepository).searchByName("doe", "%doe%", "doe%", PageRequest.of(0, UserService.MAX_SEARCH_PAGE_SIZE));
     }
 
     @Test
@@ -190,6 +247,7 @@ class UserServiceTest {
         verify(userRepository, times(1)).existsByUsername("newuser");
         verify(userRepository, times(1)).existsByEmail("new@example.com");
         verify(userRepository, times(1)).save(newUser);
+        verify(userCountService, times(1)).adjustAfterCommit(1);
     }
 
     @Test
@@ -282,6 +340,7 @@ class UserServiceTest {
         // Then
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).delete(testUser);
+        verify(userCountService, times(1)).adjustAfterCommit(-1);
     }
 
     @Test
@@ -335,4 +394,218 @@ class UserServiceTest {
         assertThat(count).isEqualTo(5L);
         verify(userRepository, times(1)).count();
     }
+
+    @Test
+    void getUserById_ShouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        User first = userService.getUserById(1L);
+        User second = userService.getUserById(1L);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getUserByUsernameAndEmail_ShouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.getUserByUsername("johndoe");
+        userService.getUserByUsername("johndoe");
+        userService.getUserByEmail("john@example.com");
+        userService.getUserByEmail("john@example.com");
+
+        // Then
+        verify(userRepository, times(1)).findByUsername("johndoe");
+        verify(userRepository, times(1)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void getUserById_ShouldNotCacheMissingUsers() {
+        // Given
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // When
+        assertThatThrownBy(() -> userService.getUserById(999L)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> userService.getUserById(999L)).isInstanceOf(RuntimeException.class);
+
+        // Then
+        verify(userRepository, times(2)).findById(999L);
+    }
+
+    @Test
+    void updateUser_ShouldInvalidateOldAndNewCacheKeys() {
+        // Given - cache the user under its original username
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userService.getUserByUsername("johndoe");
+        userService.getUserById(1L);
+
+        User updatedUserData = new User("johnny", "john@example.com", "John", "Doe");
+        when(userRepository.existsByUsername("johnny")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.updateUser(1L, updatedUserData);
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.empty());
+
+        // Then - both the old username and the id are reloaded from the repository
+        assertThatThrownBy(() -> userService.getUserByUsername("johndoe"))
+                .hasMessageContaining("User not found with username: johndoe");
+        userService.getUserById(1L);
+        verify(userRepository, times(2)).findByUsername("johndoe");
+        verify(userRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void deleteUser_ShouldInvalidateCachedUser() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userService.getUserById(1L);
+
+        // When
+        userService.deleteUser(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Then
+        assertThatThrownBy(() -> userService.getUserById(1L))
+                .hasMessageContaining("User not found with id: 1");
+    }
+
+    @Test
+    void createUsers_WithUniqueUsers_ShouldSaveAllInOneCall() {
+        // Given
+        User first = new User("newuser1", "new1@example.com", "New", "One");
+        User second = new User("newuser2", "new2@example.com", "New", "Two");
+        first.setId(42L);
+        List<User> batch = Arrays.asList(first, second);
+        when(userRepository.findByUsernameInOrEmailIn(anyCollection(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        when(userRepository.saveAll(batch)).thenReturn(batch);
+
+        // When
+        List<User> created = userService.createUsers(batch);
+
+        // Then
+        assertThat(created).hasSize(2);
+        assertThat(first.getId()).as("client-supplied ids are ignored").isNull();
+        verify(userRepository, times(1)).findByUsernameInOrEmailIn(anyCollection(), anyCollection());
+        verify(userRepository, times(1)).saveAll(batch);
+        verify(userCountService, times(1)).adjustAfterCommit(2);
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void createUsers_WithExistingUsers_ShouldReportAllConflicts() {
+        // Given
+        List<User> batch = Arrays.asList(
+                new User("johndoe", "new1@example.com", "New", "One"),
+                new User("newuser2", "jane@example.com", "New", "Two"));
+        when(userRepository.findByUsernameInOrEmailIn(anyCollection(), anyCollection()))
+                .thenReturn(Arrays.asList(testUser, anotherUser));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(batch))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("already exists")
+                .hasMessageContaining("username johndoe")
+                .hasMessageContaining("email jane@example.com");
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createUsers_WithDuplicateWithinBatch_ShouldRejectBeforeQuerying() {
+        // Given
+        List<User> batch = Arrays.asList(
+                new User("same", "new1@example.com", "New", "One"),
+                new User("same", "new2@example.com", "New", "Two"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(batch))
+                .hasMessageContaining("Duplicate username in batch: same");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void createUsers_WithOversizedBatch_ShouldReject() {
+        // Given
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i <= UserBatchRequestDTO.MAX_USERS; i++) {
+            batch.add(new User("user" + i, "user" + i + "@example.com", "User", String.valueOf(i)));
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(batch))
+                .hasMessageContaining("Batch size exceeds maximum");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUsersAfter_WithoutCursor_ShouldStartFromFirstIdAndIssueNextCursor() {
+        // Given
+        Pageable expected = PageRequest.of(0, 2, Sort.by("id"));
+        when(userRepository.findByIdGreaterThan(0L, expected))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testUser, anotherUser), expected, true));
+
+        // When
+        UserKeysetPageDTO page = userService.getUsersAfter(null, 2);
+
+        // Then
+        assertThat(page.getContent()).containsExactly(testUser, anotherUser);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(UserService.decodeCursor(page.getNextCursor())).isEqualTo(2L);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void getUsersAfter_WithCursor_ShouldSeekPastLastIdAndStopOnLastPage() {
+        // Given
+        String cursor = UserService.encodeCursor(10_000L);
+        Pageable expected = PageRequest.of(0, 20, Sort.by("id"));
+        when(userRepository.findByIdGreaterThan(10_000L, expected))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testUser), expected, false));
+
+        // When
+        UserKeysetPageDTO page = userService.getUsersAfter(cursor, 20);
+
+        // Then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getUsersAfter_ShouldClampPageSize() {
+        // Given
+        when(userRepository.findByIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // When
+        userService.getUsersAfter(null, 0);
+        userService.getUsersAfter(null, 10_000);
+
+        // Then
+        verify(userRepository).findByIdGreaterThan(0L, PageRequest.of(0, 1, Sort.by("id")));
+        verify(userRepository).findByIdGreaterThan(0L,
+                PageRequest.of(0, UserService.MAX_KEYSET_PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Test
+    void getUsersAfter_WithInvalidCursor_ShouldThrowRuntimeException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.getUsersAfter("not-a-cursor!", 20))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+        assertThatThrownBy(() -> userService.getUsersAfter(
+                Base64.getUrlEncoder().encodeToString("other:5".getBytes()), 20))
+                .hasMessageContaining("Invalid pagination cursor");
+        verifyNoInteractions(userRepository);
+    }
 }